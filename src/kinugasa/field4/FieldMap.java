@@ -21,7 +21,13 @@ import java.awt.Graphics2D;
 import java.awt.geom.Point2D;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import kinugasa.game.GameLog;
 import kinugasa.game.GameManager;
 import kinugasa.game.I18N;
@@ -44,6 +50,7 @@ import kinugasa.system.GameSystem;
 import kinugasa.system.actor.NPC;
 import kinugasa.ui.TextLabelSprite;
 import kinugasa.graphics.Animation;
+import kinugasa.graphics.ImageUtil;
 import kinugasa.graphics.KImage;
 import kinugasa.object.CompositeSprite;
 import kinugasa.object.FileObject;
@@ -89,6 +96,9 @@ public class FieldMap extends FileObject implements VisibleNameIDInjector<FieldM
 	private FieldNPCMap npcMap;
 	private boolean loaded = false;
 	private boolean loadScriptCall = true;
+	private final EnumMap<Vehicle, WalkabilityMap> walkability = new EnumMap<>(Vehicle.class);
+	private volatile TileAttributeGrid attributeGrid;
+	private List<String> pinnedImages = List.of();
 	//
 
 	public void setLoadScriptCall(boolean loadScriptCall) {
@@ -126,63 +136,104 @@ public class FieldMap extends FileObject implements VisibleNameIDInjector<FieldM
 
 	@Override
 	public FieldMap load() throws FileNotFoundException, FileFormatException, ContentsIOException {
+		//同期ロードは呼び出しスレッドで全ステージを実行する
+		commit(build(Runnable::run, new AtomicInteger(), new AtomicInteger()));
+		return this;
+	}
+
+	/**
+	 * ロード中のマップの構成要素です. ワーカースレッドで作成され、commitでまとめてFieldMapに反映されます.<br>
+	 */
+	static final class Parts {
+
+		private boolean debugMode;
+		private Storage<MiniMapLabel> miniMapLabelStorage;
+		private FMBackLayerSprite backLayerSprite;
+		private List<FMNomalLayerSprite> nomalLayerSprite;
+		private List<FMAnimationLayerSprite> animationLayerSprite;
+		private FMFrontLayerSprite frontLayerSprite;
+		private FieldEventScriptMap eventScriptMap;
+		private List<D2Idx> npcIdx;
+		private List<NPC> npcs;
+		private List<String> images;
+		private List<ScriptFileCall> loadScripts;
+	}
+
+	private static List<KImage> layerImages(DataFile.Element e) {
+		if (e.has("cutW")) {
+			int w = e.get("cutW").value.asInt();
+			int h = e.get("cutH").value.asInt();
+			return e.get("image").value.asKImageFile().splitX(0, w, h);
+		}
+		return List.of(e.get("image").value.asKImageFile());
+	}
+
+	//ステージの完了数を数えながら実行する
+	private static <T> CompletableFuture<T> stage(Executor ex, AtomicInteger total, AtomicInteger done, Supplier<T> s) {
+		total.incrementAndGet();
+		return CompletableFuture.supplyAsync(s, ex).whenComplete((r, e) -> done.incrementAndGet());
+	}
+
+	/**
+	 * マップの構成要素を作成します. このFieldMapの状態は変更されません.<br>
+	 * 画像のデコード、チップセットの分割とレイヤーの構築、NPCファイルの解析はexで並行に実行されます。<br>
+	 * NPCの移動モデルはレイヤーを参照するため、commitで設定されます。<br>
+	 *
+	 * @param ex ステージを実行するExecutor.<br>
+	 * @param total ステージの数が加算されます.<br>
+	 * @param done 完了したステージの数が加算されます.<br>
+	 * @return 構成要素.<br>
+	 */
+	Parts build(Executor ex, AtomicInteger total, AtomicInteger done) throws FileNotFoundException, FileFormatException, ContentsIOException {
 		if (!exists()) {
 			throw new FileNotFoundException(getFile());
 		}
 		if (GameSystem.isDebugMode()) {
-			GameLog.print("-FM LOAD START");
-			GameLog.addIndent();
+			GameLog.print("-FM LOAD START : " + getId());
 		}
-		miniMapLabelStorage = new Storage<>();
-		nomalLayerSprite = new ArrayList<>();
-		animationLayerSprite = new ArrayList<>();
+		Parts p = new Parts();
+		p.miniMapLabelStorage = new Storage<>();
 
 		DataFile f = new DataFile(getFile());
 		f.load();
 
-		this.debugMode = f.has("debugMode") ? f.get("debugMode").value.asBoolean() : false;
-		if (debugMode) {
-			if (!GameManager.getInstance().getUpdateLogicInjectors().contains(debugMenuOnOff)) {
-				GameManager.getInstance().getUpdateLogicInjectors().add(debugMenuOnOff);
-			}
-		}
+		p.debugMode = f.has("debugMode") ? f.get("debugMode").value.asBoolean() : false;
 
 		//MINIMAP_LABEL
 		if (f.has("MINIMAP_LABEL") && f.get("MINIMAP_LABEL").getElements() != null) {
 			for (var v : f.get("MINIMAP_LABEL")) {
 				D2Idx i = v.key.asD2IdxCSV();
 				I18NText t = v.value.asI18N();
-				miniMapLabelStorage.add(new MiniMapLabel(i, t));
+				p.miniMapLabelStorage.add(new MiniMapLabel(i, t));
 			}
 		}
 
 		//BACK_LAYER
+		CompletableFuture<FMBackLayerSprite> back = CompletableFuture.completedFuture(null);
 		if (f.has("BACK_LAYER") && f.get("BACK_LAYER").getElements() != null) {
-			List<KImage> image;
-			if (f.get("BACK_LAYER").has("cutW")) {
-				int w = f.get("BACK_LAYER").get("cutW").value.asInt();
-				int h = f.get("BACK_LAYER").get("cutH").value.asInt();
-				image = f.get("BACK_LAYER").get("image").value.asKImageFile().splitX(0, w, h);
-			} else {
-				image = List.of(f.get("BACK_LAYER").get("image").value.asKImageFile());
-			}
-
-			float drawSize = f.get("BACK_LAYER").has("drawSize") ? f.get("BACK_LAYER").get("drawSize").value.asFloat() : 1f;
-			FrameTimeCounter tc = f.get("BACK_LAYER").get("frame").value.asFrameTimeCounterCSV();
-			int windowW = GameManager.getInstance().getOption().getWindowSize().width;
-			int windowH = GameManager.getInstance().getOption().getWindowSize().height;
-
-			MapChipAttribute attr = f.get("BACK_LAYER").get("attr").value.of(MapChipAttribute.class);
-
-			this.backLayerSprite = new FMBackLayerSprite(windowW, windowH, attr, drawSize, tc, image);
-			if (f.get("BACK_LAYER").has("traceMove")) {
-				this.backLayerSprite.setTraceMove(f.get("BACK_LAYER").get("traceMove").value.asBoolean());
-			}
+			DataFile.Element e = f.get("BACK_LAYER");
+			back = stage(ex, total, done, () -> {
+				List<KImage> image = layerImages(e);
+				float drawSize = e.has("drawSize") ? e.get("drawSize").value.asFloat() : 1f;
+				FrameTimeCounter tc = e.get("frame").value.asFrameTimeCounterCSV();
+				int windowW = GameManager.getInstance().getOption().getWindowSize().width;
+				int windowH = GameManager.getInstance().getOption().getWindowSize().height;
+
+				MapChipAttribute attr = e.get("attr").value.of(MapChipAttribute.class);
+
+				var res = new FMBackLayerSprite(windowW, windowH, attr, drawSize, tc, image);
+				if (e.has("traceMove")) {
+					res.setTraceMove(e.get("traceMove").value.asBoolean());
+				}
+				return res;
+			});
 		}
 
 		//NOMAL_LAYER
-		{
-			for (var v : f.getData().stream().filter(p -> p.key.value().equals("NOMAL_LAYER")).toList()) {
+		List<CompletableFuture<FMNomalLayerSprite>> nomal = new ArrayList<>();
+		for (var v : f.getData().stream().filter(e -> e.key.value().equals("NOMAL_LAYER")).toList()) {
+			boolean debug = p.debugMode;
+			nomal.add(stage(ex, total, done, () -> {
 				MapChipSet chipSet = v.get("chipSet").value.asMapChipSetFile();
 				chipSet.load();
 				boolean above = v.has("above") ? v.get("above").value.asBoolean() : false;
@@ -195,58 +246,97 @@ public class FieldMap extends FileObject implements VisibleNameIDInjector<FieldM
 					}
 				}
 				var l = new FMNomalLayerSprite(chipSet, drawSize, above, data);
-				if (this.debugMode) {
+				if (debug) {
 					l.setDebugMode(true);
 				}
-				nomalLayerSprite.add(l);
-			}
+				return l;
+			}));
 		}
 
 		//ANIMATION_LAYER
-		{
-			for (var v : f.getData().stream().filter(p -> p.key.value().equals("ANIMATION_LAYER")).toList()) {
-				D2Idx idx = v.get("idx").value.asD2IdxCSV();
-				List<KImage> image;
-				if (f.get("ANIMATION_LAYER").has("cutW")) {
-					int w = f.get("ANIMATION_LAYER").get("cutW").value.asInt();
-					int h = f.get("ANIMATION_LAYER").get("cutH").value.asInt();
-					image = f.get("ANIMATION_LAYER").get("image").value.asKImageFile().splitX(0, w, h);
-				} else {
-					image = List.of(f.get("ANIMATION_LAYER").get("image").value.asKImageFile());
-				}
-				FrameTimeCounter tc = v.get("frame").value.asFrameTimeCounterCSV();
+		List<CompletableFuture<List<KImage>>> animation = new ArrayList<>();
+		List<DataFile.Element> animationElements = f.getData().stream().filter(e -> e.key.value().equals("ANIMATION_LAYER")).toList();
+		for (var v : animationElements) {
+			DataFile.Element e = f.get("ANIMATION_LAYER");
+			animation.add(stage(ex, total, done, () -> {
+				List<KImage> image = layerImages(e);
 				if (v.has("drawSize")) {
-					image = image.stream().map(p -> p.resize(v.get("drawSize").value.asFloat())).toList();
+					image = image.stream().map(i -> i.resize(v.get("drawSize").value.asFloat())).toList();
 				}
-				Animation a = new Animation(tc, image);
-				animationLayerSprite.add(new FMAnimationLayerSprite(nomalLayerSprite.get(0).getChipDrawSize(), idx, a));
-			}
+				return image;
+			}));
 		}
 
 		//FRONT_LAYER
+		DataFile.Element frontElement = f.get("FRONT_LAYER");
+		CompletableFuture<FMFrontLayerSprite> front = stage(ex, total, done, () -> {
+			DataFile.Element e = frontElement;
+			List<KImage> image = layerImages(e);
+
+			float drawSize = e.has("drawSize") ? e.get("drawSize").value.asFloat() : 1f;
+			float angle = e.get("angle").value.asFloat();
+			float speed = e.get("speed").value.asFloat();
+			float tp = e.get("tp").value.asFloat();
+			TimeCounter tc = e.has("frame")
+					? e.get("frame").value.asFrameTimeCounterCSV()
+					: TimeCounter.always(TimeCounterState.INACTIVE);
+
+			return new FMFrontLayerSprite(tp, drawSize, new KVector(angle, speed), tc, image);
+		});
+
+		//NPC
+		List<D2Idx> npcIdx = new ArrayList<>();
+		List<CompletableFuture<NPC>> npcs = new ArrayList<>();
 		{
-			List<KImage> image;
-			if (f.get("FRONT_LAYER").has("cutW")) {
-				int w = f.get("FRONT_LAYER").get("cutW").value.asInt();
-				int h = f.get("FRONT_LAYER").get("cutH").value.asInt();
-				image = f.get("FRONT_LAYER").get("image").value.asKImageFile().splitX(0, w, h);
-			} else {
-				image = List.of(f.get("FRONT_LAYER").get("image").value.asKImageFile());
+			IniFile npcList = getNPCList();
+			if (npcList.exists()) {
+				for (var v : npcList.load()) {
+					D2Idx idx = v.getKey().asUniversalValue().trim().asD2IdxCSV();
+					//ファイルパス
+					File file = new File(getDir() + "npc/" + v.getValue().trim().value() + ".npc.txt");
+					npcIdx.add(idx);
+					npcs.add(stage(ex, total, done, () -> {
+						NPC npc = new NPC(file, this, idx).loadData();
+						npc.asScript().load();
+						return npc;
+					}));
+				}
+				npcList.free();
 			}
+		}
 
-			float drawSize = f.get("FRONT_LAYER").has("drawSize") ? f.get("FRONT_LAYER").get("drawSize").value.asFloat() : 1f;
-			float angle = f.get("FRONT_LAYER").get("angle").value.asFloat();
-			float speed = f.get("FRONT_LAYER").get("speed").value.asFloat();
-			float tp = f.get("FRONT_LAYER").get("tp").value.asFloat();
-			TimeCounter tc = f.get("FRONT_LAYER").has("frame")
-					? f.get("FRONT_LAYER").get("frame").value.asFrameTimeCounterCSV()
-					: TimeCounter.always(TimeCounterState.INACTIVE);
+		//全ステージの完了を待つ
+		try {
+			List<CompletableFuture<?>> all = new ArrayList<>();
+			all.add(back);
+			all.addAll(nomal);
+			all.addAll(animation);
+			all.add(front);
+			all.addAll(npcs);
+			CompletableFuture.allOf(all.toArray(CompletableFuture[]::new)).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException re) {
+				throw re;
+			}
+			throw new ContentsIOException(e.getCause());
+		}
 
-			this.frontLayerSprite = new FMFrontLayerSprite(tp, drawSize, new KVector(angle, speed), tc, image);
+		p.backLayerSprite = back.join();
+		p.nomalLayerSprite = new ArrayList<>(nomal.stream().map(CompletableFuture::join).toList());
+		p.animationLayerSprite = new ArrayList<>();
+		for (int i = 0; i < animationElements.size(); i++) {
+			var v = animationElements.get(i);
+			D2Idx idx = v.get("idx").value.asD2IdxCSV();
+			FrameTimeCounter tc = v.get("frame").value.asFrameTimeCounterCSV();
+			Animation a = new Animation(tc, animation.get(i).join());
+			p.animationLayerSprite.add(new FMAnimationLayerSprite(p.nomalLayerSprite.get(0).getChipDrawSize(), idx, a));
 		}
+		p.frontLayerSprite = front.join();
+		p.npcIdx = npcIdx;
+		p.npcs = new ArrayList<>(npcs.stream().map(CompletableFuture::join).toList());
 
 		//SCRIPT_MAP
-		this.eventScriptMap = new FieldEventScriptMap();
+		p.eventScriptMap = new FieldEventScriptMap();
 		{
 			if (f.has("EVENT") && f.get("EVENT").getElements() != null) {
 				for (var v : f.get("EVENT").getElements()) {
@@ -255,51 +345,78 @@ public class FieldMap extends FileObject implements VisibleNameIDInjector<FieldM
 					}
 					D2Idx idx = v.key.asD2IdxCSV();
 					ScriptFileCall sc = v.value.asScriptCall();
-					this.eventScriptMap.add(idx, sc);
+					p.eventScriptMap.add(idx, sc);
 				}
 				//CLONE RIM
 				if (f.get("EVENT").has("cloneToRim")) {
 					D2Idx tgt = f.get("EVENT").get("cloneToRim").value.asD2IdxCSV();
-					if (!this.eventScriptMap.has(tgt)) {
+					if (!p.eventScriptMap.has(tgt)) {
 						throw new FileFormatException("FM : cloneToRim, but tgt event not found : " + tgt);
 					}
-					ScriptFileCall sc = this.eventScriptMap.get(tgt);
-					int w = nomalLayerSprite.get(0).getDataWidth() - 1;
-					int h = nomalLayerSprite.get(0).getDataHeight() - 1;
-					for (int i = 0; i < nomalLayerSprite.get(0).getDataWidth(); i++) {
-						this.eventScriptMap.add(new D2Idx(0, i), sc);
-						this.eventScriptMap.add(new D2Idx(i, 0), sc);
-						this.eventScriptMap.add(new D2Idx(w, i), sc);
-						this.eventScriptMap.add(new D2Idx(i, h), sc);
+					ScriptFileCall sc = p.eventScriptMap.get(tgt);
+					int w = p.nomalLayerSprite.get(0).getDataWidth() - 1;
+					int h = p.nomalLayerSprite.get(0).getDataHeight() - 1;
+					for (int i = 0; i < p.nomalLayerSprite.get(0).getDataWidth(); i++) {
+						p.eventScriptMap.add(new D2Idx(0, i), sc);
+						p.eventScriptMap.add(new D2Idx(i, 0), sc);
+						p.eventScriptMap.add(new D2Idx(w, i), sc);
+						p.eventScriptMap.add(new D2Idx(i, h), sc);
 					}
 				}
 			}
 		}
-		//NPC
-		this.npcMap = new FieldNPCMap();
-		{
-			IniFile npcList = getNPCList();
-			if (npcList.exists()) {
-				for (var v : npcList.load()) {
-					D2Idx idx = v.getKey().asUniversalValue().trim().asD2IdxCSV();
-					//ファイルパス
-					File file = new File(getDir() + "npc/" + v.getValue().trim().value() + ".npc.txt");
-					NPC npc = new NPC(file, this, idx).load();
-					npc.asScript().load();
 
-					this.npcMap.add(idx, npc);
-				}
-				npcList.free();
+		p.loadScripts = new ArrayList<>();
+		if (f.has("LOAD_SCRIPT")) {
+			f.get("LOAD_SCRIPT").getElements().forEach(v -> p.loadScripts.add(v.key.asScriptCall()));
+		}
+		p.images = imagePathsOf(f);
+
+		f.free();
+		return p;
+	}
+
+	/**
+	 * buildで作成した構成要素をこのマップに反映し、NPCの移動モデルを設定してLOAD_SCRIPTを実行します.<br>
+	 * ゲームループのスレッドから呼び出してください。<br>
+	 *
+	 * @param p 構成要素.<br>
+	 */
+	void commit(Parts p) {
+		if (GameSystem.isDebugMode()) {
+			GameLog.print("-FM COMMIT START : " + getId());
+			GameLog.addIndent();
+		}
+		invalidateWalkability();
+		this.debugMode = p.debugMode;
+		if (debugMode) {
+			if (!GameManager.getInstance().getUpdateLogicInjectors().contains(debugMenuOnOff)) {
+				GameManager.getInstance().getUpdateLogicInjectors().add(debugMenuOnOff);
 			}
 		}
+		this.miniMapLabelStorage = p.miniMapLabelStorage;
+		this.backLayerSprite = p.backLayerSprite;
+		this.nomalLayerSprite = p.nomalLayerSprite;
+		this.animationLayerSprite = p.animationLayerSprite;
+		this.frontLayerSprite = p.frontLayerSprite;
+		this.eventScriptMap = p.eventScriptMap;
+		getAttributeGrid();
+
+		//NPCの移動モデルは通行可否を参照するため、レイヤーの反映後に設定する
+		FieldNPCMap npcs = new FieldNPCMap();
+		for (int i = 0; i < p.npcs.size(); i++) {
+			NPC npc = p.npcs.get(i);
+			npc.bindMoveModel();
+			npcs.add(p.npcIdx.get(i), npc);
+		}
+		this.npcMap = npcs;
 
 		if (loadScriptCall) {
-			if (f.has("LOAD_SCRIPT")) {
+			if (!p.loadScripts.isEmpty()) {
 				if (!ScriptSystem.getInstance().isLoaded()) {
 					throw new IllegalStateException("FM LOAD_SCRIPT: ScriptSystem is not yet init() : " + this);
 				}
-				f.get("LOAD_SCRIPT").getElements().forEach(v -> {
-					ScriptFileCall s = v.key.asScriptCall();
+				p.loadScripts.forEach(s -> {
 					if (GameSystem.isDebugMode()) {
 						GameLog.print("--- " + s);
 					}
@@ -308,15 +425,71 @@ public class FieldMap extends FileObject implements VisibleNameIDInjector<FieldM
 			}
 		}
 
-		f.free();
+		//ロード中のマップの画像はキャッシュから追い出さない
+		//前回のピン留めは、新しい画像をピン留めしてから解除する
+		List<String> prevImages = pinnedImages;
+		pinnedImages = p.images;
+		ImageUtil.pin(pinnedImages);
+		ImageUtil.unpin(prevImages);
+
 		loaded = true;
 
 		if (GameSystem.isDebugMode()) {
 			GameLog.removeIndent();
 			GameLog.print("-FM LOAD END");
 		}
+	}
 
-		return this;
+	/**
+	 * このマップが使用する画像ファイルのパスを、マップをロードせずに列挙します.<br>
+	 * チップセット、各レイヤー、NPCのスプライトが含まれます。別スレッドから呼び出せます。<br>
+	 *
+	 * @return 画像ファイルのパス。<br>
+	 * @throws FileNotFoundException マップのファイルがない場合.<br>
+	 */
+	public List<String> getImagePaths() throws FileNotFoundException {
+		DataFile f = new DataFile(getFile());
+		f.load();
+		try {
+			return imagePathsOf(f);
+		} finally {
+			f.free();
+		}
+	}
+
+	private List<String> imagePathsOf(DataFile f) {
+		List<String> res = new ArrayList<>();
+		for (var v : f.getData()) {
+			String key = v.key.value();
+			if (key.equals("NOMAL_LAYER")) {
+				String path = v.get("chipSet").value.asMapChipSetFile().readImagePath();
+				if (path != null) {
+					res.add(path);
+				}
+				continue;
+			}
+			if (key.equals("BACK_LAYER") || key.equals("ANIMATION_LAYER") || key.equals("FRONT_LAYER")) {
+				if (v.getElements() != null && v.has("image") && !v.get("image").value.is("null")) {
+					res.add(v.get("image").value.asFile().getPath());
+				}
+			}
+		}
+		IniFile npcList = getNPCList();
+		if (npcList.exists()) {
+			for (var v : npcList.load()) {
+				File file = new File(getDir() + "npc/" + v.getValue().trim().value() + ".npc.txt");
+				if (!file.exists()) {
+					continue;
+				}
+				DataFile npc = new DataFile(file).load();
+				if (npc.has("PI") && npc.get("PI").has("sprite")) {
+					res.add(npc.get("PI").get("sprite").value.asFile().getPath());
+				}
+				npc.free();
+			}
+			npcList.free();
+		}
+		return res;
 	}
 
 	@Override
@@ -337,6 +510,9 @@ public class FieldMap extends FileObject implements VisibleNameIDInjector<FieldM
 		eventScriptMap = null;
 		npcMap.free();
 		npcMap = null;
+		invalidateWalkability();
+		ImageUtil.unpin(pinnedImages);
+		pinnedImages = List.of();
 
 		loaded = false;
 		GameLog.print("FM FREE : " + getId());
@@ -380,25 +556,74 @@ public class FieldMap extends FileObject implements VisibleNameIDInjector<FieldM
 		return frontLayerSprite;
 	}
 
+	/**
+	 * タイルを取得します. 領域外のタイルはCLOSEになります.<br>
+	 * 返されるタイルは属性表のビューです。<br>
+	 *
+	 * @param i タイルの位置。<br>
+	 * @return タイル。<br>
+	 */
 	public LayeredTile getTile(D2Idx i) {
-		//iが領域外の場合、CLOSEで終わる
-		if (i.x < 0 || i.y < 0 || i.x >= nomalLayerSprite.get(0).getDataWidth() || i.y >= nomalLayerSprite.get(0).getDataHeight()) {
-			return new LayeredTile(i, List.of(MapChipAttribute.CLOSE));
-		}
+		return getAttributeGrid().getTile(i);
+	}
+
+	/**
+	 * 指定のタイルに乗り物で乗れるかを検査します. オブジェクトを生成しません.<br>
+	 *
+	 * @param x タイルのX。<br>
+	 * @param y タイルのY。<br>
+	 * @param v 乗り物。<br>
+	 * @return 乗れる場合true。<br>
+	 */
+	public boolean canStep(int x, int y, Vehicle v) {
+		return getAttributeGrid().canStep(x, y, v);
+	}
 
-		List<MapChipAttribute> c = new ArrayList<>();
-		for (var v : nomalLayerSprite) {
-			if (v.isInArea(i)) {
-				c.add(v.of(i).getAttr());
+	/**
+	 * タイル属性表を取得します. マップのロード時に作成され、以後はinvalidateWalkabilityまで再利用されます.<br>
+	 *
+	 * @return タイル属性表。<br>
+	 */
+	@NotNewInstance
+	public TileAttributeGrid getAttributeGrid() {
+		TileAttributeGrid res = attributeGrid;
+		if (res != null) {
+			return res;
+		}
+		synchronized (walkability) {
+			if (attributeGrid == null) {
+				attributeGrid = TileAttributeGrid.of(nomalLayerSprite, backLayerSprite);
 			}
+			return attributeGrid;
 		}
-		//ノーマルレイヤーがすべてVOIDだった場合はBackレイヤーの属性を入れる
-		if (c.isEmpty() || c.stream().allMatch(p -> p == MapChipAttribute.VOID)) {
-			if (backLayerSprite != null) {
-				c.add(0, backLayerSprite.getAttr());
+	}
+
+	/**
+	 * 乗り物ごとの通行可否表を取得します. 初回の呼び出し時に作成され、以後はinvalidateWalkabilityまで再利用されます.<br>
+	 *
+	 * @param v 乗り物。<br>
+	 * @return 通行可否表。<br>
+	 */
+	public WalkabilityMap getWalkability(Vehicle v) {
+		synchronized (walkability) {
+			WalkabilityMap res = walkability.get(v);
+			if (res == null) {
+				res = WalkabilityMap.of(this, v);
+				walkability.put(v, res);
 			}
+			return res;
+		}
+	}
+
+	/**
+	 * 通行可否表とタイル属性表を破棄します. タイルを変更した場合に呼び出してください.<br>
+	 * 次の参照時に現在のレイヤーから作り直されます。<br>
+	 */
+	public void invalidateWalkability() {
+		synchronized (walkability) {
+			walkability.clear();
+			attributeGrid = null;
 		}
-		return new LayeredTile(i, c);
 	}
 
 	public int getLayer0ChipSize() {
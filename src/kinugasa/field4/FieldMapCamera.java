@@ -21,12 +21,14 @@ import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.List;
+import kinugasa.game.DirtyRegion;
 import kinugasa.game.GameLog;
 import kinugasa.game.GameManager;
 import kinugasa.game.annotation.NewInstance;
 import kinugasa.game.annotation.Nullable;
 import kinugasa.game.annotation.Singleton;
 import kinugasa.script.ScriptFileCall;
+import kinugasa.field4.layer.FMAnimationLayerSprite;
 import kinugasa.field4.layer.FMNomalLayerSprite;
 import kinugasa.system.GameSystem;
 import kinugasa.system.actor.NPC;
@@ -68,6 +70,12 @@ public class FieldMapCamera {
 	//
 	private TimeCounter debugRimmedBlinkRate;
 	private boolean debugRimmedBlinkVisible = false;
+	//描画リスト。マップが変わるまで使い回す。
+	private final List<FMNomalLayerSprite> belowLayers = new ArrayList<>();
+	private final List<FMNomalLayerSprite> aboveLayers = new ArrayList<>();
+	private final List<FMAnimationLayerSprite> animationLayers = new ArrayList<>();
+	//直前のフレームで描画、カリングしたスプライト数
+	private int drawnSpriteCount, culledSpriteCount;
 
 	private static final FieldMapCamera INSTANCE = new FieldMapCamera();
 
@@ -87,6 +95,13 @@ public class FieldMapCamera {
 		debugMapImage = null;
 		layer0 = fm.getNomalLayerSprite().get(0);
 		chipSize = layer0.getChipDrawSize();
+		belowLayers.clear();
+		aboveLayers.clear();
+		for (var v : fm.getNomalLayerSprite()) {
+			(v.isAbove() ? aboveLayers : belowLayers).add(v);
+		}
+		animationLayers.clear();
+		animationLayers.addAll(fm.getAnimationLayerSprite());
 		int insetsTop = GameManager.getInstance().getWindow().getInsets().top;
 
 		//window Size
@@ -94,6 +109,7 @@ public class FieldMapCamera {
 			int w = GameManager.getInstance().getOption().getWindowSize().width;
 			int h = GameManager.getInstance().getOption().getWindowSize().height;
 			windowArea = new EmptySprite(0, 0, w, h);
+			fm.getNomalLayerSprite().forEach(p -> p.setViewArea(windowArea.getBounds()));
 		}
 
 		//layer0 move area
@@ -391,18 +407,76 @@ public class FieldMapCamera {
 		if (fm.getBackLayerSprite() != null) {
 			fm.getBackLayerSprite().draw(g);
 		}
-		fm.getNomalLayerSprite().stream().filter(p -> !p.isAbove()).forEach(p -> p.draw(g));
-		fm.getNPCMap().values().forEach(p -> p.getSprite().draw(g));
-		pcSprite.forEach(p -> p.draw(g));
-		fm.getNomalLayerSprite().stream().filter(p -> p.isAbove()).forEach(p -> p.draw(g));
+		drawnSpriteCount = culledSpriteCount = 0;
+		for (int i = 0, size = belowLayers.size(); i < size; i++) {
+			belowLayers.get(i).draw(g);
+		}
+		for (var v : fm.getNPCMap().values()) {
+			drawIfVisible(g, v.getSprite());
+		}
+		for (int i = 0, size = pcSprite.size(); i < size; i++) {
+			drawIfVisible(g, pcSprite.get(i));
+		}
+		for (int i = 0, size = aboveLayers.size(); i < size; i++) {
+			aboveLayers.get(i).draw(g);
+		}
 
-		fm.getAnimationLayerSprite().forEach(p -> p.draw(g));
+		for (int i = 0, size = animationLayers.size(); i < size; i++) {
+			FMAnimationLayerSprite a = animationLayers.get(i);
+			if (!drawIfVisible(g, a) && a.isAutoImageUpdate() && a.isVisible() && a.isExist()) {
+				//画面外でもアニメーションは進める
+				a.update();
+			}
+		}
 		fm.getFrontLayerSprite().draw(g);
 		if (fm.isDebugMode()) {
 			debugDraw(g);
 		}
 	}
 
+	private boolean drawIfVisible(GraphicsContext g, Sprite s) {
+		if (!isInWindow(s)) {
+			culledSpriteCount++;
+			return false;
+		}
+		drawnSpriteCount++;
+		s.draw(g);
+		return true;
+	}
+
+	/**
+	 * スプライトの一部でもウインドウ内にあるかを判定します.<br>
+	 *
+	 * @param s 判定するスプライト。<br>
+	 * @return ウインドウと重なっている場合true。<br>
+	 */
+	public boolean isInWindow(Sprite s) {
+		float x = s.getX();
+		float y = s.getY();
+		return x + s.getWidth() >= windowArea.getX()
+				&& y + s.getHeight() >= windowArea.getY()
+				&& x <= windowArea.getX() + windowArea.getWidth()
+				&& y <= windowArea.getY() + windowArea.getHeight();
+	}
+
+	/**
+	 * 直前のフレームで描画されたNPC、PC、アニメーションのスプライト数を返します.<br>
+	 *
+	 * @return 描画数。<br>
+	 */
+	public int getDrawnSpriteCount() {
+		return drawnSpriteCount;
+	}
+
+	/**
+	 * 直前のフレームで画面外のためにカリングされたスプライト数を返します.<br>
+	 *
+	 * @return カリング数。<br>
+	 */
+	public int getCulledSpriteCount() {
+		return culledSpriteCount;
+	}
+
 	private void debugDraw(GraphicsContext g) {
 		//中心レティクル
 		{
@@ -569,13 +643,15 @@ public class FieldMapCamera {
 		//CHIP_SIZE
 		{
 			g.setColor(Color.WHITE);
-			g.drawString("CHIP_SIZE:" + chipSize + ", DRAW_SIZE:" + GameManager.getInstance().getOption().getDrawSize(), 4, 90);
+			g.drawString("CHIP_SIZE:" + chipSize + ", DRAW_SIZE:" + GameManager.getInstance().getOption().getDrawSize()
+					+ ", CHUNK:" + layer0.getDrawnChunkCount() + "/" + layer0.getCachedChunkCount(), 4, 90);
 
 		}
 		//SMALL_MAP
 		{
 			g.setColor(Color.WHITE);
-			g.drawString("SMALL_MAP:" + (isSmallMapX ? "X" : "-") + "," + (isSmallMapY ? "Y" : "-"), 4, 102);
+			g.drawString("SMALL_MAP:" + (isSmallMapX ? "X" : "-") + "," + (isSmallMapY ? "Y" : "-")
+					+ ", SPRITE:" + drawnSpriteCount + " drawn/" + culledSpriteCount + " culled", 4, 102);
 
 		}
 		//NPC
@@ -711,6 +787,8 @@ public class FieldMapCamera {
 			}
 		}
 		pcIDXOnTile = newPcIDXOnTile;
+		//スクロールは画面全体が変わるため、個々のスプライトの範囲は登録しない
+		DirtyRegion.getInstance().addAll();
 		fm.getNomalLayerSprite().forEach(p -> p.setVector(v2));
 		fm.getNomalLayerSprite().forEach(p -> p.move());
 		if (fm.getBackLayerSprite() != null) {
@@ -735,7 +813,7 @@ public class FieldMapCamera {
 		}
 		//乗れるチップの判定
 		if (!ignoreVhicle) {
-			if (!FieldMapSystem.getInstance().getCurrentVehicle().canStep(fm.getTile(newPcIDXOnTile))) {
+			if (!fm.canStep(newPcIDXOnTile.x, newPcIDXOnTile.y, FieldMapSystem.getInstance().getCurrentVehicle())) {
 				//移動不可だがPC0のTOだけする
 				pc0To(plosNext);
 				return false;
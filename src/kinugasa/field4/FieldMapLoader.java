@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.field4;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import kinugasa.game.annotation.LoopCall;
+import kinugasa.resource.ContentsIOException;
+
+/**
+ * FieldMapをワーカースレッドで段階的にロードします.<br>
+ * 画像のデコード、レイヤーの構築、NPCファイルの解析が並行に行われ、その間ゲームループは止まりません。<br>
+ * ロードが完了したら、ゲームループのスレッドからcommitを呼び出すとマップにまとめて反映されます。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_15:12:08<br>
+ * @author Shinacho.<br>
+ */
+public final class FieldMapLoader {
+
+	private static int workerNum = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+	private static ExecutorService pool;
+
+	public static int getWorkerNum() {
+		return workerNum;
+	}
+
+	/**
+	 * ロードを行うスレッド数を設定します. 最初のロードより前に設定してください.<br>
+	 *
+	 * @param workerNum スレッド数。<br>
+	 */
+	public static void setWorkerNum(int workerNum) {
+		if (workerNum <= 0) {
+			throw new IllegalArgumentException("FieldMapLoader : workerNum is 0 or minus : " + workerNum);
+		}
+		FieldMapLoader.workerNum = workerNum;
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if (pool == null) {
+			AtomicInteger n = new AtomicInteger();
+			pool = Executors.newFixedThreadPool(workerNum, r -> {
+				Thread t = new Thread(r, "FieldMapLoader-" + n.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		return pool;
+	}
+
+	private final FieldMap map;
+	//マップファイルの解析を1ステージとして数える
+	private final AtomicInteger total = new AtomicInteger(1);
+	private final AtomicInteger done = new AtomicInteger();
+	private final CompletableFuture<FieldMap.Parts> future;
+	private boolean committed = false;
+
+	private FieldMapLoader(FieldMap map) {
+		this.map = map;
+		//各ステージは同じプールに投入されるため、全体の待機はプール外のスレッドで行う
+		this.future = CompletableFuture.supplyAsync(() -> {
+			try {
+				return map.build(getPool(), total, done);
+			} finally {
+				done.incrementAndGet();
+			}
+		});
+	}
+
+	/**
+	 * ロードを開始します.
+	 *
+	 * @param map ロードするマップ。ロード済みでも構いません。<br>
+	 * @return ローダー.<br>
+	 */
+	public static FieldMapLoader start(FieldMap map) {
+		return new FieldMapLoader(map);
+	}
+
+	public FieldMap getMap() {
+		return map;
+	}
+
+	/**
+	 * 進捗を返します.
+	 *
+	 * @return 0から1。完了したステージの割合です。<br>
+	 */
+	public float getProgress() {
+		if (future.isDone()) {
+			return 1f;
+		}
+		return Math.min(1f, (float) done.get() / total.get());
+	}
+
+	public boolean isDone() {
+		return future.isDone();
+	}
+
+	/**
+	 * ロード結果をマップに反映します. ゲームループのスレッドから、isDoneがtrueになった後に呼び出してください.<br>
+	 * ロード中に発生した例外はここで投げられます。<br>
+	 *
+	 * @return ロードされたマップ.<br>
+	 * @throws IllegalStateException ロードが完了していない場合.<br>
+	 */
+	@LoopCall
+	public FieldMap commit() throws IllegalStateException {
+		if (!future.isDone()) {
+			throw new IllegalStateException("FieldMapLoader : not yet done : " + map);
+		}
+		if (committed) {
+			throw new IllegalStateException("FieldMapLoader : double commit : " + map);
+		}
+		FieldMap.Parts p;
+		try {
+			p = future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException re) {
+				throw re;
+			}
+			throw new ContentsIOException(e.getCause());
+		}
+		map.commit(p);
+		committed = true;
+		return map;
+	}
+
+	@Override
+	public String toString() {
+		return "FieldMapLoader{" + "map=" + map.getId() + ", progress=" + getProgress() + '}';
+	}
+
+}
@@ -77,6 +77,10 @@ public final class FieldMapStorage {
 	public FieldMap get(String id) throws IDNotFoundException {
 		return storage.get(id);
 	}
+
+	public boolean contains(String id) {
+		return storage.contains(id);
+	}
 	//--------------------------------------------------------------------------
 
 }
@@ -20,6 +20,7 @@ import java.awt.geom.Point2D;
 import java.io.File;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.concurrent.CompletableFuture;
 import kinugasa.game.GameLog;
 import kinugasa.game.I18NText;
 import kinugasa.game.annotation.DataChange;
@@ -33,12 +34,15 @@ import kinugasa.system.GameSystem;
 import kinugasa.system.I18NConst;
 import kinugasa.system.actor.Follower;
 import kinugasa.system.actor.NPC;
+import kinugasa.system.actor.npcMove.PathRequestService;
 import kinugasa.game.GraphicsContext;
+import kinugasa.graphics.ImageUtil;
 import kinugasa.graphics.KImage;
 import kinugasa.object.Drawable;
 import kinugasa.object.FourDirection;
 import kinugasa.object.KVector;
 import kinugasa.resource.sound.Sound;
+import kinugasa.resource.sound.SoundSystem;
 import kinugasa.resource.text.IniFile;
 
 /**
@@ -102,17 +106,7 @@ public final class FieldMapSystem implements Drawable {
 		currentNPCs.clear();
 
 		//currentへの追加
-		int x = i.x;
-		int y = i.y;
-		addNPC(x - 1, y - 1);
-		addNPC(x, y - 1);
-		addNPC(x + 1, y - 1);
-		addNPC(x - 1, y);
-		addNPC(x, y);
-		addNPC(x + 1, y);
-		addNPC(x - 1, y + 1);
-		addNPC(x, y + 1);
-		addNPC(x + 1, y + 1);
+		fieldMap.getNPCMap().collectAround(i.x, i.y, 1, currentNPCs);
 
 		//currentにいなくてprevにいるNPCのLEAVE実行
 		for (var v : prevNPCs) {
@@ -130,14 +124,6 @@ public final class FieldMapSystem implements Drawable {
 		}
 	}
 
-	private void addNPC(int x, int y) {
-		D2Idx i = new D2Idx(x, y);
-		if (!fieldMap.getNPCMap().has(i)) {
-			return;
-		}
-		currentNPCs.add(fieldMap.getNPCMap().get(i));
-	}
-
 	private boolean talking = false;
 	private NPC talkingNPC = null;
 
@@ -290,6 +276,7 @@ public final class FieldMapSystem implements Drawable {
 			return;
 		}
 		this.currentNode = n;
+		prefetchNode();
 		updateTooltip();
 	}
 
@@ -305,6 +292,7 @@ public final class FieldMapSystem implements Drawable {
 			return;
 		}
 		currentNode = new FieldMapNode(next, i, dir, s, new SimpleMapChangeEffect(), tooltip);
+		prefetchNode();
 		updateTooltip();
 	}
 
@@ -381,6 +369,39 @@ public final class FieldMapSystem implements Drawable {
 		this.tooltipText = null;
 	}
 
+	private String prefetchedMapID;
+
+	/**
+	 * 指定のマップが使用する画像を、ワーカースレッドで画像キャッシュに読み込みます.<br>
+	 * マップ自体はロードされません。<br>
+	 *
+	 * @param id マップのID。<br>
+	 * @return 読み込みが終わると完了します。<br>
+	 */
+	public CompletableFuture<Void> prefetch(String id) {
+		FieldMap fm = FieldMapStorage.getInstance().get(id);
+		return ImageUtil.prefetch(fm::getImagePaths);
+	}
+
+	//ノードに乗ったらchangeMapStartより前に移動先の画像とノードのサウンドを読み始める
+	private void prefetchNode() {
+		if (currentNode == null) {
+			return;
+		}
+		if (currentNode.getSound() != null) {
+			SoundSystem.getInstance().loadAsync(currentNode.getSound());
+		}
+		String id = currentNode.getNextFieldMapID();
+		if (id.equals(prefetchedMapID) || (fieldMap != null && id.equals(fieldMap.getId()))) {
+			return;
+		}
+		if (!FieldMapStorage.getInstance().contains(id)) {
+			return;
+		}
+		prefetchedMapID = id;
+		prefetch(id);
+	}
+
 	public void changeMapStart() {
 		if (currentNode == null) {
 			throw new IllegalStateException("FMS : changeMapStart, but node is null");
@@ -391,6 +412,8 @@ public final class FieldMapSystem implements Drawable {
 		this.changeMap = true;
 	}
 
+	private FieldMapLoader loader;
+
 	@DataChange
 	private void changeMapExec() {
 		assert currentNode != null : "FMS : node is null";
@@ -399,9 +422,6 @@ public final class FieldMapSystem implements Drawable {
 			GameLog.addIndent();
 		}
 		currentNPCs.forEach(p -> p.asScript().load().getBlockOf(ScriptBlockType.LEAVE).exec().free());
-		currentNPCs.forEach(p -> p.free());
-		currentNPCs.clear();
-		prevNPCs.clear();
 		if (currentScript != null) {
 			nodeLock = true;
 			currentScript.exec(ScriptBlockType.STEP_DOWN);
@@ -416,12 +436,22 @@ public final class FieldMapSystem implements Drawable {
 		}
 		npcList.save();
 
+		PathRequestService.getInstance().clear();
+		//現在のマップは描画に使われるため、次のマップのロードが終わるまで解放しない
+		loader = FieldMapLoader.start(FieldMapStorage.getInstance().get(currentNode.getNextFieldMapID()));
+	}
+
+	@DataChange
+	private void changeMapCommit() {
+		currentNPCs.forEach(p -> p.free());
+		currentNPCs.clear();
+		prevNPCs.clear();
 		if (fieldMap != null) {
 			fieldMap.free();
 		}
-		FieldMap next = FieldMapStorage.getInstance().get(currentNode.getNextFieldMapID());
+		FieldMap next = loader.commit();
+		loader = null;
 		fieldMap = next;
-		fieldMap.load();
 		//PCの所属マップと位置を設定する
 		for (var v : GameSystem.getInstance().getPcList()) {
 			v.setFieldMap(fieldMap);
@@ -433,6 +463,12 @@ public final class FieldMapSystem implements Drawable {
 		setLocation(currentNode.getNextFieldMapIdx());
 		resetFollowerLocation();
 		followerLocation.clear();
+		if (GameSystem.isDebugMode()) {
+			GameLog.print("FMS : image cache : usage=" + ImageUtil.getCacheUsage() / 1024 + "KB"
+					+ ", hit=" + ImageUtil.getCacheHitCount()
+					+ ", miss=" + ImageUtil.getCacheMissCount()
+					+ ", eviction=" + ImageUtil.getCacheEvictionCount());
+		}
 
 	}
 
@@ -454,7 +490,15 @@ public final class FieldMapSystem implements Drawable {
 			//IN_EFFECT
 			if (currentNode.getEffect().getState() == MapChangeEffect.State.WAIT) {
 				//IN処理完了
-				changeMapExec();
+				if (loader == null) {
+					changeMapExec();
+				}
+				currentNode.getEffect().setProgress(loader.getProgress());
+				if (!loader.isDone()) {
+					//ロード中はマップを更新しない
+					return;
+				}
+				changeMapCommit();
 				currentNode.getEffect().mapChangeEnd();
 			}
 			//OUT_EFFECT
@@ -472,6 +516,7 @@ public final class FieldMapSystem implements Drawable {
 		}
 
 		//npc
+		PathRequestService.getInstance().update();
 		fieldMap.getNPCMap().forEach(p -> p.update());
 		fieldMap.getNPCMap().update();
 		updateEvents(false);
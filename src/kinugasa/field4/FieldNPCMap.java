@@ -16,11 +16,12 @@
  */
 package kinugasa.field4;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 import kinugasa.game.annotation.NotNewInstance;
@@ -29,83 +30,193 @@ import kinugasa.system.actor.NPC;
 
 /**
  * FieldNPCMap.<br>
+ * NPCをIDとマップ座標の両方から引けるように保持します。<br>
+ * 座標はパックしたlongをキーとする空間ハッシュで管理し、近傍検索は新しいオブジェクトを生成せずに行えます。<br>
+ * update()では前回から位置が変わったNPCのセルだけを更新します。<br>
  *
  * @vesion 1.0.0 - 2025/08/14_20:40:17<br>
  * @author Shinacho.<br>
  */
 public class FieldNPCMap implements Iterable<NPC> {
 
+	//座標->NPC。getMap用。
 	private final Map<D2Idx, NPC> npcMap;
+	private final Map<D2Idx, NPC> npcMapView;
+	//ID->NPC
+	private final Map<String, NPC> idMap;
+	//NPC->最後に登録した座標
+	private final Map<NPC, D2Idx> located;
+	//パック座標->NPC
+	private final CellIndex cells;
 
 	public FieldNPCMap() {
 		npcMap = new HashMap<>();
+		npcMapView = Collections.unmodifiableMap(npcMap);
+		idMap = new HashMap<>();
+		located = new IdentityHashMap<>();
+		cells = new CellIndex();
 	}
 
 	public boolean has(D2Idx i) {
-		return npcMap.containsKey(i);
+		return has(i.x, i.y);
+	}
+
+	public boolean has(int x, int y) {
+		return cells.get(x, y) != null;
 	}
 
 	public boolean has(String id) {
-		for (var v : npcMap.values()) {
-			if (v.getId().equals(id)) {
-				return true;
-			}
-		}
-		return false;
+		return idMap.containsKey(id);
 	}
 
 	@Nullable
 	public NPC get(String id) {
-		for (var v : npcMap.values()) {
-			if (v.getId().equals(id)) {
-				return v;
-			}
-		}
-		return null;
+		return idMap.get(id);
 	}
 
 	public void add(D2Idx i, NPC e) {
-		npcMap.put(i, e);
+		NPC prev = idMap.put(e.getId(), e);
+		if (prev != null && prev != e) {
+			unlocate(prev);
+			located.remove(prev);
+		}
+		unlocate(e);
+		locate(i, e);
 	}
 
 	public void add(NPC n) {
 		add(n.getSprite().getCurrentLocationOnMap(), n);
 	}
 
+	/**
+	 * NPCをこのマップから削除します.<br>
+	 *
+	 * @param n 削除するNPC。<br>
+	 * @return 登録されていた場合はtrue。<br>
+	 */
+	public boolean remove(NPC n) {
+		if (!located.containsKey(n)) {
+			return false;
+		}
+		unlocate(n);
+		located.remove(n);
+		idMap.remove(n.getId(), n);
+		return true;
+	}
+
+	@Nullable
 	public NPC get(D2Idx i) {
-		return npcMap.get(i);
+		return get(i.x, i.y);
 	}
 
+	@Nullable
+	public NPC get(int x, int y) {
+		return cells.get(x, y);
+	}
+
+	/**
+	 * (x,y)から距離r以内のセルにいるNPCをdstに追加します.<br>
+	 * 検索中にオブジェクトは生成されません。<br>
+	 *
+	 * @param x 中心X。<br>
+	 * @param y 中心Y。<br>
+	 * @param r チェビシェフ距離。0の場合は中心のセルだけです。<br>
+	 * @param dst 追加先。<br>
+	 */
+	public void collectAround(int x, int y, int r, Collection<? super NPC> dst) {
+		if (idMap.isEmpty()) {
+			return;
+		}
+		for (int iy = y - r; iy <= y + r; iy++) {
+			for (int ix = x - r; ix <= x + r; ix++) {
+				NPC n = cells.get(ix, iy);
+				if (n != null) {
+					dst.add(n);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 座標からNPCを引くマップのビューを返します.<br>
+	 * 変更はadd、removeで行ってください。<br>
+	 *
+	 * @return 変更不可能なビュー。<br>
+	 */
 	@NotNewInstance
 	public Map<D2Idx, NPC> getMap() {
-		return npcMap;
+		return npcMapView;
 	}
 
 	@NotNewInstance
 	public Collection<NPC> values() {
-		return npcMap.values();
+		return idMap.values();
+	}
+
+	public int size() {
+		return idMap.size();
 	}
 
 	void free() {
-		npcMap.values().forEach(p -> p.asScript().free());
-		npcMap.values().forEach(p -> p.free());
+		idMap.values().forEach(p -> p.asScript().free());
+		idMap.values().forEach(p -> p.free());
 		npcMap.clear();
+		idMap.clear();
+		located.clear();
+		cells.clear();
 	}
 
 	@Override
 	public Iterator<NPC> iterator() {
-		return npcMap.values().iterator();
+		return Collections.unmodifiableCollection(idMap.values()).iterator();
 	}
 
 	public Stream<NPC> stream() {
-		return npcMap.values().stream();
+		return idMap.values().stream();
 	}
 
+	/**
+	 * 各NPCの現在位置を索引に反映します.<br>
+	 * 前回から位置が変わったNPCのセルだけを移動します。<br>
+	 */
 	public void update() {
-		List<NPC> n = new ArrayList<>(npcMap.values());
-		npcMap.clear();
-		for (var v : n) {
-			npcMap.put(v.getSprite().getCurrentLocationOnMap(), v);
+		for (var e : located.entrySet()) {
+			NPC n = e.getKey();
+			D2Idx prev = e.getValue();
+			D2Idx cur = n.getSprite().getCurrentLocationOnMap();
+			if (cur == prev || cur == null) {
+				continue;
+			}
+			if (prev != null && prev.x == cur.x && prev.y == cur.y) {
+				continue;
+			}
+			unlocate(n);
+			e.setValue(cur);
+			put(cur, n);
+		}
+	}
+
+	private void locate(D2Idx i, NPC n) {
+		located.put(n, i);
+		if (i != null) {
+			put(i, n);
+		}
+	}
+
+	private void put(D2Idx i, NPC n) {
+		npcMap.put(i, n);
+		cells.put(i.x, i.y, n);
+	}
+
+	//nが占有しているセルを空ける。他のNPCに上書きされたセルはそのまま。
+	private void unlocate(NPC n) {
+		D2Idx i = located.get(n);
+		if (i == null) {
+			return;
+		}
+		if (cells.get(i.x, i.y) == n) {
+			cells.remove(i.x, i.y);
+			npcMap.remove(i);
 		}
 	}
 
@@ -114,4 +225,97 @@ public class FieldNPCMap implements Iterable<NPC> {
 		return "FieldNPCMap{" + "npcMap=" + npcMap + '}';
 	}
 
+	/**
+	 * (x,y)をlongにパックしたキーで引く、線形探査のハッシュ表です.<br>
+	 */
+	private static final class CellIndex {
+
+		private long[] keys = new long[16];
+		private NPC[] vals = new NPC[16];
+		private int size;
+
+		private static long pack(int x, int y) {
+			return ((long) x << 32) | (y & 0xFFFFFFFFL);
+		}
+
+		private int slot(long k) {
+			long h = k * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+		}
+
+		NPC get(int x, int y) {
+			long k = pack(x, y);
+			int mask = keys.length - 1;
+			for (int i = slot(k); vals[i] != null; i = (i + 1) & mask) {
+				if (keys[i] == k) {
+					return vals[i];
+				}
+			}
+			return null;
+		}
+
+		void put(int x, int y, NPC n) {
+			if ((size + 1) * 2 > keys.length) {
+				grow();
+			}
+			long k = pack(x, y);
+			int mask = keys.length - 1;
+			int i = slot(k);
+			for (; vals[i] != null; i = (i + 1) & mask) {
+				if (keys[i] == k) {
+					vals[i] = n;
+					return;
+				}
+			}
+			keys[i] = k;
+			vals[i] = n;
+			size++;
+		}
+
+		void remove(int x, int y) {
+			long k = pack(x, y);
+			int mask = keys.length - 1;
+			int i = slot(k);
+			for (; vals[i] != null; i = (i + 1) & mask) {
+				if (keys[i] == k) {
+					break;
+				}
+			}
+			if (vals[i] == null) {
+				return;
+			}
+			vals[i] = null;
+			size--;
+			//後続のクラスタを詰める
+			for (int j = (i + 1) & mask; vals[j] != null; j = (j + 1) & mask) {
+				int h = slot(keys[j]);
+				boolean move = (i <= j) ? (h <= i || h > j) : (h <= i && h > j);
+				if (move) {
+					keys[i] = keys[j];
+					vals[i] = vals[j];
+					vals[j] = null;
+					i = j;
+				}
+			}
+		}
+
+		void clear() {
+			Arrays.fill(vals, null);
+			size = 0;
+		}
+
+		private void grow() {
+			long[] ok = keys;
+			NPC[] ov = vals;
+			keys = new long[ok.length * 2];
+			vals = new NPC[ov.length * 2];
+			size = 0;
+			for (int i = 0; i < ok.length; i++) {
+				if (ov[i] != null) {
+					put((int) (ok[i] >> 32), (int) ok[i], ov[i]);
+				}
+			}
+		}
+	}
+
 }
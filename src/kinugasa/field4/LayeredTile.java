@@ -17,9 +17,11 @@
 package kinugasa.field4;
 
 import java.util.List;
+import kinugasa.game.annotation.NotNewInstance;
 
 /**
  * LayeredTile.<br>
+ * 属性はTileAttributeGridと同じビットマスクで保持します。<br>
  *
  * @vesion 1.0.0 - 2025/07/21_10:15:13<br>
  * @author Shinacho.<br>
@@ -28,31 +30,49 @@ public class LayeredTile {
 
 	private D2Idx idx;
 	private List<MapChipAttribute> attr;
+	private final long[] mask;
+	private final int base;
 
 	public LayeredTile(D2Idx idx, List<MapChipAttribute> attr) {
 		this.idx = idx;
 		this.attr = attr;
+		this.mask = TileAttributeGrid.maskOf(attr);
+		this.base = 0;
+	}
+
+	LayeredTile(D2Idx idx, long[] mask, int base) {
+		this.idx = idx;
+		this.mask = mask;
+		this.base = base;
 	}
 
 	public D2Idx getIdx() {
 		return idx;
 	}
 
+	@NotNewInstance
 	public List<MapChipAttribute> getAttr() {
+		if (attr == null) {
+			attr = List.copyOf(TileAttributeGrid.toList(mask, base));
+		}
 		return attr;
 	}
 
 	public boolean has(MapChipAttribute a) {
-		return attr.contains(a);
+		return (mask[base + (a.ordinal() >>> 6)] & (1L << a.ordinal())) != 0;
 	}
-	
-	public boolean canStep(Vehicle v){
+
+	public boolean canStep(Vehicle v) {
 		return v.canStep(this);
 	}
 
+	boolean isSubsetOf(long[] of) {
+		return TileAttributeGrid.isSubsetOf(mask, base, of);
+	}
+
 	@Override
 	public String toString() {
-		return idx + " = " + attr;
+		return idx + " = " + getAttr();
 	}
 
 }
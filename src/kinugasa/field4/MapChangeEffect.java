@@ -35,6 +35,8 @@ public abstract class MapChangeEffect extends Effect {
 		END,;
 	}
 
+	private float progress = 0f;
+
 	public MapChangeEffect() {
 		super(GameManager.getInstance().getWindow().getWidth(), GameManager.getInstance().getWindow().getHeight());
 	}
@@ -46,6 +48,24 @@ public abstract class MapChangeEffect extends Effect {
 
 	public abstract State getState();
 
+	/**
+	 * WAIT中に行われているマップのロードの進捗です.
+	 *
+	 * @return 0から1.<br>
+	 */
+	public float getProgress() {
+		return progress;
+	}
+
+	/**
+	 * ロードの進捗を設定します. WAIT中に毎フレーム呼び出されます.<br>
+	 *
+	 * @param progress 0から1.<br>
+	 */
+	public void setProgress(float progress) {
+		this.progress = progress;
+	}
+
 	protected abstract void setState(State s);
 
 	@Override
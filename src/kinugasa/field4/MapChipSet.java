@@ -19,6 +19,7 @@ package kinugasa.field4;
 import java.io.File;
 import java.util.Map;
 import kinugasa.game.GameLog;
+import kinugasa.game.annotation.Nullable;
 import kinugasa.system.UniversalValue;
 import kinugasa.graphics.KImage;
 import kinugasa.object.FileObject;
@@ -188,6 +189,26 @@ public class MapChipSet extends FileObject {
 
 	}
 
+	/**
+	 * チップセットファイルからimageの値のみを読み取ります. チップセットはロードされません.<br>
+	 *
+	 * @return 画像ファイルのパス。記載がない場合null。<br>
+	 */
+	@Nullable
+	public String readImagePath() throws FileNotFoundException {
+		TextFile file = new TextFile(getFile()).load();
+		try {
+			for (var v : file) {
+				if (v.value().trim().startsWith("image") && v.value().contains("=")) {
+					return v.safeSplitUV("=")[1].asFile().getPath();
+				}
+			}
+			return null;
+		} finally {
+			file.free();
+		}
+	}
+
 	@Override
 	public void free() {
 		loaded = false;
@@ -58,6 +58,11 @@ public class SimpleMapChangeEffect extends MapChangeEffect {
 				//wait
 				g.setColor(Color.BLACK);
 				g.fillRect(0, 0, (int) getWidth(), (int) getHeight());
+				//ロードが長引いた場合は進捗を表示する
+				if (getProgress() > 0 && getProgress() < 1) {
+					g.setColor(Color.DARK_GRAY);
+					g.fillRect(0, (int) getHeight() - 4, (int) (getWidth() * getProgress()), 4);
+				}
 			}
 			case OUT_EFFECT -> {
 				out.draw(g);
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.field4;
+
+import java.util.ArrayList;
+import java.util.List;
+import kinugasa.field4.layer.FMBackLayerSprite;
+import kinugasa.field4.layer.FMNomalLayerSprite;
+import kinugasa.game.annotation.Immutable;
+import kinugasa.game.annotation.NewInstance;
+
+/**
+ * フィールドマップの各タイルが持つ属性を、セルごとのビットマスクで保持する表です.<br>
+ * ノーマルレイヤーの属性をマップのロード時に1度だけ集計し、以後のcanStepやhasはオブジェクトを生成せずに判定できます。<br>
+ * 作成後は変更されません。タイルが変更された場合は、FieldMap.invalidateWalkabilityで作り直してください。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_14:21:40<br>
+ * @author Shinacho.<br>
+ */
+@Immutable
+public final class TileAttributeGrid {
+
+	private static final MapChipAttribute[] ATTRS = MapChipAttribute.values();
+	//1セルあたりのlongの数
+	static final int WORDS = (ATTRS.length + 63) >>> 6;
+	//領域外のセルの属性
+	private static final long[] CLOSE_MASK = maskOf(List.of(MapChipAttribute.CLOSE));
+
+	private final int width;
+	private final int height;
+	private final long[] masks;
+
+	private TileAttributeGrid(int width, int height, long[] masks) {
+		this.width = width;
+		this.height = height;
+		this.masks = masks;
+	}
+
+	static TileAttributeGrid of(List<FMNomalLayerSprite> layers, FMBackLayerSprite back) {
+		int w = layers.get(0).getDataWidth();
+		int h = layers.get(0).getDataHeight();
+		long[] masks = new long[w * h * WORDS];
+		int voidBit = MapChipAttribute.VOID.ordinal();
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				int base = (y * w + x) * WORDS;
+				boolean allVoid = true;
+				for (var l : layers) {
+					if (!l.isInArea(x, y)) {
+						continue;
+					}
+					int a = l.of(x, y).getAttr().ordinal();
+					masks[base + (a >>> 6)] |= 1L << a;
+					allVoid &= a == voidBit;
+				}
+				//ノーマルレイヤーがすべてVOIDだった場合はBackレイヤーの属性を入れる
+				if (allVoid && back != null) {
+					int a = back.getAttr().ordinal();
+					masks[base + (a >>> 6)] |= 1L << a;
+				}
+			}
+		}
+		return new TileAttributeGrid(w, h, masks);
+	}
+
+	static long[] maskOf(Iterable<MapChipAttribute> attrs) {
+		long[] res = new long[WORDS];
+		for (var a : attrs) {
+			res[a.ordinal() >>> 6] |= 1L << a.ordinal();
+		}
+		return res;
+	}
+
+	static boolean isSubsetOf(long[] m, int base, long[] of) {
+		for (int i = 0; i < WORDS; i++) {
+			if ((m[base + i] & ~of[i]) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@NewInstance
+	static List<MapChipAttribute> toList(long[] m, int base) {
+		List<MapChipAttribute> res = new ArrayList<>();
+		for (int i = 0; i < WORDS; i++) {
+			long w = m[base + i];
+			while (w != 0) {
+				res.add(ATTRS[(i << 6) + Long.numberOfTrailingZeros(w)]);
+				w &= w - 1;
+			}
+		}
+		return res;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public boolean isInArea(int x, int y) {
+		return x >= 0 && y >= 0 && x < width && y < height;
+	}
+
+	/**
+	 * 指定のタイルに、ある乗り物で乗れるかを検査します.<br>
+	 * タイルのすべての属性が乗り物の乗れる属性に含まれる場合に乗れます。領域外はCLOSEとして扱います。<br>
+	 *
+	 * @param x タイルのX。<br>
+	 * @param y タイルのY。<br>
+	 * @param v 乗り物。<br>
+	 * @return 乗れる場合true。<br>
+	 */
+	public boolean canStep(int x, int y, Vehicle v) {
+		if (!isInArea(x, y)) {
+			return isSubsetOf(CLOSE_MASK, 0, v.getCanStepMask());
+		}
+		return isSubsetOf(masks, (y * width + x) * WORDS, v.getCanStepMask());
+	}
+
+	/**
+	 * 指定のタイルが属性を持っているかを検査します.<br>
+	 *
+	 * @param x タイルのX。<br>
+	 * @param y タイルのY。<br>
+	 * @param a 属性。<br>
+	 * @return いずれかのレイヤーがaの場合true。<br>
+	 */
+	public boolean has(int x, int y, MapChipAttribute a) {
+		if (!isInArea(x, y)) {
+			return a == MapChipAttribute.CLOSE;
+		}
+		return (masks[(y * width + x) * WORDS + (a.ordinal() >>> 6)] & (1L << a.ordinal())) != 0;
+	}
+
+	/**
+	 * 指定のタイルのビューを返します.<br>
+	 *
+	 * @param i タイルの位置。<br>
+	 * @return このグリッドを参照するタイル。<br>
+	 */
+	@NewInstance
+	public LayeredTile getTile(D2Idx i) {
+		if (!isInArea(i.x, i.y)) {
+			return new LayeredTile(i, CLOSE_MASK, 0);
+		}
+		return new LayeredTile(i, masks, (i.y * width + i.x) * WORDS);
+	}
+
+	@Override
+	public String toString() {
+		return "TileAttributeGrid{" + "width=" + width + ", height=" + height + '}';
+	}
+
+}
@@ -31,11 +31,13 @@ public enum Vehicle {
 	SHIP(2f, VOID, BRIDGE, SHALLOW_WATER, SEA),;
 	private float speed;
 	private EnumSet<MapChipAttribute> canStep;
+	private long[] canStepMask;
 
 	private Vehicle(float speed, MapChipAttribute... c) {
 		this.speed = speed;
 		this.canStep = EnumSet.noneOf(MapChipAttribute.class);
 		canStep.addAll(Arrays.asList(c));
+		this.canStepMask = TileAttributeGrid.maskOf(canStep);
 	}
 
 	public float getSpeed() {
@@ -47,7 +49,11 @@ public enum Vehicle {
 	}
 
 	public boolean canStep(LayeredTile c) {
-		return c.getAttr().stream().allMatch(p -> canStep(p));
+		return c.isSubsetOf(canStepMask);
+	}
+
+	long[] getCanStepMask() {
+		return canStepMask;
 	}
 
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.field4;
+
+import kinugasa.game.annotation.Immutable;
+
+/**
+ * フィールドマップの各タイルに、ある乗り物で乗れるかを1ビットで保持するスナップショットです.<br>
+ * 作成時点のタイル属性から計算され、以後変更されません。別スレッドからも参照できます。<br>
+ * マップのタイルが変更された場合は、FieldMap.invalidateWalkabilityで破棄してください。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_11:02:15<br>
+ * @author Shinacho.<br>
+ */
+@Immutable
+public final class WalkabilityMap {
+
+	private final Vehicle vehicle;
+	private final int width;
+	private final int height;
+	private final long[] bits;
+
+	private WalkabilityMap(Vehicle vehicle, int width, int height, long[] bits) {
+		this.vehicle = vehicle;
+		this.width = width;
+		this.height = height;
+		this.bits = bits;
+	}
+
+	static WalkabilityMap of(FieldMap fm, Vehicle v) {
+		TileAttributeGrid g = fm.getAttributeGrid();
+		int w = g.getWidth();
+		int h = g.getHeight();
+		long[] bits = new long[(w * h + 63) >>> 6];
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				if (g.canStep(x, y, v)) {
+					int i = y * w + x;
+					bits[i >>> 6] |= 1L << i;
+				}
+			}
+		}
+		return new WalkabilityMap(v, w, h, bits);
+	}
+
+	public Vehicle getVehicle() {
+		return vehicle;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * 指定のタイルに乗れるかを検査します. 領域外は乗れません.<br>
+	 *
+	 * @param x タイルのX.
+	 * @param y タイルのY.
+	 * @return 乗れる場合true。<br>
+	 */
+	public boolean canStep(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			return false;
+		}
+		int i = y * width + x;
+		return (bits[i >>> 6] & (1L << i)) != 0;
+	}
+
+	public boolean canStep(D2Idx i) {
+		return canStep(i.x, i.y);
+	}
+
+	@Override
+	public String toString() {
+		return "WalkabilityMap{" + "vehicle=" + vehicle + ", width=" + width + ", height=" + height + '}';
+	}
+
+}
@@ -19,13 +19,18 @@ package kinugasa.field4.layer;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.stream.Stream;
 import kinugasa.game.annotation.NotNewInstance;
 import kinugasa.field4.D2Idx;
 import kinugasa.field4.MapChip;
 import kinugasa.field4.MapChipSet;
+import kinugasa.game.GameManager;
 import kinugasa.game.GraphicsContext;
+import kinugasa.game.annotation.Nullable;
 import kinugasa.graphics.KImage;
 import kinugasa.object.EmptySprite;
 import kinugasa.object.ImageSprite;
@@ -33,18 +38,64 @@ import kinugasa.resource.text.FileFormatException;
 
 /**
  * FMNomalLayerSprite.<br>
+ * レイヤー全体を1枚の画像にせず、chunkSize×chunkSizeチップ単位のチャンク画像に分割して描画します。<br>
+ * チャンクは表示領域にかかったときに初めて作成され、LRUで保持されます。<br>
  *
  * @vesion 1.0.0 - 2025/07/21_10:56:06<br>
  * @author Shinacho.<br>
  */
 public class FMNomalLayerSprite extends ImageSprite {
 
+	private static int chunkSize = 16;
+	private static int chunkCacheSize = 64;
+
+	/**
+	 * チャンク1辺あたりのチップ数を設定します。次にロードされるレイヤーから有効です。<br>
+	 *
+	 * @param chunkSize チップ数。<br>
+	 */
+	public static void setChunkSize(int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("FMNomalLayerSprite : chunkSize is 0 or minus : " + chunkSize);
+		}
+		FMNomalLayerSprite.chunkSize = chunkSize;
+	}
+
+	public static int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * レイヤーごとに保持するチャンク画像の最大数を設定します。<br>
+	 * 表示領域に必要な数より小さい場合は、表示領域に必要な数が優先されます。<br>
+	 *
+	 * @param chunkCacheSize チャンク数。<br>
+	 */
+	public static void setChunkCacheSize(int chunkCacheSize) {
+		if (chunkCacheSize <= 0) {
+			throw new IllegalArgumentException("FMNomalLayerSprite : chunkCacheSize is 0 or minus : " + chunkCacheSize);
+		}
+		FMNomalLayerSprite.chunkCacheSize = chunkCacheSize;
+	}
+
+	public static int getChunkCacheSize() {
+		return chunkCacheSize;
+	}
+
 	private MapChipSet chipSet;
 	private float drawSize = 1f;
 	private int chipDrawSize;
 	private MapChip[][] data;
 	private boolean debugMode = false;
 	private boolean above;
+	//
+	private int layerChunkSize;
+	private int chunkW, chunkH;
+	private int chunkCapacity;
+	private LinkedHashMap<Integer, KImage> chunkCache;
+	@Nullable
+	private Rectangle2D.Float viewArea;
+	private int drawnChunkCount;
 
 	public FMNomalLayerSprite(MapChipSet chipSet, float drawSize, boolean above, MapChip[][] data) throws FileFormatException {
 		this.chipSet = chipSet;
@@ -82,29 +133,104 @@ public class FMNomalLayerSprite extends ImageSprite {
 		setLocation(0, 0);
 		setSize(w, h);
 
-		//image作成
-		KImage image = new KImage(w, h);
+		//チャンク管理の作成、画像はdraw時に必要な分だけ作る
+		layerChunkSize = chunkSize;
+		chunkW = (data[0].length + layerChunkSize - 1) / layerChunkSize;
+		chunkH = (data.length + layerChunkSize - 1) / layerChunkSize;
+		chunkCapacity = chunkCacheSize;
+		chunkCache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, KImage> eldest) {
+				return size() > chunkCapacity;
+			}
+		};
+	}
+
+	/**
+	 * 描画対象とする画面上の領域を設定します。この領域にかからないチャンクは描画されません。<br>
+	 * nullの場合はウインドウサイズが使用されます。<br>
+	 *
+	 * @param viewArea 画面上の表示領域。<br>
+	 */
+	public void setViewArea(@Nullable Rectangle2D.Float viewArea) {
+		this.viewArea = viewArea;
+	}
+
+	private KImage chunkOf(int cx, int cy) {
+		int key = cy * chunkW + cx;
+		KImage res = chunkCache.get(key);
+		if (res == null) {
+			res = buildChunk(cx, cy);
+			chunkCache.put(key, res);
+		}
+		return res;
+	}
+
+	private KImage buildChunk(int cx, int cy) {
+		int sx = cx * layerChunkSize;
+		int sy = cy * layerChunkSize;
+		int ex = Math.min(sx + layerChunkSize, data[0].length);
+		int ey = Math.min(sy + layerChunkSize, data.length);
+
+		KImage image = new KImage((ex - sx) * chipDrawSize, (ey - sy) * chipDrawSize);
 		GraphicsContext g = image.createGraphicsContext();
-		for (int y = 0; y < data.length; y++) {
-			for (int x = 0; x < data[y].length; x++) {
-				int locationX = x * chipDrawSize;
-				int locationY = y * chipDrawSize;
+		for (int y = sy; y < ey; y++) {
+			for (int x = sx; x < ex; x++) {
+				int locationX = (x - sx) * chipDrawSize;
+				int locationY = (y - sy) * chipDrawSize;
 				g.drawImage(data[y][x].getImage(), locationX, locationY, chipDrawSize, chipDrawSize);
 			}
 		}
 		g.dispose();
-
-		setImage(image);
-
+		return image;
 	}
 
 	@Override
 	public void draw(GraphicsContext g) {
-		super.draw(g);
-		g.setColor(Color.GRAY);
+		drawnChunkCount = 0;
+		if (!isVisible() || !isExist() || data == null) {
+			return;
+		}
+		float vx, vy, vw, vh;
+		if (viewArea != null) {
+			vx = viewArea.x;
+			vy = viewArea.y;
+			vw = viewArea.width;
+			vh = viewArea.height;
+		} else {
+			vx = vy = 0;
+			vw = GameManager.getInstance().getOption().getWindowSize().width;
+			vh = GameManager.getInstance().getOption().getWindowSize().height;
+		}
+		int chunkPix = layerChunkSize * chipDrawSize;
+		int cx0 = Math.max(0, (int) Math.floor((vx - getX()) / chunkPix));
+		int cy0 = Math.max(0, (int) Math.floor((vy - getY()) / chunkPix));
+		int cx1 = Math.min(chunkW - 1, (int) Math.floor((vx + vw - 1 - getX()) / chunkPix));
+		int cy1 = Math.min(chunkH - 1, (int) Math.floor((vy + vh - 1 - getY()) / chunkPix));
+		if (cx0 > cx1 || cy0 > cy1) {
+			return;
+		}
+		//表示に必要な数は必ず保持する
+		int visible = (cx1 - cx0 + 1) * (cy1 - cy0 + 1);
+		chunkCapacity = Math.max(chunkCacheSize, visible * 2);
+
+		for (int cy = cy0; cy <= cy1; cy++) {
+			for (int cx = cx0; cx <= cx1; cx++) {
+				int locationX = (int) getX() + cx * chunkPix;
+				int locationY = (int) getY() + cy * chunkPix;
+				g.drawImage(chunkOf(cx, cy), locationX, locationY);
+				drawnChunkCount++;
+			}
+		}
+
 		if (debugMode) {
-			for (int y = 0; y < data.length; y++) {
-				for (int x = 0; x < data[y].length; x++) {
+			g.setColor(Color.GRAY);
+			int sx = cx0 * layerChunkSize;
+			int sy = cy0 * layerChunkSize;
+			int ex = Math.min((cx1 + 1) * layerChunkSize, data[0].length);
+			int ey = Math.min((cy1 + 1) * layerChunkSize, data.length);
+			for (int y = sy; y < ey; y++) {
+				for (int x = sx; x < ex; x++) {
 					int locationX = (int) getX() + x * chipDrawSize;
 					int locationY = (int) getY() + y * chipDrawSize;
 					g.drawRect(locationX, locationY, chipDrawSize, chipDrawSize);
@@ -113,10 +239,30 @@ public class FMNomalLayerSprite extends ImageSprite {
 		}
 	}
 
+	/**
+	 * 保持しているチャンク画像をすべて破棄します。次の描画で再作成されます。<br>
+	 */
+	public void clearChunkCache() {
+		if (chunkCache != null) {
+			chunkCache.clear();
+		}
+	}
+
+	public int getCachedChunkCount() {
+		return chunkCache == null ? 0 : chunkCache.size();
+	}
+
+	public int getDrawnChunkCount() {
+		return drawnChunkCount;
+	}
+
 	public void free() {
 		chipSet = null;
 		drawSize = 0;
 		data = null;
+		clearChunkCache();
+		chunkCache = null;
+		viewArea = null;
 		setImage((KImage) null);
 	}
 
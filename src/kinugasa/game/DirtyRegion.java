@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import kinugasa.game.annotation.LoopCall;
+import kinugasa.game.annotation.Nullable;
+import kinugasa.game.annotation.Singleton;
+
+/**
+ * リテインドモードの描画で、前のフレームから変化した画面上の領域を集めます.<br>
+ * スプライトは位置、サイズ、表示状態、画像が変わると、変化の前後の範囲をここに登録します。
+ * メッセージウインドウやラベルなどは、文字や選択位置、色が変わったときに範囲を登録します。
+ * GameManagerはこの範囲だけを消去して再描画します。<br>
+ * スプライト以外の方法で描画しているものを変更した場合は、addまたはaddAllを呼び出す必要があります。<br>
+ * 範囲が多すぎる場合や画面の大半を占める場合は、画面全体の再描画になります。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_18:20:37<br>
+ * @author Shinacho.<br>
+ */
+@Singleton
+public final class DirtyRegion {
+
+	private static final DirtyRegion INSTANCE = new DirtyRegion();
+
+	public static DirtyRegion getInstance() {
+		return INSTANCE;
+	}
+
+	private DirtyRegion() {
+	}
+
+	private volatile boolean enabled = false;
+	private int maxRects = 32;
+	private float fullRedrawRatio = 0.6f;
+	private final List<Rectangle> rects = new ArrayList<>();
+	private boolean full = true;
+	//統計
+	private int lastRectCount;
+	private long lastDamagedArea;
+	private float lastDamagedRatio;
+	private boolean lastFull;
+	private long frameCount, fullFrameCount, skipFrameCount;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 有効な場合、範囲の登録を受け付けます. 切り替えた直後のフレームは全体が再描画されます.<br>
+	 *
+	 * @param enabled リテインドモードを使用する場合true.<br>
+	 */
+	public synchronized void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		rects.clear();
+		full = true;
+	}
+
+	public int getMaxRects() {
+		return maxRects;
+	}
+
+	/**
+	 * 保持する範囲の最大数を設定します. これを超えると、面積の増加が最も少ない範囲に統合されます.<br>
+	 *
+	 * @param maxRects 範囲の数.<br>
+	 */
+	public void setMaxRects(int maxRects) {
+		if (maxRects <= 0) {
+			throw new IllegalArgumentException("DirtyRegion : maxRects is 0 or minus : " + maxRects);
+		}
+		this.maxRects = maxRects;
+	}
+
+	public float getFullRedrawRatio() {
+		return fullRedrawRatio;
+	}
+
+	/**
+	 * 変化した面積が画面に対してこの割合を超えると、全体の再描画に切り替えます.
+	 *
+	 * @param fullRedrawRatio 0から1.<br>
+	 */
+	public void setFullRedrawRatio(float fullRedrawRatio) {
+		this.fullRedrawRatio = fullRedrawRatio;
+	}
+
+	/**
+	 * 範囲を登録します. 描画の丸めを考慮して1ピクセル広げられます.<br>
+	 *
+	 * @param x 画面上のX座標.<br>
+	 * @param y 画面上のY座標.<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 */
+	public void add(float x, float y, float w, float h) {
+		if (!enabled || w <= 0 || h <= 0) {
+			return;
+		}
+		int x1 = (int) Math.floor(x) - 1;
+		int y1 = (int) Math.floor(y) - 1;
+		int x2 = (int) Math.ceil(x + w) + 1;
+		int y2 = (int) Math.ceil(y + h) + 1;
+		synchronized (this) {
+			if (full) {
+				return;
+			}
+			Rectangle r = new Rectangle(x1, y1, x2 - x1, y2 - y1);
+			//重なる範囲は統合し、統合で広がった範囲がさらに重なる場合も繰り返す
+			for (int i = 0; i < rects.size(); i++) {
+				Rectangle e = rects.get(i);
+				if (e.contains(r)) {
+					return;
+				}
+				if (e.intersects(r)) {
+					r = r.union(e);
+					rects.remove(i);
+					i = -1;
+				}
+			}
+			if (rects.size() >= maxRects) {
+				mergeNearest(r);
+				return;
+			}
+			rects.add(r);
+		}
+	}
+
+	public void add(Rectangle2D r) {
+		add((float) r.getX(), (float) r.getY(), (float) r.getWidth(), (float) r.getHeight());
+	}
+
+	private void mergeNearest(Rectangle r) {
+		int idx = 0;
+		long min = Long.MAX_VALUE;
+		for (int i = 0; i < rects.size(); i++) {
+			Rectangle e = rects.get(i);
+			Rectangle u = e.union(r);
+			long grow = (long) u.width * u.height - (long) e.width * e.height;
+			if (grow < min) {
+				min = grow;
+				idx = i;
+			}
+		}
+		rects.set(idx, rects.get(idx).union(r));
+	}
+
+	/**
+	 * 次のフレームで画面全体を再描画させます. カメラのスクロールなど、画面全体が変わる場合に使用します.<br>
+	 */
+	public synchronized void addAll() {
+		if (!enabled) {
+			return;
+		}
+		full = true;
+		rects.clear();
+	}
+
+	/**
+	 * このフレームで再描画する範囲を取り出し、登録をリセットします.
+	 *
+	 * @param screen 画面の範囲。範囲はこれで切り取られます。<br>
+	 * @return 全体を再描画する場合null、何も変化していない場合は空のリスト.<br>
+	 */
+	@Nullable
+	@LoopCall
+	synchronized List<Rectangle> take(Rectangle screen) {
+		frameCount++;
+		long screenArea = (long) screen.width * screen.height;
+		List<Rectangle> res = null;
+		long area = 0;
+		if (!full) {
+			res = new ArrayList<>(rects.size());
+			for (Rectangle r : rects) {
+				Rectangle c = r.intersection(screen);
+				if (!c.isEmpty()) {
+					res.add(c);
+					area += (long) c.width * c.height;
+				}
+			}
+			if (screenArea > 0 && area > screenArea * fullRedrawRatio) {
+				res = null;
+			}
+		}
+		rects.clear();
+		full = false;
+		if (res == null) {
+			fullFrameCount++;
+			lastFull = true;
+			lastRectCount = 1;
+			lastDamagedArea = screenArea;
+		} else {
+			if (res.isEmpty()) {
+				skipFrameCount++;
+			}
+			lastFull = false;
+			lastRectCount = res.size();
+			lastDamagedArea = area;
+		}
+		lastDamagedRatio = screenArea == 0 ? 0 : (float) lastDamagedArea / screenArea;
+		return res;
+	}
+
+	/**
+	 * 直前のフレームで再描画した範囲の数を返します.
+	 *
+	 * @return 範囲の数。全体を再描画した場合は1.<br>
+	 */
+	public int getLastRectCount() {
+		return lastRectCount;
+	}
+
+	/**
+	 * 直前のフレームで再描画した面積を返します.
+	 *
+	 * @return ピクセル数.<br>
+	 */
+	public long getLastDamagedArea() {
+		return lastDamagedArea;
+	}
+
+	/**
+	 * 直前のフレームで再描画した面積の、画面に対する割合を返します.
+	 *
+	 * @return 0から1.<br>
+	 */
+	public float getLastDamagedRatio() {
+		return lastDamagedRatio;
+	}
+
+	public boolean isLastFull() {
+		return lastFull;
+	}
+
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	public long getFullFrameCount() {
+		return fullFrameCount;
+	}
+
+	/**
+	 * 何も変化がなく、描画を省略したフレームの数を返します.
+	 *
+	 * @return フレーム数.<br>
+	 */
+	public long getSkipFrameCount() {
+		return skipFrameCount;
+	}
+
+	public synchronized void resetStats() {
+		frameCount = fullFrameCount = skipFrameCount = 0;
+	}
+
+	@Override
+	public String toString() {
+		return "DirtyRegion{" + "enabled=" + enabled + ", lastRectCount=" + lastRectCount
+				+ ", lastDamagedRatio=" + lastDamagedRatio + ", lastFull=" + lastFull
+				+ ", frames=" + frameCount + ", full=" + fullFrameCount + ", skip=" + skipFrameCount + '}';
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+import java.awt.Color;
+
+/**
+ * 画面全体を指定の色に近づける、または指定の色から戻すフェードです.<br>
+ * フェードアウトは終了後も色で塗られたままになり、isEndedはtrueになりません。取り除くにはGameManagerのclearEffectsなどを使用します。<br>
+ * 保持しない場合は、holdにfalseを指定して作成します。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_20:05:17<br>
+ * @author Shinacho.<br>
+ */
+public class FadeScreenEffect implements PixelScreenEffect {
+
+	private final int r, g, b;
+	private final int frames;
+	private final boolean out;
+	private final boolean hold;
+	private int frame = 0;
+	private int alpha;
+	private boolean ended = false;
+
+	/**
+	 * 画面をcの色にしていくフェードを作成します.
+	 *
+	 * @param c 色.<br>
+	 * @param frames かかるフレーム数.<br>
+	 * @return フェード.<br>
+	 */
+	public static FadeScreenEffect fadeOut(Color c, int frames) {
+		return new FadeScreenEffect(c, frames, true);
+	}
+
+	/**
+	 * cの色から画面に戻していくフェードを作成します.
+	 *
+	 * @param c 色.<br>
+	 * @param frames かかるフレーム数.<br>
+	 * @return フェード.<br>
+	 */
+	public static FadeScreenEffect fadeIn(Color c, int frames) {
+		return new FadeScreenEffect(c, frames, false);
+	}
+
+	public FadeScreenEffect(Color c, int frames, boolean out) {
+		this(c, frames, out, out);
+	}
+
+	/**
+	 * フェードを作成します.
+	 *
+	 * @param c 色.<br>
+	 * @param frames かかるフレーム数.<br>
+	 * @param out trueの場合フェードアウト、falseの場合フェードイン.<br>
+	 * @param hold trueの場合、終了後も最後の状態で適用され続け、isEndedがtrueになりません.<br>
+	 */
+	public FadeScreenEffect(Color c, int frames, boolean out, boolean hold) {
+		if (frames <= 0) {
+			throw new IllegalArgumentException("fade frame is 0 or minus : " + frames);
+		}
+		this.r = c.getRed();
+		this.g = c.getGreen();
+		this.b = c.getBlue();
+		this.frames = frames;
+		this.out = out;
+		this.hold = hold;
+	}
+
+	@Override
+	public boolean prepare() {
+		float t = (float) Math.min(frame, frames) / frames;
+		alpha = (int) ((out ? t : 1 - t) * 256);
+		if (frame >= frames) {
+			ended = true;
+		} else {
+			frame++;
+		}
+		return alpha > 0;
+	}
+
+	@Override
+	public int filter(int argb) {
+		return blend(argb, r, g, b, alpha);
+	}
+
+	/**
+	 * argbのRGBを、指定の色にa/256だけ近づけます. アルファは変わりません.
+	 */
+	static int blend(int argb, int r, int g, int b, int a) {
+		int sr = (argb >> 16) & 0xFF;
+		int sg = (argb >> 8) & 0xFF;
+		int sb = argb & 0xFF;
+		sr += ((r - sr) * a) >> 8;
+		sg += ((g - sg) * a) >> 8;
+		sb += ((b - sb) * a) >> 8;
+		return (argb & 0xFF000000) | (sr << 16) | (sg << 8) | sb;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return !ended;
+	}
+
+	public boolean isHold() {
+		return hold;
+	}
+
+	@Override
+	public boolean isEnded() {
+		return ended && !hold;
+	}
+
+	@Override
+	public String toString() {
+		return "FadeScreenEffect{" + "out=" + out + ", hold=" + hold + ", frame=" + frame + "/" + frames + ", alpha=" + alpha + '}';
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+import java.awt.Color;
+
+/**
+ * 画面全体を一瞬指定の色に光らせるエフェクトです.<br>
+ * 前半で色に近づき、後半で元に戻ります。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_20:06:40<br>
+ * @author Shinacho.<br>
+ */
+public class FlashScreenEffect implements PixelScreenEffect {
+
+	private final int r, g, b;
+	private final int frames;
+	private final float peak;
+	private int frame = 0;
+	private int alpha;
+
+	/**
+	 * フラッシュを作成します.
+	 *
+	 * @param c 色.<br>
+	 * @param frames 全体のフレーム数.<br>
+	 * @param peak 最も強いときの色の割合。0から1.<br>
+	 */
+	public FlashScreenEffect(Color c, int frames, float peak) {
+		if (frames <= 0) {
+			throw new IllegalArgumentException("flash frame is 0 or minus : " + frames);
+		}
+		this.r = c.getRed();
+		this.g = c.getGreen();
+		this.b = c.getBlue();
+		this.frames = frames;
+		this.peak = peak;
+	}
+
+	public FlashScreenEffect(int frames) {
+		this(Color.WHITE, frames, 1f);
+	}
+
+	@Override
+	public boolean prepare() {
+		if (isEnded()) {
+			return false;
+		}
+		float t = (frame + 0.5f) / frames;
+		alpha = (int) (peak * (1 - Math.abs(2 * t - 1)) * 256);
+		frame++;
+		return alpha > 0;
+	}
+
+	@Override
+	public int filter(int argb) {
+		return FadeScreenEffect.blend(argb, r, g, b, alpha);
+	}
+
+	@Override
+	public boolean isRunning() {
+		return !isEnded();
+	}
+
+	@Override
+	public boolean isEnded() {
+		return frame >= frames;
+	}
+
+	@Override
+	public String toString() {
+		return "FlashScreenEffect{" + "frame=" + frame + "/" + frames + ", peak=" + peak + '}';
+	}
+
+}
@@ -74,11 +74,11 @@ public final class GameLog {
 		}
 	}
 
-	public static void addIndent() {
+	public static synchronized void addIndent() {
 		indent++;
 	}
 
-	public static void removeIndent() {
+	public static synchronized void removeIndent() {
 		indent--;
 		if (indent < 0) {
 			indent = 0;
@@ -111,7 +111,7 @@ public final class GameLog {
 		}
 	}
 
-	private static void out(String s) {
+	private static synchronized void out(String s) {
 		try {
 			String i = indent == 0 ? "" : StringUtil.repeat("  ", indent);
 			System.out.println(i + s);
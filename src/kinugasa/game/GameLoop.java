@@ -24,6 +24,9 @@
 package kinugasa.game;
 
 import static java.awt.SystemColor.text;
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
 import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
@@ -64,6 +67,10 @@ public final class GameLoop implements Runnable {
 	 */
 	private volatile boolean exec = false;
 	private boolean updateIfNotActive;
+	/**
+	 * FIXED_TIMESTEPモードで、1回の描画までに追いつくために行う更新の最大回数.
+	 */
+	private static final int MAX_CATCH_UP_TICKS = 5;
 
 	/**
 	 * 新しいゲーム用スレッドを作成します. 作成しただけでは、起動されません.<br>
@@ -95,6 +102,10 @@ public final class GameLoop implements Runnable {
 	@Override
 	public void run() {
 		try {
+			if (game.getOption().getLoopMode() == GameLoopMode.FIXED_TIMESTEP) {
+				runFixedTimestep();
+				return;
+			}
 			long startTime;
 			if (updateIfNotActive) {
 				while (exec) {
@@ -143,6 +154,63 @@ public final class GameLoop implements Runnable {
 		}
 	}
 
+	/**
+	 * FIXED_TIMESTEPモードのメインループです.
+	 * 更新は固定間隔で行い、描画は描画FPSの間隔で行います。<br>
+	 */
+	private void runFixedTimestep() {
+		final long tick = gtm.getTickNanos();
+		final long frame = 1000000000L / getRenderFps();
+		long prev = System.nanoTime();
+		long accumulator = 0;
+		while (exec) {
+			long frameStart = System.nanoTime();
+			accumulator += frameStart - prev;
+			prev = frameStart;
+			if (!updateIfNotActive && !game.getWindow().isActive() && !GameSystem.isDebugMode()) {
+				//非アクティブ中は時間を進めない
+				accumulator = 0;
+				gtm.parkUntil(frameStart + tick);
+				gtm.frameRendered();
+				continue;
+			}
+			int n = 0;
+			while (accumulator >= tick && n < MAX_CATCH_UP_TICKS) {
+				InputState is = InputState.getInstance();
+				SystemUpdateInjector.update();
+				game.update(gtm, is);
+				game.getUpdateLogicInjectors().forEach(p -> p.update(gtm, is));
+				gtm.tick();
+				accumulator -= tick;
+				n++;
+			}
+			if (accumulator >= tick) {
+				//追いつけない分は捨てる
+				accumulator %= tick;
+			}
+			gtm.setInterpolationAlpha((float) accumulator / tick);
+			game.repaint();
+			game.clearEndedEffects();
+			gtm.frameRendered();
+			gtm.parkUntil(frameStart + frame);
+		}
+	}
+
+	private int getRenderFps() {
+		int res = game.getOption().getRenderFps();
+		if (res > 0) {
+			return res;
+		}
+		try {
+			DisplayMode dm = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode();
+			if (dm.getRefreshRate() != DisplayMode.REFRESH_RATE_UNKNOWN) {
+				return dm.getRefreshRate();
+			}
+		} catch (HeadlessException ex) {
+		}
+		return (int) gtm.getIdealFPS();
+	}
+
 	private String getExceptionMsg(Throwable t) {
 		StringBuilder sb = new StringBuilder();
 		sb.append("!> Sorry, the game was crashed").append("\n");
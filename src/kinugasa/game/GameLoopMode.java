@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+/**
+ * ゲームループの進行方式です.<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_10:12:40<br>
+ * @author Shinacho.<br>
+ */
+public enum GameLoopMode {
+	/**
+	 * 1回の更新ごとに1回描画し、FPSを維持するように待機します.<br>
+	 * 描画が遅れたフレームは、そのままゲーム時間の遅れになります。<br>
+	 */
+	VARIABLE,
+	/**
+	 * 固定の更新間隔でupdateを行い、描画はそれとは独立して行います.<br>
+	 * 描画が遅れた場合は、追いつくまでupdateのみを繰り返します。<br>
+	 * 描画時には前回の更新からの経過割合をGameTimeManager.getInterpolationAlphaで取得できます。<br>
+	 */
+	FIXED_TIMESTEP,
+}
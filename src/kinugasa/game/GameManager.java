@@ -28,20 +28,26 @@ import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.EventQueue;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.Toolkit;
+import java.awt.Transparency;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.awt.geom.Area;
 import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.FileHandler;
 import java.util.logging.Formatter;
 import java.util.logging.Level;
@@ -53,12 +59,15 @@ import kinugasa.game.input.GamePadConnection;
 import kinugasa.game.input.InputState;
 import kinugasa.game.input.KeyConnection;
 import kinugasa.game.input.MouseConnection;
+import kinugasa.system.FlagSystem;
 import kinugasa.system.GameSystem;
 import kinugasa.graphics.ImageUtil;
 import kinugasa.graphics.RenderingQuality;
 import kinugasa.resource.TempFileStorage;
 import kinugasa.resource.sound.SoundSystem;
+import kinugasa.resource.sound.tags.SoundTagSystem;
 import kinugasa.util.MathUtil;
+import kinugasa.game.annotation.Nullable;
 import kinugasa.game.annotation.OneTime;
 
 /**
@@ -94,7 +103,12 @@ public abstract class GameManager {
 	private int fps;
 	private float drawSize = 0;
 	private BufferedImage image;
+	private RenderBackend renderBackend = RenderBackend.SOFTWARE;
+	private VolatileImage volatileImage;
+	private boolean lastAccelerated = false;
+	private boolean lastEffectsActive = false;
 	private List<ScreenEffect> effects = new ArrayList<>();
+	private final ScreenEffectPipeline effectPipeline = new ScreenEffectPipeline();
 	private List<UpdateLogicInjector> updateLogicInjectors = new ArrayList<>();
 
 	protected GameManager(GameOptionValue option) throws IllegalStateException {
@@ -198,6 +212,9 @@ public abstract class GameManager {
 		this.fps = option.getFps();
 		this.updateIfNotActive = option.isUpdateIfNotActive();
 		this.drawSize = option.getDrawSize();
+		if (option.getRenderBackend() != null) {
+			setRenderBackend(option.getRenderBackend());
+		}
 
 		PlayerConstants playerConstants = PlayerConstants.getInstance();
 
@@ -307,7 +324,10 @@ public abstract class GameManager {
 		}
 		//サウンド
 		SoundSystem.getInstance().free();
-		
+		SoundTagSystem.flushIndex();
+		//フラグ
+		FlagSystem.getInstance().flush();
+
 		if (GameSystem.isDebugMode()) {
 			GameLog.print("--not found i18n keys");
 			if (I18N.getNotFoundKeySet().isEmpty()) {
@@ -323,6 +343,23 @@ public abstract class GameManager {
 		System.exit(0);
 	}
 
+	/**
+	 * リテインドモードの描画を設定します.<br>
+	 * 有効な場合、前のフレームの描画結果を残し、スプライトが登録した変化のある範囲だけを消去して再描画します。
+	 * 変化がないフレームでは描画が省略されます。スクリーンエフェクトがある間は毎フレーム全体を再描画します。<br>
+	 * スプライト以外の描画を変更する場合は、DirtyRegionに範囲を登録する必要があります。<br>
+	 *
+	 * @param retained リテインドモードを使用する場合true.<br>
+	 * @see DirtyRegion
+	 */
+	public void setRetainedMode(boolean retained) {
+		DirtyRegion.getInstance().setEnabled(retained);
+	}
+
+	public boolean isRetainedMode() {
+		return DirtyRegion.getInstance().isEnabled();
+	}
+
 	/**
 	 * ゲームを開始する手順を記述します.
 	 */
@@ -356,37 +393,188 @@ public abstract class GameManager {
 	 */
 	@LoopCall
 	final void repaint() {
-		g = ImageUtil.createGraphics2D(image, RenderingQuality.NOT_USE);
+		if (benchmarkFrames > 0) {
+			int n = benchmarkFrames;
+			benchmarkFrames = 0;
+			runRenderBenchmark(n);
+		}
+		//スクリーンエフェクトはBufferedImageに対して行うため、ソフトウェアで描画する
+		boolean accelerated = renderBackend == RenderBackend.ACCELERATED && effects.isEmpty();
+		do {
+			render(accelerated, true);
+			present(accelerated);
+		} while (accelerated && volatileImage.contentsLost());
+
+		if (graphicsBuffer.contentsRestored()) {
+			repaint();
+		}
+		graphicsBuffer.show();
+		if (graphicsBuffer.contentsLost()) {
+			repaint();
+		}
+
+	}
+
+	private void render(boolean accelerated, boolean applyEffects) {
+		DirtyRegion dirty = DirtyRegion.getInstance();
+		if (accelerated) {
+			prepareVolatileImage();
+		}
+		//描画先が切り替わった場合、保持している描画結果は使えない
+		if (accelerated != lastAccelerated) {
+			dirty.addAll();
+			lastAccelerated = accelerated;
+		}
+		List<Rectangle> damaged = null;
+		if (dirty.isEnabled()) {
+			//スクリーンエフェクトは前のフレームの結果に重ねられないため、全体を描き直す
+			//エフェクトが外れた直後のフレームも、エフェクトの結果が残っているため全体を描き直す
+			boolean effectsActive = !effects.isEmpty();
+			if (effectsActive || lastEffectsActive) {
+				dirty.addAll();
+			}
+			lastEffectsActive = effectsActive;
+			damaged = dirty.take(new Rectangle(0, 0, image.getWidth(), image.getHeight()));
+			if (damaged != null && damaged.isEmpty()) {
+				return;
+			}
+		}
+		g = accelerated
+				? volatileImage.createGraphics()
+				: ImageUtil.createGraphics2D(image, RenderingQuality.NOT_USE);
 		g.setBackground(window.getBackground());
-		g.setClip(clippingRectangle);
-		g.clearRect(clippingRectangle.x, clippingRectangle.y,
-				clippingRectangle.width, clippingRectangle.height);
+		if (damaged == null) {
+			g.setClip(clippingRectangle);
+			g.clearRect(clippingRectangle.x, clippingRectangle.y,
+					clippingRectangle.width, clippingRectangle.height);
+		} else {
+			Area clip = new Area();
+			for (Rectangle r : damaged) {
+				g.clearRect(r.x, r.y, r.width, r.height);
+				clip.add(new Area(r));
+			}
+			g.setClip(damaged.size() == 1 ? damaged.get(0) : clip);
+		}
 		if (renderingHints != null) {
 			g.setRenderingHints(renderingHints);
 		}
 		draw(new GraphicsContext(g));
 		g.dispose();
 
-		final Dimension imageSize = new Dimension(image.getWidth(), image.getHeight());
-		for (ScreenEffect e : effects) {
-			image = e.doIt(image);
-			if (!imageSize.equals(new Dimension(image.getWidth(), image.getHeight()))) {
-				throw new ScreenEffectException("screen effect " + e + " s size is missmatch");
+		if (accelerated || !applyEffects || effects.isEmpty()) {
+			return;
+		}
+		image = effectPipeline.apply(image, effects);
+	}
+
+	private void prepareVolatileImage() {
+		GraphicsConfiguration conf = window.getGraphicsConfiguration();
+		if (volatileImage != null
+				&& (volatileImage.getWidth() != image.getWidth() || volatileImage.getHeight() != image.getHeight())) {
+			volatileImage.flush();
+			volatileImage = null;
+		}
+		if (volatileImage == null) {
+			volatileImage = conf.createCompatibleVolatileImage(image.getWidth(), image.getHeight(), Transparency.OPAQUE);
+			DirtyRegion.getInstance().addAll();
+		}
+		switch (volatileImage.validate(conf)) {
+			case VolatileImage.IMAGE_INCOMPATIBLE -> {
+				volatileImage.flush();
+				volatileImage = conf.createCompatibleVolatileImage(image.getWidth(), image.getHeight(), Transparency.OPAQUE);
+				DirtyRegion.getInstance().addAll();
+			}
+			case VolatileImage.IMAGE_RESTORED -> {
+				DirtyRegion.getInstance().addAll();
 			}
 		}
+	}
 
+	private void present(boolean accelerated) {
 		Graphics2D g2 = (Graphics2D) graphicsBuffer.getDrawGraphics();
-		g2.drawImage(image, 0, 0, (int) (image.getWidth() * drawSize), (int) (image.getHeight() * drawSize), null);
+		if (accelerated) {
+			//小数の拡大率は補間でぼやけるため、整数倍に切り捨てて最近傍で拡大する
+			int scale = Math.max(1, (int) drawSize);
+			int w = image.getWidth() * scale;
+			int h = image.getHeight() * scale;
+			if (scale != drawSize) {
+				g2.setColor(window.getBackground());
+				g2.fillRect(0, 0, window.getWidth(), window.getHeight());
+			}
+			g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+			g2.drawImage(volatileImage, 0, 0, w, h, null);
+		} else {
+			g2.drawImage(image, 0, 0, (int) (image.getWidth() * drawSize), (int) (image.getHeight() * drawSize), null);
+		}
 		g2.dispose();
+	}
 
-		if (graphicsBuffer.contentsRestored()) {
-			repaint();
-		}
-		graphicsBuffer.show();
-		if (graphicsBuffer.contentsLost()) {
-			repaint();
+	public RenderBackend getRenderBackend() {
+		return renderBackend;
+	}
+
+	/**
+	 * 描画方式を切り替えます. 次のフレームから反映されます.<br>
+	 *
+	 * @param renderBackend 描画方式.<br>
+	 */
+	public void setRenderBackend(RenderBackend renderBackend) {
+		this.renderBackend = renderBackend;
+		ImageUtil.setUseAcceleratedImage(renderBackend == RenderBackend.ACCELERATED);
+	}
+
+	private int benchmarkFrames = 0;
+	private RenderBenchmark renderBenchmark;
+
+	/**
+	 * 次のフレームで描画のベンチマークを行います.<br>
+	 * 全ての描画方式で、updateとFPSの待機を行わずに指定フレーム数だけ全体を描画し、達成したFPSを記録します。
+	 * 結果はログに出力され、getRenderBenchmarkで取得できます。<br>
+	 * 計測中はゲームループが止まります。スクリーンエフェクトは適用されません。<br>
+	 *
+	 * @param frames 各方式で描画するフレーム数.<br>
+	 */
+	public void requestRenderBenchmark(int frames) {
+		if (frames <= 0) {
+			throw new IllegalArgumentException("benchmark frames is 0 or minus : " + frames);
 		}
+		this.benchmarkFrames = frames;
+	}
+
+	@Nullable
+	public RenderBenchmark getRenderBenchmark() {
+		return renderBenchmark;
+	}
 
+	private void runRenderBenchmark(int frames) {
+		RenderBackend prev = renderBackend;
+		DirtyRegion dirty = DirtyRegion.getInstance();
+		Map<RenderBackend, Float> fps = new EnumMap<>(RenderBackend.class);
+		for (RenderBackend b : RenderBackend.values()) {
+			setRenderBackend(b);
+			boolean accelerated = b == RenderBackend.ACCELERATED;
+			//画像の複製やVRAMへのキャッシュを済ませてから計測する
+			for (int i = 0; i < 10; i++) {
+				dirty.addAll();
+				render(accelerated, false);
+				present(accelerated);
+				graphicsBuffer.show();
+			}
+			long start = System.nanoTime();
+			for (int i = 0; i < frames; i++) {
+				dirty.addAll();
+				render(accelerated, false);
+				present(accelerated);
+				graphicsBuffer.show();
+			}
+			Toolkit.getDefaultToolkit().sync();
+			long time = System.nanoTime() - start;
+			fps.put(b, time == 0 ? 0f : frames * 1_000_000_000f / time);
+		}
+		setRenderBackend(prev);
+		dirty.addAll();
+		renderBenchmark = new RenderBenchmark(frames, image.getWidth(), image.getHeight(), drawSize, fps);
+		GameLog.print(renderBenchmark.toString());
 	}
-	
+
 }
@@ -59,6 +59,9 @@ public class GameOption implements GameOptionValue {
 			.format(Date.from(Instant.now())) + ".log";
 
 	private int fps = 60;
+	private GameLoopMode loopMode = GameLoopMode.VARIABLE;
+	private int renderFps = 0;
+	private RenderBackend renderBackend = RenderBackend.SOFTWARE;
 	private RenderingQuality rq = RenderingQuality.SPEED;
 	private I18NReader i18nReader = null;
 
@@ -148,6 +151,34 @@ public class GameOption implements GameOptionValue {
 		return this;
 	}
 
+	public GameOption setLoopMode(GameLoopMode loopMode) {
+		this.loopMode = loopMode;
+		return this;
+	}
+
+	/**
+	 * FIXED_TIMESTEPモードでの描画回数の上限を設定します.<br>
+	 * 0以下の場合は、ディスプレイのリフレッシュレートが使用されます。<br>
+	 *
+	 * @param renderFps 描画FPS。<br>
+	 * @return this.
+	 */
+	public GameOption setRenderFps(int renderFps) {
+		this.renderFps = renderFps;
+		return this;
+	}
+
+	/**
+	 * 画面の描画方式を設定します.
+	 *
+	 * @param renderBackend 描画方式。<br>
+	 * @return this.
+	 */
+	public GameOption setRenderBackend(RenderBackend renderBackend) {
+		this.renderBackend = renderBackend;
+		return this;
+	}
+
 	public GameOption setRenderingQuality(RenderingQuality rq) {
 		this.rq = rq;
 		return this;
@@ -248,6 +279,21 @@ public class GameOption implements GameOptionValue {
 		return fps;
 	}
 
+	@Override
+	public GameLoopMode getLoopMode() {
+		return loopMode;
+	}
+
+	@Override
+	public int getRenderFps() {
+		return renderFps;
+	}
+
+	@Override
+	public RenderBackend getRenderBackend() {
+		return renderBackend;
+	}
+
 	@Override
 	public RenderingQuality getRenderingQuality() {
 		return rq;
@@ -290,7 +336,7 @@ public class GameOption implements GameOptionValue {
 
 	@Override
 	public String toString() {
-		return "GameOption{" + "title=" + title + ", backColor=" + backColor + ", windowLocation=" + windowLocation + ", windowSize=" + windowSize + ", drawSize=" + drawSize + ", useMouse=" + useMouse + ", useKeyboard=" + useKeyboard + ", useGamePad=" + useGamePad + ", useLog=" + useLog + ", logPath=" + logPath + ", logName=" + logName + ", fps=" + fps + ", rq=" + rq + ", i18nReader=" + i18nReader + ", updateIfNotActive=" + updateIfNotActive + ", args=" + args + ", debugMode=" + debugMode + ", useLock=" + useLock + ", icon=" + icon + ", closeEvent=" + closeEvent + '}';
+		return "GameOption{" + "title=" + title + ", backColor=" + backColor + ", windowLocation=" + windowLocation + ", windowSize=" + windowSize + ", drawSize=" + drawSize + ", useMouse=" + useMouse + ", useKeyboard=" + useKeyboard + ", useGamePad=" + useGamePad + ", useLog=" + useLog + ", logPath=" + logPath + ", logName=" + logName + ", fps=" + fps + ", loopMode=" + loopMode + ", renderFps=" + renderFps + ", renderBackend=" + renderBackend + ", rq=" + rq + ", i18nReader=" + i18nReader + ", updateIfNotActive=" + updateIfNotActive + ", args=" + args + ", debugMode=" + debugMode + ", useLock=" + useLock + ", icon=" + icon + ", closeEvent=" + closeEvent + '}';
 	}
 
 }
@@ -43,6 +43,12 @@ public interface GameOptionValue {
 
 	int getFps();
 
+	GameLoopMode getLoopMode();
+
+	RenderBackend getRenderBackend();
+
+	int getRenderFps();
+
 	I18NReader getI18nReader();
 
 	ImageIcon getIcon();
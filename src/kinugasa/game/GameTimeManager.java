@@ -27,6 +27,7 @@ package kinugasa.game;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * ゲームの進行時間を管理し、FPSを一定に保つための機能を提供します.
@@ -68,6 +69,18 @@ public final class GameTimeManager {
 	 */
 	private long endTime;
 	private long startTime;
+	/**
+	 * FIXED_TIMESTEPでの1回の更新の長さ(ns).
+	 */
+	private long tickNanos;
+	/**
+	 * 前回の更新から次の更新までの経過割合.
+	 */
+	private float interpolationAlpha = 1f;
+	/**
+	 * 待機の最後にparkせずにスピンする時間(ns).
+	 */
+	private static final long SPIN_NANOS = 1000000L;
 	//
 	private LocalDateTime startDateTime;
 	private static GameTimeManager instance;
@@ -87,6 +100,7 @@ public final class GameTimeManager {
 	 */
 	GameTimeManager(int idealFPS) {
 		waitTime = 1000 / idealFPS * 1000000;
+		tickNanos = 1000000000L / idealFPS;
 		updateNum = idealFPS;
 		prevTime = System.nanoTime() - 1000000000;
 		startDateTime = LocalDateTime.now();
@@ -134,6 +148,7 @@ public final class GameTimeManager {
 	 */
 	public void setIdealFPS(int idealFPS) {
 		waitTime = 1000 / idealFPS * 1000000;
+		tickNanos = 1000000000L / idealFPS;
 		updateNum = idealFPS;
 	}
 
@@ -199,6 +214,30 @@ public final class GameTimeManager {
 		totalFrame = 0L;
 	}
 
+	/**
+	 * FIXED_TIMESTEPモードでの1回の更新の長さを取得します.
+	 *
+	 * @return 1回の更新の長さ(ns).<br>
+	 */
+	public long getTickNanos() {
+		return tickNanos;
+	}
+
+	/**
+	 * 前回の更新から次の更新までの間の、描画時点の経過割合を取得します.<br>
+	 * FIXED_TIMESTEPモードでは0以上1未満の値になります。VARIABLEモードでは常に1です。<br>
+	 * 描画時に前回位置と現在位置を補間するのに使用できます。<br>
+	 *
+	 * @return 補間係数.<br>
+	 */
+	public float getInterpolationAlpha() {
+		return interpolationAlpha;
+	}
+
+	void setInterpolationAlpha(float interpolationAlpha) {
+		this.interpolationAlpha = interpolationAlpha;
+	}
+
 	/**
 	 * このメソッドを呼ぶと、あらかじめ設定されたFPSを維持できる時間だけ実行したスレッドをsleepします.
 	 *
@@ -207,15 +246,38 @@ public final class GameTimeManager {
 	void sleep(long startTime) {
 		nowTime = System.nanoTime();
 		endTime = nowTime + (waitTime - (nowTime - startTime));//終了時刻(ns
-		while (System.nanoTime() < endTime) {//System.nanoTimeがインクリメントされるのを利用している
-			try {
-				Thread.sleep(1);
-			} catch (InterruptedException ex) {
-				ex.printStackTrace();
-			}
+		parkUntil(endTime);
+		tick();
+		frameRendered();
+	}
+
+	/**
+	 * 指定した時刻まで待機します. 終了直前まではparkし、最後の短い時間だけスピンします.<br>
+	 *
+	 * @param deadline 終了時刻(System.nanoTime).<br>
+	 */
+	void parkUntil(long deadline) {
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > SPIN_NANOS) {
+			LockSupport.parkNanos(remaining - SPIN_NANOS);
 		}
-		nowTime = System.nanoTime();//スリープしているので現在時刻を更新
+		while (System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * 経過フレームを1進めます.
+	 */
+	void tick() {
 		totalFrame++;
+	}
+
+	/**
+	 * 描画が1回行われたことを記録し、FPSを更新します.
+	 */
+	void frameRendered() {
+		nowTime = System.nanoTime();
 		updateNum++;
 		if (nowTime - prevTime > 1000000000) {//1s
 			fps = (float) updateNum / ((nowTime - prevTime) / 1000000000f);
@@ -72,7 +72,7 @@ public class GraphicsContext {
 	}
 
 	public void drawImage(KImage image, int i, int i0) {
-		g.drawImage(image.asAWTImage(), i, i0, null);
+		g.drawImage(image.asDrawImage(), i, i0, null);
 	}
 
 	public void drawImage(Image image, int i, int i0) {
@@ -84,7 +84,7 @@ public class GraphicsContext {
 	}
 
 	public void drawImage(KImage image, int i, int i0, int i1, int i2) {
-		g.drawImage(image.asAWTImage(), i, i0, i1, i2, null);
+		g.drawImage(image.asDrawImage(), i, i0, i1, i2, null);
 	}
 
 	public void drawImage(Image image, int i, int i0, int i1, int i2) {
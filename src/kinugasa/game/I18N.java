@@ -25,12 +25,16 @@ package kinugasa.game;
 
 import java.io.File;
 import kinugasa.game.annotation.NoLoopCall;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import kinugasa.game.annotation.Nullable;
+import kinugasa.resource.IDNotFoundException;
 import kinugasa.script.ScriptFileCall;
-import kinugasa.script.ScriptSystem;
 import kinugasa.game.annotation.OneTime;
-import kinugasa.script.ScriptAccessObject;
 
 /**
  *
@@ -42,16 +46,103 @@ public class I18N {
 	private static I18NReader reader;
 	private static Set<String> notFoundKeySet = new HashSet<>();
 	private static Set<String> nullValueKeySet = new HashSet<>();
+	private static long readerVersion;
+	//解析済みのテンプレート。ロケールの切替や再読み込みで破棄される。
+	private static final Map<String, I18NTemplate> templates = new HashMap<>();
+	private static final Map<String, I18NReader> locales = new LinkedHashMap<>();
+	private static String locale;
 
 	@OneTime
 	public static void init(I18NReader reader) {
 		I18N.reader = reader;
+		clearCache();
 	}
 
 	public static void fromIni(File f) {
 		init(new IniI18NReader(f));
 	}
 
+	/**
+	 * ロケールごとのリーダーを登録します.<br>
+	 * 最初に登録したロケールは、リーダーが未設定の場合に選択されます。<br>
+	 *
+	 * @param locale ロケール名。例えばja、en。<br>
+	 * @param r リーダー。<br>
+	 */
+	public static void addLocale(String locale, I18NReader r) {
+		locales.put(locale, r);
+		if (reader == null) {
+			setLocale(locale);
+		}
+	}
+
+	public static void addLocale(String locale, File f) {
+		addLocale(locale, new IniI18NReader(f));
+	}
+
+	/**
+	 * 使用するロケールを切り替えます. 再起動は不要です.<br>
+	 * 以後のgetは切り替えたロケールの値を返します。<br>
+	 *
+	 * @param locale addLocaleで登録したロケール名。<br>
+	 * @throws IDNotFoundException 登録されていない場合。<br>
+	 */
+	public static void setLocale(String locale) throws IDNotFoundException {
+		I18NReader r = locales.get(locale);
+		if (r == null) {
+			throw new IDNotFoundException("I18N locale not found : " + locale);
+		}
+		I18N.locale = locale;
+		I18N.reader = r;
+		clearCache();
+		GameLog.print("I18N locale : " + locale);
+	}
+
+	@Nullable
+	public static String getLocale() {
+		return locale;
+	}
+
+	public static Set<String> getLocales() {
+		return Collections.unmodifiableSet(locales.keySet());
+	}
+
+	/**
+	 * 現在のリーダーがiniファイルの場合、読み込み直します.<br>
+	 */
+	public static void reload() {
+		if (reader instanceof IniI18NReader r) {
+			r.reload();
+		}
+		clearCache();
+	}
+
+	/**
+	 * 登録されているiniファイルのリーダーのホットリロードを設定します.<br>
+	 *
+	 * @param hotReload 有効にする場合true。<br>
+	 */
+	public static void setHotReload(boolean hotReload) {
+		if (reader instanceof IniI18NReader r) {
+			r.setHotReload(hotReload);
+		}
+		for (var v : locales.values()) {
+			if (v instanceof IniI18NReader r) {
+				r.setHotReload(hotReload);
+			}
+		}
+	}
+
+	/**
+	 * 値が見つからなかったキーの記録を破棄します.<br>
+	 */
+	public static void clearCache() {
+		notFoundKeySet.clear();
+		nullValueKeySet.clear();
+		templates.clear();
+		readerVersion = reader == null ? 0 : reader.getVersion();
+	}
+
 	public static Set<String> getNotFoundKeySet() {
 		return notFoundKeySet;
 	}
@@ -65,6 +156,9 @@ public class I18N {
 	}
 
 	private static String getText(String key) {
+		if (reader.getVersion() != readerVersion) {
+			clearCache();
+		}
 		if (notFoundKeySet.contains(key)) {
 			return "";
 		}
@@ -95,45 +189,17 @@ public class I18N {
 	@NoLoopCall
 	public static String get(String key, Object... param) {
 		//ID = ${pc0()}のアイテム${itemOf("I0001").getVisibleName()}の${0}と${1}
+		return getTemplate(key).render(param);
+	}
 
+	private static I18NTemplate getTemplate(String key) {
 		String val = get(key);
-		char[] val2 = val.toCharArray();
-		//$nと${}の処理
-		StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < val2.length; i++) {
-			char c = val2[i];
-			if (c == '$') {
-				int start = i + 2, end = start + 1;
-				for (; end < val2.length; end++) {
-					if (val2[end] == '}') {
-						break;
-					}
-				}
-				String inner = val.substring(start, end);
-
-				if (end >= val.length()) {
-					throw new IllegalArgumentException("I18N instantCall is not closed : " + key);
-				}
-
-				if (inner.matches("[0-9]*")) {
-					//paramモード
-					int pidx = Integer.parseInt(inner);
-					String p = pidx < param.length
-							? param[pidx].toString()
-							: "[?]";
-					sb.append(p);
-					i = end;
-				} else {
-					//callモード
-					var r = ScriptSystem.getInstance().instantCall(inner, new ScriptAccessObject());
-					sb.append(r.lastResultObject().toString());
-					i = end;
-				}
-			} else {
-				sb.append(c);
-			}
+		I18NTemplate t = templates.get(key);
+		if (t == null) {
+			t = I18NTemplate.compile(key, val);
+			templates.put(key, t);
 		}
-		return sb.toString();
+		return t;
 	}
 
 }
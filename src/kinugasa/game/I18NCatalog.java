@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import kinugasa.game.annotation.Immutable;
+import kinugasa.game.annotation.Nullable;
+import kinugasa.resource.ContentsIOException;
+import kinugasa.util.StringUtil;
+
+/**
+ * I18NCatalogはI18Nの全てのキーと値をメモリ上に保持する表です.<br>
+ * 線形探査のハッシュ表に格納されるため、キーの検索でファイルを読むことはありません。<br>
+ * 作成後は変更されません。再読み込みする場合は新しいカタログを作成してください。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_15:02:37<br>
+ * @author Shinacho.<br>
+ */
+@Immutable
+public final class I18NCatalog implements I18NReader {
+
+	private final String[] keys;
+	private final String[] values;
+	private final int size;
+
+	private I18NCatalog(String[] keys, String[] values, int size) {
+		this.keys = keys;
+		this.values = values;
+		this.size = size;
+	}
+
+	/**
+	 * iniファイルを読み込んでカタログを作成します.<br>
+	 * [で始まる行、空行、#で始まる行は無視されます。同じキーが複数ある場合は最初の値が使われます。<br>
+	 *
+	 * @param f iniファイル。<br>
+	 * @param cs 文字コード。<br>
+	 * @return 新しいカタログ。<br>
+	 * @throws ContentsIOException 読み込みに失敗した場合。<br>
+	 */
+	public static I18NCatalog load(File f, Charset cs) throws ContentsIOException {
+		Builder b = new Builder();
+		try (BufferedReader br = Files.newBufferedReader(f.toPath(), cs)) {
+			String line;
+			while ((line = br.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("[") || line.startsWith("#")) {
+					continue;
+				}
+				String[] val = StringUtil.safeSplit(line, "=");
+				if (val.length < 2) {
+					continue;
+				}
+				b.putIfAbsent(val[0].trim(), val[1].trim());
+			}
+		} catch (IOException ex) {
+			throw new ContentsIOException(ex);
+		}
+		return b.build();
+	}
+
+	private static int slot(String key, int mask) {
+		int h = key.hashCode();
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	@Nullable
+	@Override
+	public String getValue(String key) {
+		if (key == null) {
+			return null;
+		}
+		int mask = keys.length - 1;
+		for (int i = slot(key, mask); keys[i] != null; i = (i + 1) & mask) {
+			if (keys[i].equals(key)) {
+				return values[i];
+			}
+		}
+		return null;
+	}
+
+	public boolean containsKey(String key) {
+		return getValue(key) != null;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "I18NCatalog{" + "size=" + size + '}';
+	}
+
+	private static final class Builder {
+
+		private String[] keys = new String[256];
+		private String[] values = new String[256];
+		private int size;
+
+		void putIfAbsent(String key, String value) {
+			if ((size + 1) * 2 > keys.length) {
+				grow();
+			}
+			int mask = keys.length - 1;
+			int i = slot(key, mask);
+			for (; keys[i] != null; i = (i + 1) & mask) {
+				if (keys[i].equals(key)) {
+					return;
+				}
+			}
+			keys[i] = key;
+			values[i] = value;
+			size++;
+		}
+
+		private void grow() {
+			String[] ok = keys;
+			String[] ov = values;
+			keys = new String[ok.length * 2];
+			values = new String[ov.length * 2];
+			size = 0;
+			for (int i = 0; i < ok.length; i++) {
+				if (ok[i] != null) {
+					putIfAbsent(ok[i], ov[i]);
+				}
+			}
+		}
+
+		I18NCatalog build() {
+			return new I18NCatalog(keys, values, size);
+		}
+	}
+
+}
@@ -37,4 +37,14 @@ import kinugasa.resource.IDNotFoundException;
 public interface I18NReader {
 
 	public String getValue(String key) throws IDNotFoundException;
+
+	/**
+	 * 値が再読み込みされるたびに変わる番号を返します.<br>
+	 * I18Nはこの番号が変わったときにキャッシュを破棄します。<br>
+	 *
+	 * @return 読み込みの版。再読み込みしないリーダーは0。<br>
+	 */
+	public default long getVersion() {
+		return 0;
+	}
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import kinugasa.game.annotation.Immutable;
+import kinugasa.script.ScriptAccessObject;
+import kinugasa.script.ScriptLine;
+import kinugasa.script.ScriptSystem;
+
+/**
+ * I18Nの値を、リテラル、引数の位置、スクリプト呼び出しの列に解析したテンプレートです.<br>
+ * ${n}は引数のn番目、それ以外の${...}はスクリプトとして実行されます。<br>
+ * 解析はキーごとに1度だけ行われ、renderは1つのStringBuilderで結果を作成します。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_15:48:10<br>
+ * @author Shinacho.<br>
+ */
+@Immutable
+final class I18NTemplate {
+
+	//String : リテラル、Integer : 引数の位置、ScriptLine : スクリプト呼び出し
+	private final Object[] nodes;
+	private final int literalLength;
+	//スロットを含まない場合の値
+	private final String constant;
+
+	private I18NTemplate(Object[] nodes, int literalLength, String constant) {
+		this.nodes = nodes;
+		this.literalLength = literalLength;
+		this.constant = constant;
+	}
+
+	static I18NTemplate compile(String key, String val) throws IllegalArgumentException {
+		List<Object> nodes = new ArrayList<>();
+		StringBuilder lit = new StringBuilder();
+		int literalLength = 0;
+		ScriptAccessObject sao = null;
+		for (int i = 0; i < val.length(); i++) {
+			char c = val.charAt(i);
+			if (c != '$') {
+				lit.append(c);
+				continue;
+			}
+			int start = i + 2, end = start + 1;
+			for (; end < val.length(); end++) {
+				if (val.charAt(end) == '}') {
+					break;
+				}
+			}
+			if (end >= val.length()) {
+				throw new IllegalArgumentException("I18N instantCall is not closed : " + key);
+			}
+			String inner = val.substring(start, end);
+			if (!lit.isEmpty()) {
+				nodes.add(lit.toString());
+				literalLength += lit.length();
+				lit.setLength(0);
+			}
+			if (inner.matches("[0-9]*")) {
+				//paramモード
+				nodes.add(Integer.parseInt(inner));
+			} else {
+				//callモード
+				if (sao == null) {
+					sao = new ScriptAccessObject();
+				}
+				nodes.add(ScriptSystem.getInstance().compileInstantCall(inner, sao));
+			}
+			i = end;
+		}
+		if (nodes.isEmpty()) {
+			return new I18NTemplate(new Object[]{}, lit.length(), lit.toString());
+		}
+		if (!lit.isEmpty()) {
+			nodes.add(lit.toString());
+			literalLength += lit.length();
+		}
+		return new I18NTemplate(nodes.toArray(), literalLength, null);
+	}
+
+	boolean isConstant() {
+		return constant != null;
+	}
+
+	String render(Object... param) {
+		if (constant != null) {
+			return constant;
+		}
+		StringBuilder sb = new StringBuilder(literalLength + nodes.length * 8);
+		for (Object n : nodes) {
+			if (n instanceof String s) {
+				sb.append(s);
+			} else if (n instanceof Integer pidx) {
+				sb.append(pidx < param.length ? param[pidx].toString() : "[?]");
+			} else {
+				var r = ((ScriptLine) n).exec(Map.of());
+				sb.append(r.lastResultObject().toString());
+			}
+		}
+		return sb.toString();
+	}
+
+}
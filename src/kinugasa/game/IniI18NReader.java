@@ -24,24 +24,114 @@
 package kinugasa.game;
 
 import java.io.File;
-import kinugasa.resource.text.HeavyIniFile;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import kinugasa.resource.ContentsIOException;
 
 /**
  * IniI18NReader.<br>
+ * iniファイルを1度だけ読み込み、I18NCatalogとしてメモリ上に保持します。<br>
+ * ホットリロードが有効な場合は、ファイルの更新を一定間隔で確認して読み込み直します。<br>
  *
  * @vesion 1.0.0 - 2025/06/24_18:17:58<br>
  * @author Shinacho.<br>
  */
 public class IniI18NReader implements I18NReader {
 
-	private HeavyIniFile file;
+	private static long hotReloadCheckIntervalMs = 1000;
+
+	public static void setHotReloadCheckIntervalMs(long hotReloadCheckIntervalMs) {
+		IniI18NReader.hotReloadCheckIntervalMs = hotReloadCheckIntervalMs;
+	}
+
+	public static long getHotReloadCheckIntervalMs() {
+		return hotReloadCheckIntervalMs;
+	}
+
+	private final File file;
+	private final Charset charset;
+	private volatile I18NCatalog catalog;
+	private volatile long version;
+	private long lastModified;
+	private long lastCheckTime;
+	private boolean hotReload = false;
 
 	public IniI18NReader(File f) {
-		this.file = new HeavyIniFile(f);
+		this(f, StandardCharsets.UTF_8);
+	}
+
+	public IniI18NReader(File f, Charset cs) {
+		this.file = f;
+		this.charset = cs;
+		reload();
+	}
+
+	/**
+	 * ファイルを読み込み直します.<br>
+	 *
+	 * @throws ContentsIOException 読み込みに失敗した場合。<br>
+	 */
+	public synchronized void reload() throws ContentsIOException {
+		lastModified = file.lastModified();
+		lastCheckTime = System.currentTimeMillis();
+		catalog = I18NCatalog.load(file, charset);
+		version++;
+		if (version > 1) {
+			GameLog.print("I18N reload : " + file.getName() + " / " + catalog.size());
+		}
+	}
+
+	/**
+	 * ファイルが更新されている場合だけ読み込み直します.<br>
+	 *
+	 * @return 読み込み直した場合true。<br>
+	 */
+	public synchronized boolean reloadIfModified() {
+		lastCheckTime = System.currentTimeMillis();
+		if (file.lastModified() == lastModified) {
+			return false;
+		}
+		reload();
+		return true;
+	}
+
+	/**
+	 * 開発用のホットリロードを設定します.<br>
+	 * 有効な場合、getValueのたびにhotReloadCheckIntervalMs間隔でファイルの更新を確認します。<br>
+	 *
+	 * @param hotReload 有効にする場合true。<br>
+	 */
+	public void setHotReload(boolean hotReload) {
+		this.hotReload = hotReload;
+	}
+
+	public boolean isHotReload() {
+		return hotReload;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public I18NCatalog getCatalog() {
+		return catalog;
+	}
+
+	@Override
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public String getValue(String key) {
+		if (hotReload && System.currentTimeMillis() - lastCheckTime > hotReloadCheckIntervalMs) {
+			reloadIfModified();
+		}
+		return catalog.getValue(key);
 	}
 
 	@Override
-	public String getValue(String key){
-		return file.getValue(key).value();
+	public String toString() {
+		return "IniI18NReader{" + "file=" + file.getName() + ", catalog=" + catalog + '}';
 	}
 }
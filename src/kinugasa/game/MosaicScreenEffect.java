@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+import java.util.Arrays;
+import kinugasa.graphics.PackedRaster;
+
+/**
+ * 画面全体をモザイクにするエフェクトです. ブロックの色は左上のピクセルです.<br>
+ * ブロックの大きさを変化させると、場面転換に使用できます。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_20:08:03<br>
+ * @author Shinacho.<br>
+ */
+public class MosaicScreenEffect implements RasterScreenEffect {
+
+	private final int from, to;
+	private final int frames;
+	private final boolean hold;
+	private int frame = 0;
+	private int size;
+
+	/**
+	 * ブロックの大きさがfromからtoに変化するモザイクを作成します.<br>
+	 * 終了後もtoの大きさで適用され続け、isEndedはtrueになりません。取り除くにはGameManagerのclearEffectsなどを使用します。<br>
+	 *
+	 * @param from 開始時のブロックの大きさ.<br>
+	 * @param to 終了時のブロックの大きさ.<br>
+	 * @param frames かかるフレーム数。0の場合はtoで一定です。<br>
+	 */
+	public MosaicScreenEffect(int from, int to, int frames) {
+		this(from, to, frames, true);
+	}
+
+	/**
+	 * ブロックの大きさがfromからtoに変化するモザイクを作成します.<br>
+	 *
+	 * @param from 開始時のブロックの大きさ.<br>
+	 * @param to 終了時のブロックの大きさ.<br>
+	 * @param frames かかるフレーム数。0の場合はtoで一定です。<br>
+	 * @param hold trueの場合、終了後もtoの大きさで適用され続け、isEndedがtrueになりません.<br>
+	 * falseの場合、framesに達した次のフレームで取り除かれます。<br>
+	 */
+	public MosaicScreenEffect(int from, int to, int frames, boolean hold) {
+		if (from < 1 || to < 1) {
+			throw new IllegalArgumentException("mosaic size < 1 : " + from + " / " + to);
+		}
+		if (frames < 0) {
+			throw new IllegalArgumentException("mosaic frame is minus : " + frames);
+		}
+		this.from = from;
+		this.to = to;
+		this.frames = frames;
+		this.hold = hold;
+	}
+
+	public MosaicScreenEffect(int size) {
+		this(size, size, 0);
+	}
+
+	@Override
+	public boolean prepare(int width, int height) {
+		if (frame >= frames) {
+			size = to;
+		} else {
+			size = Math.round(from + (to - from) * (float) frame / frames);
+			frame++;
+		}
+		return size > 1;
+	}
+
+	@Override
+	public void apply(PackedRaster src, PackedRaster dst, int y) {
+		int w = src.getWidth();
+		int[] s = src.getData();
+		int[] d = dst.getData();
+		int si = src.index(0, y - y % size);
+		int di = dst.index(0, y);
+		for (int x = 0; x < w; x += size) {
+			Arrays.fill(d, di + x, di + Math.min(x + size, w), s[si + x]);
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return frame < frames;
+	}
+
+	@Override
+	public boolean isEnded() {
+		return !hold && frame >= frames;
+	}
+
+	public boolean isHold() {
+		return hold;
+	}
+
+	@Override
+	public String toString() {
+		return "MosaicScreenEffect{" + "size=" + size + ", hold=" + hold + ", frame=" + frame + "/" + frames + '}';
+	}
+
+}
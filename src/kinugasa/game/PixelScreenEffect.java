@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+import java.awt.image.BufferedImage;
+import kinugasa.graphics.PackedRaster;
+
+/**
+ * ピクセルごとに独立した色の変換を行うスクリーンエフェクトです.<br>
+ * GameManagerでは、連続するPixelScreenEffectは1回の走査にまとめて適用されます。
+ * 画像は確保されず、フレームのピクセル配列が直接書き換えられます。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_19:48:30<br>
+ * @author Shinacho.<br>
+ */
+public interface PixelScreenEffect extends ScreenEffect {
+
+	/**
+	 * フレームごとに1回、filterの前に呼ばれます. エフェクトの状態をここで進めます.<br>
+	 *
+	 * @return このフレームで何もしない場合false.<br>
+	 */
+	public boolean prepare();
+
+	/**
+	 * 1ピクセルを変換します. 複数のスレッドから同時に呼ばれます.<br>
+	 *
+	 * @param argb 入力の色.<br>
+	 * @return 出力の色.<br>
+	 */
+	public int filter(int argb);
+
+	@Override
+	public default BufferedImage doIt(BufferedImage src) {
+		if (prepare()) {
+			PackedRaster.of(src).apply((s, so, d, dOff, len) -> {
+				for (int i = 0; i < len; i++) {
+					d[dOff + i] = filter(s[so + i]);
+				}
+			});
+		}
+		return src;
+	}
+
+}
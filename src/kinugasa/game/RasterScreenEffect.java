@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+import java.awt.image.BufferedImage;
+import kinugasa.graphics.PackedRaster;
+
+/**
+ * 他のピクセルを参照して行単位で出力を作るスクリーンエフェクトです. モザイクやラスタスクロールなどに使用します.<br>
+ * GameManagerでは、入力と出力の2つのバッファを交互に使用するため、画像は確保されません。
+ * 行は帯に分けて並列に処理されます。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_19:49:02<br>
+ * @author Shinacho.<br>
+ */
+public interface RasterScreenEffect extends ScreenEffect {
+
+	/**
+	 * フレームごとに1回、applyの前に呼ばれます. エフェクトの状態をここで進めます.<br>
+	 *
+	 * @param width フレームの幅.<br>
+	 * @param height フレームの高さ.<br>
+	 * @return このフレームで何もしない場合false.<br>
+	 */
+	public boolean prepare(int width, int height);
+
+	/**
+	 * dstのy行目を書き込みます. 複数のスレッドから同時に呼ばれます.<br>
+	 *
+	 * @param src 入力のフレーム.<br>
+	 * @param dst 出力のフレーム.<br>
+	 * @param y 書き込む行.<br>
+	 */
+	public void apply(PackedRaster src, PackedRaster dst, int y);
+
+	@Override
+	public default BufferedImage doIt(BufferedImage src) {
+		if (!prepare(src.getWidth(), src.getHeight())) {
+			return src;
+		}
+		BufferedImage dst = PackedRaster.newImage(src.getWidth(), src.getHeight());
+		PackedRaster.of(src).apply(PackedRaster.of(dst), this::apply);
+		return dst;
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+import java.util.Arrays;
+import kinugasa.graphics.PackedRaster;
+
+/**
+ * 行ごとに横へずらして画面を波打たせるラスタスクロールです. はみ出した部分は端のピクセルで埋められます.<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_20:09:36<br>
+ * @author Shinacho.<br>
+ */
+public class RasterScrollScreenEffect implements RasterScreenEffect {
+
+	private final float amplitude;
+	private final float wavelength;
+	private final float speed;
+	private final int frames;
+	private int frame = 0;
+	private float phase = 0;
+	private int[] shifts = new int[0];
+
+	/**
+	 * ラスタスクロールを作成します.<br>
+	 * framesが0でない場合、振幅は終了に向かって0まで小さくなります。<br>
+	 *
+	 * @param amplitude 振幅のピクセル数.<br>
+	 * @param wavelength 波長のピクセル数.<br>
+	 * @param speed 1フレームで進む位相（ラジアン）.<br>
+	 * @param frames 継続するフレーム数。0の場合は終了しません。<br>
+	 */
+	public RasterScrollScreenEffect(float amplitude, float wavelength, float speed, int frames) {
+		if (wavelength <= 0) {
+			throw new IllegalArgumentException("raster scroll wavelength is 0 or minus : " + wavelength);
+		}
+		if (frames < 0) {
+			throw new IllegalArgumentException("raster scroll frame is minus : " + frames);
+		}
+		this.amplitude = amplitude;
+		this.wavelength = wavelength;
+		this.speed = speed;
+		this.frames = frames;
+	}
+
+	@Override
+	public boolean prepare(int width, int height) {
+		if (isEnded()) {
+			return false;
+		}
+		float a = frames == 0 ? amplitude : amplitude * (1 - (float) frame / frames);
+		frame++;
+		if (shifts.length != height) {
+			shifts = new int[height];
+		}
+		int max = width - 1;
+		boolean any = false;
+		for (int y = 0; y < height; y++) {
+			int s = Math.round(a * (float) Math.sin(2 * Math.PI * y / wavelength + phase));
+			shifts[y] = Math.max(-max, Math.min(max, s));
+			any |= s != 0;
+		}
+		phase += speed;
+		return any;
+	}
+
+	@Override
+	public void apply(PackedRaster src, PackedRaster dst, int y) {
+		int w = src.getWidth();
+		int[] s = src.getData();
+		int[] d = dst.getData();
+		int si = src.index(0, y);
+		int di = dst.index(0, y);
+		int shift = shifts[y];
+		if (shift > 0) {
+			Arrays.fill(d, di, di + shift, s[si]);
+			System.arraycopy(s, si, d, di + shift, w - shift);
+		} else if (shift < 0) {
+			int k = -shift;
+			System.arraycopy(s, si + k, d, di, w - k);
+			Arrays.fill(d, di + w - k, di + w, s[si + w - 1]);
+		} else {
+			System.arraycopy(s, si, d, di, w);
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return !isEnded();
+	}
+
+	@Override
+	public boolean isEnded() {
+		return frames > 0 && frame >= frames;
+	}
+
+	@Override
+	public String toString() {
+		return "RasterScrollScreenEffect{" + "amplitude=" + amplitude + ", frame=" + frame + "/" + frames + '}';
+	}
+
+}
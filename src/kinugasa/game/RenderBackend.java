@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+/**
+ * 画面の描画方式です.<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_19:05:12<br>
+ * @author Shinacho.<br>
+ */
+public enum RenderBackend {
+	/**
+	 * BufferedImageに描画し、drawSizeで拡大してウインドウに転送します.<br>
+	 * スクリーンエフェクトは常にこの方式で描画されます。<br>
+	 */
+	SOFTWARE,
+	/**
+	 * VolatileImageに描画し、整数倍の最近傍補間で拡大してウインドウに転送します.<br>
+	 * スプライトの画像はVRAMにキャッシュされる複製から描画されます。drawSizeの小数部は使用されず、余白が生じます。<br>
+	 */
+	ACCELERATED,
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import kinugasa.game.annotation.Immutable;
+
+/**
+ * GameManager.requestRenderBenchmarkの結果です.<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_19:20:48<br>
+ * @author Shinacho.<br>
+ */
+@Immutable
+public final class RenderBenchmark {
+
+	private final int frames;
+	private final int width, height;
+	private final float drawSize;
+	private final Map<RenderBackend, Float> fps;
+
+	RenderBenchmark(int frames, int width, int height, float drawSize, Map<RenderBackend, Float> fps) {
+		this.frames = frames;
+		this.width = width;
+		this.height = height;
+		this.drawSize = drawSize;
+		this.fps = Collections.unmodifiableMap(new EnumMap<>(fps));
+	}
+
+	public int getFrames() {
+		return frames;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public float getDrawSize() {
+		return drawSize;
+	}
+
+	/**
+	 * 描画方式ごとの、達成したFPSを返します.
+	 *
+	 * @param b 描画方式.<br>
+	 * @return FPS。計測していない場合は0.<br>
+	 */
+	public float getFPS(RenderBackend b) {
+		return fps.getOrDefault(b, 0f);
+	}
+
+	/**
+	 * ソフトウェアでの描画に対する、ACCELERATEDの速度の比を返します.
+	 *
+	 * @return 1より大きい場合ACCELERATEDが速い.<br>
+	 */
+	public float getSpeedup() {
+		float sw = getFPS(RenderBackend.SOFTWARE);
+		return sw == 0 ? 0 : getFPS(RenderBackend.ACCELERATED) / sw;
+	}
+
+	@Override
+	public String toString() {
+		return "RenderBenchmark{" + "frames=" + frames + ", size=" + width + "x" + height + ", drawSize=" + drawSize
+				+ ", fps=" + fps + ", speedup=" + getSpeedup() + '}';
+	}
+
+}
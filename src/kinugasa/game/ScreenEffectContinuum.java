@@ -29,6 +29,7 @@ import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import kinugasa.game.annotation.Nullable;
 
 /**
  * スクリーンエフェクト連続体は、複数のスクリーンエフェクトを終わり次第順番に適用するためのスクリーンエフェクトの拡張です。
@@ -78,6 +79,38 @@ public class ScreenEffectContinuum implements ScreenEffect {
 		return res;
 	}
 
+	/**
+	 * 現在適用中のエフェクトを返します. ScreenEffectPipelineが使用します.
+	 *
+	 * @return 全て終了している場合null.<br>
+	 */
+	@Nullable
+	ScreenEffect current() {
+		if (ended || effects.isEmpty()) {
+			return null;
+		}
+		return effects.get(idx);
+	}
+
+	/**
+	 * currentを適用した後に呼ばれ、終了したエフェクトから次に進みます.
+	 */
+	void applied() {
+		if (ended || effects.isEmpty()) {
+			return;
+		}
+		ScreenEffect e = effects.get(idx);
+		if (e instanceof ScreenEffectContinuum c) {
+			c.applied();
+		}
+		if (e.isEnded()) {
+			idx++;
+			if (idx >= effects.size()) {
+				ended = true;
+			}
+		}
+	}
+
 	@Override
 	public boolean isEnded() {
 		return ended;
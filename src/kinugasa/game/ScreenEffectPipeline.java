@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.game;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import kinugasa.game.annotation.LoopCall;
+import kinugasa.game.annotation.Nullable;
+import kinugasa.graphics.PackedRaster;
+
+/**
+ * フレームのピクセル配列に対してスクリーンエフェクトを順に適用します.<br>
+ * 連続するPixelScreenEffectは1回の走査にまとめられます。
+ * RasterScreenEffectはフレームと同じサイズの作業バッファに書き込み、フレームと作業バッファを入れ替えます。
+ * どちらの場合も、フレームのサイズが変わらない限り画像や配列は確保されません。<br>
+ * doItだけを実装したエフェクトは、これまで通りBufferedImageを受け渡して適用されます。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_19:51:45<br>
+ * @author Shinacho.<br>
+ */
+final class ScreenEffectPipeline {
+
+	private BufferedImage front, back;
+	private PackedRaster frontRaster, backRaster;
+	private PixelScreenEffect[] fused = new PixelScreenEffect[4];
+	private int fusedCount;
+	private RasterScreenEffect raster;
+	private final PackedRaster.BandOp fusedOp = this::applyFused;
+	private final PackedRaster.RowOp rasterOp = (s, d, y) -> raster.apply(s, d, y);
+
+	/**
+	 * エフェクトを適用します.
+	 *
+	 * @param image 描画されたフレーム.<br>
+	 * @param effects 適用するエフェクト.<br>
+	 * @return 結果のフレーム。imageか、このパイプラインの作業バッファです。<br>
+	 * @throws ScreenEffectException エフェクトがサイズの異なる画像を返した場合.<br>
+	 */
+	@LoopCall
+	BufferedImage apply(BufferedImage image, List<ScreenEffect> effects) throws ScreenEffectException {
+		int w = image.getWidth();
+		int h = image.getHeight();
+		front = image;
+		frontRaster = rasterOf(image, frontRaster, backRaster);
+		if (back == null || back == image || back.getWidth() != w || back.getHeight() != h) {
+			back = PackedRaster.newImage(w, h);
+			backRaster = PackedRaster.direct(back);
+		}
+		fusedCount = 0;
+		for (int i = 0, size = effects.size(); i < size; i++) {
+			ScreenEffect e = resolve(effects.get(i));
+			if (e == null) {
+				continue;
+			}
+			if (e instanceof PixelScreenEffect p) {
+				if (p.prepare()) {
+					addFused(p);
+				}
+			} else if (e instanceof RasterScreenEffect r) {
+				flushFused();
+				if (r.prepare(w, h)) {
+					raster = r;
+					frontRaster.apply(backRaster, rasterOp);
+					raster = null;
+					swap();
+				}
+			} else {
+				flushFused();
+				applyLegacy(e, w, h);
+			}
+		}
+		flushFused();
+		for (int i = 0, size = effects.size(); i < size; i++) {
+			if (effects.get(i) instanceof ScreenEffectContinuum c) {
+				c.applied();
+			}
+		}
+		return front;
+	}
+
+	//直接参照できるラスタは使い回す
+	private static PackedRaster rasterOf(BufferedImage image, @Nullable PackedRaster a, @Nullable PackedRaster b) {
+		if (a != null && a.isDirect() && a.getImage() == image) {
+			return a;
+		}
+		if (b != null && b.isDirect() && b.getImage() == image) {
+			return b;
+		}
+		return PackedRaster.of(image);
+	}
+
+	@Nullable
+	private static ScreenEffect resolve(ScreenEffect e) {
+		while (e instanceof ScreenEffectContinuum c) {
+			e = c.current();
+		}
+		return e;
+	}
+
+	private void swap() {
+		BufferedImage i = front;
+		front = back;
+		back = i;
+		PackedRaster r = frontRaster;
+		frontRaster = backRaster;
+		backRaster = r;
+		//フレームが直接参照できない形式だった場合、作業バッファとしては使えない
+		if (!backRaster.isDirect()) {
+			back = PackedRaster.newImage(front.getWidth(), front.getHeight());
+			backRaster = PackedRaster.direct(back);
+		}
+	}
+
+	private void addFused(PixelScreenEffect p) {
+		if (fusedCount == fused.length) {
+			PixelScreenEffect[] n = new PixelScreenEffect[fused.length * 2];
+			System.arraycopy(fused, 0, n, 0, fused.length);
+			fused = n;
+		}
+		fused[fusedCount++] = p;
+	}
+
+	private void flushFused() {
+		if (fusedCount == 0) {
+			return;
+		}
+		frontRaster.apply(fusedOp);
+		for (int i = 0; i < fusedCount; i++) {
+			fused[i] = null;
+		}
+		fusedCount = 0;
+	}
+
+	private void applyFused(int[] src, int srcOff, int[] dst, int dstOff, int len) {
+		PixelScreenEffect[] f = fused;
+		int n = fusedCount;
+		for (int i = 0; i < len; i++) {
+			int v = src[srcOff + i];
+			for (int k = 0; k < n; k++) {
+				v = f[k].filter(v);
+			}
+			dst[dstOff + i] = v;
+		}
+	}
+
+	private void applyLegacy(ScreenEffect e, int w, int h) {
+		BufferedImage res = e.doIt(front);
+		if (res == front) {
+			//直接参照していない場合は、変更された画像から読み直す
+			if (!frontRaster.isDirect()) {
+				frontRaster = PackedRaster.of(front);
+			}
+			return;
+		}
+		if (res.getWidth() != w || res.getHeight() != h) {
+			throw new ScreenEffectException("screen effect " + e + " s size is missmatch");
+		}
+		//結果をフレームに書き戻す
+		PackedRaster src = PackedRaster.direct(res);
+		if (src != null) {
+			int[] s = src.getData();
+			int[] d = frontRaster.getData();
+			for (int y = 0; y < h; y++) {
+				System.arraycopy(s, src.index(0, y), d, frontRaster.index(0, y), w);
+			}
+		} else {
+			res.getRGB(0, 0, w, h, frontRaster.getData(), frontRaster.getOffset(), frontRaster.getStride());
+		}
+		frontRaster.commit();
+	}
+
+}
@@ -39,14 +39,22 @@ import java.awt.image.RasterFormatException;
 import java.io.File;
 import java.io.IOException;
 import java.lang.ref.SoftReference;
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.IntPredicate;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import javax.imageio.ImageIO;
 import kinugasa.game.GameLog;
@@ -60,6 +68,7 @@ import kinugasa.util.StopWatch;
  * <br>
  * このクラスからロードした画像は、通常の方法でロードされた画像よりも 高速に描画できる可能性があります。
  * また、このクラスのロード機能は、同じファイルパスを指定すると 同じ画像インスタンスを返します。<br>
+ * ロードした画像はバイト数の予算付きのLRUキャッシュに保持されます。予算はsetCacheBudgetで設定できます。<br>
  * <br>
  *
  * @version 1.0.0 - 2013/01/13_2:08:33<br>
@@ -75,11 +84,23 @@ public final class ImageUtil {
 	private static final GraphicsConfiguration gc
 			= GraphicsEnvironment.getLocalGraphicsEnvironment().
 					getDefaultScreenDevice().getDefaultConfiguration();
-	/**
-	 * ロードした画像をキャッシュするためのマップです.
-	 */
-	private static final HashMap<String, WeakReference<BufferedImage>> IMAGE_CACHE
-			= new HashMap<>(32);
+	//------------------------------------------------------------------------------------------------------------
+	//画像キャッシュ
+	//ロードした画像はまず強参照の層にLRUで保持され、バイト数の予算を超えると古いものからソフト参照の層に降格されます。
+	//ピン留めされたパスは強参照の層から降格されません。ピン留めは参照カウントで、同じ回数だけ解除されるまで有効です。
+	//キーはファイルの絶対パスです。
+	private static final Object CACHE_LOCK = new Object();
+	private static final LinkedHashMap<String, BufferedImage> STRONG_CACHE = new LinkedHashMap<>(64, 0.75f, true);
+	private static final HashMap<String, SoftReference<BufferedImage>> SOFT_CACHE = new HashMap<>(64);
+	private static final HashMap<String, Integer> PINNED = new HashMap<>();
+	private static final HashMap<String, CompletableFuture<BufferedImage>> LOADING = new HashMap<>();
+	private static long cacheBudget = 128L * 1024 * 1024;
+	private static long cacheUsage = 0;
+	private static long cacheHitCount = 0;
+	private static long cacheMissCount = 0;
+	private static long cacheEvictionCount = 0;
+	private static ExecutorService prefetchPool;
+	private static boolean useAcceleratedImage = false;
 
 	/**
 	 * メインスクリーンのデバイス設定を取得します。<br>
@@ -90,6 +111,21 @@ public final class ImageUtil {
 		return gc;
 	}
 
+	/**
+	 * KImageの描画に、VRAMにキャッシュされる複製を使用するかを設定します.<br>
+	 * ラスタに直接アクセスした画像はJava2Dによるキャッシュの対象外になるため、描画時は複製を使用します。<br>
+	 *
+	 * @param useAcceleratedImage 複製を使用する場合true.<br>
+	 * @see KImage#asDrawImage()
+	 */
+	public static void setUseAcceleratedImage(boolean useAcceleratedImage) {
+		ImageUtil.useAcceleratedImage = useAcceleratedImage;
+	}
+
+	public static boolean isUseAcceleratedImage() {
+		return useAcceleratedImage;
+	}
+
 	/**
 	 * ユーティリティクラスのためインスタンス化できません.
 	 */
@@ -141,8 +177,9 @@ public final class ImageUtil {
 
 	/**
 	 * BufferedImageをファイルから作成します.
-	 * このメソッドはすでに一度要求された画像を再度要求した場合、同じインスタンスを返します。<br>
+	 * このメソッドはすでに一度要求された画像を再度要求した場合、キャッシュに残っていれば同じインスタンスを返します。<br>
 	 * 確実に別のインスタンスを取得する場合はこのメソッドの戻り値に対してこのクラスのcopyメソッドを使用してください。<br>
+	 * 別スレッドで先読み中の画像を要求した場合は、その完了を待ちます。<br>
 	 *
 	 * @param filePath 読み込むファイルパス。<br>
 	 *
@@ -152,20 +189,54 @@ public final class ImageUtil {
 	 * @throws ContentsIOException ファイルがロードできない場合に投げられます。<br>
 	 */
 	public static BufferedImage load(String filePath) throws FileNotFoundException, ContentsIOException {
-		ImageIO.setUseCache(false);
-		StopWatch watch = new StopWatch().start();
-		WeakReference<BufferedImage> cacheRef = IMAGE_CACHE.get(filePath);
-		//キャッシュあり&GC未実行
-		if (cacheRef != null) {
-			var v = cacheRef.get();
+		String key = cacheKey(filePath);
+		CompletableFuture<BufferedImage> loading;
+		boolean owner = false;
+		synchronized (CACHE_LOCK) {
+			BufferedImage v = cacheGet(key);
 			if (v != null) {
 				if (GameSystem.isDebugMode()) {
 					GameLog.print("ImageUtil cached filePath=[" + filePath + "]");
 				}
 				return v;
 			}
+			loading = LOADING.get(key);
+			if (loading == null) {
+				loading = new CompletableFuture<>();
+				LOADING.put(key, loading);
+				owner = true;
+			}
+		}
+		if (!owner) {
+			try {
+				return loading.join();
+			} catch (CompletionException ex) {
+				if (ex.getCause() instanceof RuntimeException e) {
+					throw e;
+				}
+				throw new ContentsIOException(ex);
+			}
+		}
+		try {
+			BufferedImage v = read(filePath);
+			synchronized (CACHE_LOCK) {
+				cachePut(key, v);
+				LOADING.remove(key);
+			}
+			loading.complete(v);
+			return v;
+		} catch (RuntimeException ex) {
+			synchronized (CACHE_LOCK) {
+				LOADING.remove(key);
+			}
+			loading.completeExceptionally(ex);
+			throw ex;
 		}
-		//GCが実行されているかキャッシュがなければ新しくロードしてキャッシュに追加する
+	}
+
+	private static BufferedImage read(String filePath) throws FileNotFoundException, ContentsIOException {
+		ImageIO.setUseCache(false);
+		StopWatch watch = new StopWatch().start();
 		File file = new File(filePath);
 		if (!file.exists()) {
 			watch.stop();
@@ -193,7 +264,6 @@ public final class ImageUtil {
 		Graphics2D g2 = createGraphics2D(newImage, RenderingQuality.QUALITY);
 		g2.drawImage(dst, 0, 0, null);
 		g2.dispose();
-		IMAGE_CACHE.put(filePath, new WeakReference<>(newImage));
 		watch.stop();
 		if (GameSystem.isDebugMode()) {
 			GameLog.print("ImageUtil loaded filePath=[" + filePath + "](" + watch.getTime() + " ms)");
@@ -201,6 +271,209 @@ public final class ImageUtil {
 		return newImage;
 	}
 
+	private static String cacheKey(String filePath) {
+		return new File(filePath).toPath().toAbsolutePath().normalize().toString();
+	}
+
+	private static long sizeOf(BufferedImage image) {
+		return (long) image.getWidth() * image.getHeight() * 4;
+	}
+
+	//CACHE_LOCK内で呼ぶこと
+	private static BufferedImage cacheGet(String key) {
+		BufferedImage v = STRONG_CACHE.get(key);
+		if (v != null) {
+			cacheHitCount++;
+			return v;
+		}
+		SoftReference<BufferedImage> ref = SOFT_CACHE.remove(key);
+		if (ref != null && (v = ref.get()) != null) {
+			//強参照の層に戻す
+			cacheHitCount++;
+			cachePut(key, v);
+			return v;
+		}
+		cacheMissCount++;
+		return null;
+	}
+
+	//CACHE_LOCK内で呼ぶこと
+	private static void cachePut(String key, BufferedImage v) {
+		BufferedImage prev = STRONG_CACHE.put(key, v);
+		if (prev != null) {
+			cacheUsage -= sizeOf(prev);
+		}
+		cacheUsage += sizeOf(v);
+		evict();
+	}
+
+	//CACHE_LOCK内で呼ぶこと
+	private static void evict() {
+		if (cacheUsage <= cacheBudget) {
+			return;
+		}
+		Iterator<Map.Entry<String, BufferedImage>> i = STRONG_CACHE.entrySet().iterator();
+		while (cacheUsage > cacheBudget && i.hasNext()) {
+			var e = i.next();
+			if (PINNED.containsKey(e.getKey())) {
+				continue;
+			}
+			i.remove();
+			cacheUsage -= sizeOf(e.getValue());
+			SOFT_CACHE.put(e.getKey(), new SoftReference<>(e.getValue()));
+			cacheEvictionCount++;
+		}
+		//GC済みのソフト参照を掃除する
+		SOFT_CACHE.values().removeIf(p -> p.get() == null);
+	}
+
+	/**
+	 * 画像キャッシュの強参照の層の予算を設定します.<br>
+	 * 予算を超えた画像はソフト参照の層に降格され、メモリが不足したときにGCで回収されます。<br>
+	 *
+	 * @param bytes 予算のバイト数。画像1枚は幅*高さ*4バイトで計算されます。<br>
+	 */
+	public static void setCacheBudget(long bytes) {
+		if (bytes < 0) {
+			throw new IllegalArgumentException("ImageUtil : cache budget is minus : " + bytes);
+		}
+		synchronized (CACHE_LOCK) {
+			cacheBudget = bytes;
+			evict();
+		}
+	}
+
+	public static long getCacheBudget() {
+		synchronized (CACHE_LOCK) {
+			return cacheBudget;
+		}
+	}
+
+	/**
+	 * 強参照の層が使用しているバイト数を返します.
+	 *
+	 * @return バイト数.<br>
+	 */
+	public static long getCacheUsage() {
+		synchronized (CACHE_LOCK) {
+			return cacheUsage;
+		}
+	}
+
+	public static long getCacheHitCount() {
+		synchronized (CACHE_LOCK) {
+			return cacheHitCount;
+		}
+	}
+
+	public static long getCacheMissCount() {
+		synchronized (CACHE_LOCK) {
+			return cacheMissCount;
+		}
+	}
+
+	public static long getCacheEvictionCount() {
+		synchronized (CACHE_LOCK) {
+			return cacheEvictionCount;
+		}
+	}
+
+	public static void resetCacheStats() {
+		synchronized (CACHE_LOCK) {
+			cacheHitCount = cacheMissCount = cacheEvictionCount = 0;
+		}
+	}
+
+	/**
+	 * 画像キャッシュを破棄します. ピン留めは解除されません.<br>
+	 */
+	public static void clearCache() {
+		synchronized (CACHE_LOCK) {
+			STRONG_CACHE.clear();
+			SOFT_CACHE.clear();
+			cacheUsage = 0;
+		}
+	}
+
+	/**
+	 * 画像をピン留めします. ピン留めされた画像は予算を超えても降格されません.<br>
+	 * まだロードされていないパスも指定できます。ピン留めは数えられ、同じ回数unpinされるまで解除されません。<br>
+	 *
+	 * @param filePaths ファイルパス。<br>
+	 */
+	public static void pin(Collection<String> filePaths) {
+		synchronized (CACHE_LOCK) {
+			for (var v : filePaths) {
+				PINNED.merge(cacheKey(v), 1, Integer::sum);
+			}
+		}
+	}
+
+	/**
+	 * ピン留めを1回分解除します. 全てのピン留めが解除された画像は、予算を超えている場合この時点で降格されます.<br>
+	 *
+	 * @param filePaths ファイルパス。<br>
+	 */
+	public static void unpin(Collection<String> filePaths) {
+		synchronized (CACHE_LOCK) {
+			for (var v : filePaths) {
+				//0になったら取り除く
+				PINNED.computeIfPresent(cacheKey(v), (k, n) -> n <= 1 ? null : n - 1);
+			}
+			evict();
+		}
+	}
+
+	public static boolean isPinned(String filePath) {
+		synchronized (CACHE_LOCK) {
+			return PINNED.containsKey(cacheKey(filePath));
+		}
+	}
+
+	private static ExecutorService getPrefetchPool() {
+		synchronized (CACHE_LOCK) {
+			if (prefetchPool == null) {
+				prefetchPool = Executors.newSingleThreadExecutor(r -> {
+					Thread t = new Thread(r, "ImageUtil-prefetch");
+					t.setDaemon(true);
+					t.setPriority(Thread.MIN_PRIORITY);
+					return t;
+				});
+			}
+			return prefetchPool;
+		}
+	}
+
+	/**
+	 * 画像をワーカースレッドでロードし、キャッシュに入れます.<br>
+	 * ロードに失敗した画像はログに記録され、無視されます。<br>
+	 *
+	 * @param filePaths ファイルパス。<br>
+	 * @return すべての画像の処理が終わると完了します。<br>
+	 */
+	public static CompletableFuture<Void> prefetch(Collection<String> filePaths) {
+		List<String> paths = List.copyOf(filePaths);
+		return prefetch(() -> paths);
+	}
+
+	/**
+	 * 画像のパスの列挙も含めてワーカースレッドで行う先読みです.<br>
+	 *
+	 * @param filePaths ワーカースレッドで呼び出される、ファイルパスの列挙処理。<br>
+	 * @return すべての画像の処理が終わると完了します。<br>
+	 */
+	public static CompletableFuture<Void> prefetch(Supplier<? extends Collection<String>> filePaths) {
+		return CompletableFuture.runAsync(() -> {
+			for (var v : filePaths.get()) {
+				try {
+					load(v);
+				} catch (RuntimeException ex) {
+					GameLog.print("ImageUtil prefetch failed filePath=[" + v + "] : " + ex);
+				}
+			}
+		}, getPrefetchPool());
+	}
+
 	/**
 	 * BufferedImageをファイルに保存します. 画像形式は透過PNG画像となります。<br>
 	 *
@@ -229,7 +502,7 @@ public final class ImageUtil {
 	 * @return 指定された画像のピクセルデータを一次元配列として返します。 この配列は画像に設定されているピクセルのクローンです。<br>
 	 */
 	public static int[] getPixel(BufferedImage image) {
-		return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+		return getPixels(image, 0, 0, image.getWidth(), image.getHeight(), null);
 	}
 
 	/**
@@ -240,10 +513,9 @@ public final class ImageUtil {
 	 * @return 指定された画像のピクセルデータを二次元配列として返します。 この配列は画像に設定されているピクセルのクローンです。<br>
 	 */
 	public static int[][] getPixel2D(BufferedImage image) {
-		int[] pix = getPixel(image);
-		int[][] pix2 = new int[image.getHeight()][image.getWidth()];
-		for (int i = 0, row = 0, WIDTH = image.getWidth(); i < pix2.length; i++, row += WIDTH) {
-			System.arraycopy(pix, row, pix2[i], 0, WIDTH);
+		int[][] pix2 = new int[image.getHeight()][];
+		for (int y = 0; y < pix2.length; y++) {
+			pix2[y] = getRow(image, y, null);
 		}
 		return pix2;
 	}
@@ -256,7 +528,7 @@ public final class ImageUtil {
 	 * @param pix 設定するピクセルデータ。<br>
 	 */
 	public static void setPixel(BufferedImage image, int[] pix) {
-		image.setRGB(0, 0, image.getWidth(), image.getHeight(), pix, 0, image.getWidth());
+		setPixels(image, 0, 0, image.getWidth(), image.getHeight(), pix);
 	}
 
 	/**
@@ -267,15 +539,203 @@ public final class ImageUtil {
 	 * @param pix 設定するピクセルデータ。<br>
 	 */
 	public static void setPixel2D(BufferedImage image, int[][] pix) {
-		int[] newPix = new int[getPixel(image).length];
-		for (int i = 0; i < pix.length; i++) {
-			System.arraycopy(pix[i], 0, newPix, i * pix[0].length, pix[i].length);
+		for (int y = 0; y < pix.length; y++) {
+			setRow(image, y, pix[y]);
+		}
+	}
+
+	//------------------------------------------------------------------------------------------------------------
+	//以下のピクセルアクセスは、TYPE_INT_ARGBの画像ではDataBufferIntを直接読み書きし、画像全体のコピーを作りません。
+	//それ以外の形式の画像ではgetRGB/setRGBを使用します。
+	//座標が画像の範囲外の場合はIndexOutOfBoundsExceptionを投げます。
+	/**
+	 * 1ピクセルを取得します.
+	 *
+	 * @param image 画像.<br>
+	 * @param x X座標.<br>
+	 * @param y Y座標.<br>
+	 * @return ARGB.<br>
+	 * @throws IndexOutOfBoundsException 範囲外の場合.<br>
+	 */
+	public static int getPixel(BufferedImage image, int x, int y) throws IndexOutOfBoundsException {
+		Objects.checkIndex(x, image.getWidth());
+		Objects.checkIndex(y, image.getHeight());
+		PackedRaster r = PackedRaster.direct(image);
+		if (r == null) {
+			return image.getRGB(x, y);
+		}
+		return r.get(x, y);
+	}
+
+	/**
+	 * 1ピクセルを設定します.
+	 *
+	 * @param image 画像.<br>
+	 * @param x X座標.<br>
+	 * @param y Y座標.<br>
+	 * @param argb ARGB.<br>
+	 * @throws IndexOutOfBoundsException 範囲外の場合.<br>
+	 */
+	public static void setPixel(BufferedImage image, int x, int y, int argb) throws IndexOutOfBoundsException {
+		Objects.checkIndex(x, image.getWidth());
+		Objects.checkIndex(y, image.getHeight());
+		PackedRaster r = PackedRaster.direct(image);
+		if (r == null) {
+			image.setRGB(x, y, argb);
+			return;
+		}
+		r.set(x, y, argb);
+	}
+
+	/**
+	 * 1行分のピクセルを取得します.
+	 *
+	 * @param image 画像.<br>
+	 * @param y Y座標.<br>
+	 * @param dst 格納先。nullまたは幅より短い場合は新しい配列が作成されます。<br>
+	 * @return dstまたは新しい配列.<br>
+	 * @throws IndexOutOfBoundsException 範囲外の場合.<br>
+	 */
+	public static int[] getRow(BufferedImage image, int y, int[] dst) throws IndexOutOfBoundsException {
+		return getPixels(image, 0, y, image.getWidth(), 1, dst);
+	}
+
+	/**
+	 * 1行分のピクセルを設定します.
+	 *
+	 * @param image 画像.<br>
+	 * @param y Y座標.<br>
+	 * @param src ピクセル。先頭から画像の幅の分だけ使用されます。<br>
+	 * @throws IndexOutOfBoundsException 範囲外の場合.<br>
+	 */
+	public static void setRow(BufferedImage image, int y, int[] src) throws IndexOutOfBoundsException {
+		setPixels(image, 0, y, image.getWidth(), 1, src);
+	}
+
+	/**
+	 * 矩形領域のピクセルを取得します. 結果は幅wで詰めて格納されます.<br>
+	 *
+	 * @param image 画像.<br>
+	 * @param x 左上のX.<br>
+	 * @param y 左上のY.<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param dst 格納先。nullまたはw*hより短い場合は新しい配列が作成されます。<br>
+	 * @return dstまたは新しい配列.<br>
+	 * @throws IndexOutOfBoundsException 範囲外の場合.<br>
+	 */
+	public static int[] getPixels(BufferedImage image, int x, int y, int w, int h, int[] dst)
+			throws IndexOutOfBoundsException {
+		Objects.checkFromIndexSize(x, w, image.getWidth());
+		Objects.checkFromIndexSize(y, h, image.getHeight());
+		if (dst == null || dst.length < w * h) {
+			dst = new int[w * h];
+		}
+		PackedRaster r = PackedRaster.direct(image);
+		if (r == null) {
+			return image.getRGB(x, y, w, h, dst, 0, w);
+		}
+		int[] pix = r.getData();
+		for (int i = 0; i < h; i++) {
+			System.arraycopy(pix, r.index(x, y + i), dst, i * w, w);
+		}
+		return dst;
+	}
+
+	/**
+	 * 矩形領域にピクセルを設定します. srcは幅wで詰めて格納されている必要があります.<br>
+	 *
+	 * @param image 画像.<br>
+	 * @param x 左上のX.<br>
+	 * @param y 左上のY.<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param src ピクセル.<br>
+	 * @throws IndexOutOfBoundsException 範囲外の場合.<br>
+	 */
+	public static void setPixels(BufferedImage image, int x, int y, int w, int h, int[] src)
+			throws IndexOutOfBoundsException {
+		Objects.checkFromIndexSize(x, w, image.getWidth());
+		Objects.checkFromIndexSize(y, h, image.getHeight());
+		Objects.checkFromIndexSize(0, w * h, src.length);
+		PackedRaster r = PackedRaster.direct(image);
+		if (r == null) {
+			image.setRGB(x, y, w, h, src, 0, w);
+			return;
+		}
+		int[] pix = r.getData();
+		for (int i = 0; i < h; i++) {
+			System.arraycopy(src, i * w, pix, r.index(x, y + i), w);
+		}
+	}
+
+	/**
+	 * 矩形領域を1色で塗りつぶします. 領域は画像の範囲に切り詰められます.<br>
+	 *
+	 * @param image 画像.<br>
+	 * @param x 左上のX.<br>
+	 * @param y 左上のY.<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param argb 色.<br>
+	 */
+	public static void fillPixels(BufferedImage image, int x, int y, int w, int h, int argb) {
+		int x2 = Math.min(image.getWidth(), x + w);
+		int y2 = Math.min(image.getHeight(), y + h);
+		x = Math.max(0, x);
+		y = Math.max(0, y);
+		if (x >= x2 || y >= y2) {
+			return;
+		}
+		PackedRaster r = PackedRaster.direct(image);
+		if (r == null) {
+			int[] row = new int[x2 - x];
+			Arrays.fill(row, argb);
+			for (int i = y; i < y2; i++) {
+				image.setRGB(x, i, row.length, 1, row, 0, row.length);
+			}
+			return;
+		}
+		int[] pix = r.getData();
+		for (int i = y; i < y2; i++) {
+			int from = r.index(x, i);
+			Arrays.fill(pix, from, from + x2 - x, argb);
 		}
-		image.setRGB(0, 0, image.getWidth(), image.getHeight(), newPix, 0, image.getWidth());
 	}
 
-	public static int getPixel(BufferedImage image, int x, int y) {
-		return getPixel2D(image)[y][x];
+	/**
+	 * 画像間で矩形領域のピクセルをコピーします. アルファ合成は行われず、値がそのまま上書きされます.<br>
+	 * srcとdstが同じ画像で領域が重なる場合の動作は定義されていません。<br>
+	 *
+	 * @param src コピー元.<br>
+	 * @param sx コピー元のX.<br>
+	 * @param sy コピー元のY.<br>
+	 * @param dst コピー先.<br>
+	 * @param dx コピー先のX.<br>
+	 * @param dy コピー先のY.<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @throws IndexOutOfBoundsException 範囲外の場合.<br>
+	 */
+	public static void copyPixels(BufferedImage src, int sx, int sy, BufferedImage dst, int dx, int dy, int w, int h)
+			throws IndexOutOfBoundsException {
+		Objects.checkFromIndexSize(sx, w, src.getWidth());
+		Objects.checkFromIndexSize(sy, h, src.getHeight());
+		Objects.checkFromIndexSize(dx, w, dst.getWidth());
+		Objects.checkFromIndexSize(dy, h, dst.getHeight());
+		PackedRaster s = PackedRaster.direct(src);
+		PackedRaster d = PackedRaster.direct(dst);
+		if (s == null || d == null) {
+			int[] row = new int[w];
+			for (int i = 0; i < h; i++) {
+				getPixels(src, sx, sy + i, w, 1, row);
+				setPixels(dst, dx, dy + i, w, 1, row);
+			}
+			return;
+		}
+		for (int i = 0; i < h; i++) {
+			System.arraycopy(s.getData(), s.index(sx, sy + i), d.getData(), d.index(dx, dy + i), w);
+		}
 	}
 
 	/**
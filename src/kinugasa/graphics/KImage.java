@@ -47,6 +47,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
@@ -58,8 +60,6 @@ import kinugasa.game.annotation.Immutable;
 import kinugasa.game.annotation.NewInstance;
 import kinugasa.game.annotation.NotNewInstance;
 import kinugasa.game.annotation.Nullable;
-import static kinugasa.graphics.ImageUtil.getPixel2D;
-import static kinugasa.graphics.ImageUtil.setPixel2D;
 import kinugasa.graphics.KImage.KRaster.KColor;
 import kinugasa.object.CloneableObject;
 import kinugasa.object.ImageSprite;
@@ -400,17 +400,6 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 			return Arrays.stream(data).flatMap(Arrays::stream).toList().iterator();
 		}
 
-		private int[][] getPixel2D() {
-			int[][] res = new int[data.length][];
-			for (int y = 0; y < data.length; y++) {
-				res[y] = new int[data[y].length];
-				for (int x = 0; x < data[y].length; x++) {
-					res[y][x] = data[y][x].value;
-				}
-			}
-			return res;
-		}
-
 		@Override
 		public int hashCode() {
 			int hash = 5;
@@ -437,11 +426,21 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 
 	@NotNewInstance
 	public KImage updateImage(KRaster r) {
-		ImageUtil.setPixel2D(image, r.getPixel2D());
+		accelerated = null;
+		PackedRaster pr = asPackedRaster();
+		int[] pix = pr.getData();
+		for (int y = 0; y < r.data.length; y++) {
+			for (int x = 0, i = pr.index(0, y); x < r.data[y].length; x++, i++) {
+				pix[i] = r.data[y][x].value;
+			}
+		}
+		pr.commit();
 		return this;
 	}
 
 	protected BufferedImage image;
+	//描画用の複製。ピクセルを変更するとnullになる
+	private transient BufferedImage accelerated;
 
 	public KImage(BufferedImage image) {
 		this.image = image;
@@ -486,13 +485,14 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 
 	@NewInstance
 	public KRaster asRaster() {
-		int[][] pix = ImageUtil.getPixel2D(image);
+		PackedRaster pr = readPackedRaster();
+		int[] pix = pr.getData();
 		KColor[][] data = new KColor[getHeight()][];
 		KRaster r = new KRaster();
 		for (int y = 0; y < getHeight(); y++) {
 			data[y] = new KColor[getWidth()];
-			for (int x = 0; x < getWidth(); x++) {
-				data[y][x] = r.new KColor(pix[y][x]);
+			for (int x = 0, i = pr.index(0, y); x < getWidth(); x++, i++) {
+				data[y][x] = r.new KColor(pix[i]);
 			}
 		}
 		r.setData(data);
@@ -524,11 +524,40 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 		return image;
 	}
 
+	/**
+	 * 描画に使用する画像を返します.<br>
+	 * ImageUtil.isUseAcceleratedImageがtrueの場合、ラスタに直接アクセスしていない複製を作成して保持します。
+	 * この複製はJava2DによってVRAMにキャッシュされます。<br>
+	 * このKImageのメソッドでピクセルを変更すると複製は破棄されます。
+	 * asBufferedImageで取得した画像を直接変更した場合は、invalidateDrawImageを呼び出してください。<br>
+	 *
+	 * @return 描画用の画像.<br>
+	 */
+	@NotNewInstance
+	public Image asDrawImage() {
+		if (!ImageUtil.isUseAcceleratedImage()) {
+			return image;
+		}
+		BufferedImage a = accelerated;
+		if (a == null) {
+			accelerated = a = ImageUtil.copy(image);
+		}
+		return a;
+	}
+
+	/**
+	 * asDrawImageで保持している複製を破棄します.
+	 */
+	public void invalidateDrawImage() {
+		accelerated = null;
+	}
+
 	@Override
 	@NewInstance
 	public KImage clone() {
 		var r = (KImage) super.clone();
 		r.image = ImageUtil.copy(image);
+		r.accelerated = null;
 		return r;
 	}
 
@@ -615,6 +644,7 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 	}
 
 	public Graphics2D createGraphics2D(RenderingQuality renderingPolicy) {
+		accelerated = null;
 		Graphics2D g = image.createGraphics();
 		if (renderingPolicy != null) {
 			g.setRenderingHints(renderingPolicy.getRenderingHints());
@@ -789,8 +819,9 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 	@NewInstance
 	@Nullable
 	public KImage autoTrimming(Predicate<KColor> p) {
-		Point start = start(this, p);
-		Point end = end(this, p);
+		Point[] se = matchBounds(this, p);
+		Point start = se[0];
+		Point end = se[1];
 		int w = end.x - start.x;
 		int h = end.y - start.y;
 		if (w <= 0 || h <= 0) {
@@ -804,52 +835,43 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 	public static final Predicate<KColor> ALPHA_IS_NOT_TRANSPARENT = (v) -> v.getA() != ARGBColor.ALPHA_TRANSPARENT;
 	public static final Predicate<KColor> ALPHA_IS_NOT_OPAQUE = (v) -> v.getA() != ARGBColor.ALPHA_OPAQUE;
 
-	private static Point start(KImage src, Predicate<KColor> p) {
-		KRaster raster = src.asRaster();
-		KColor[][] pix = raster.all();
-		Point res = new Point();
-		for (int y = 0; y < pix.length; y++) {
-			if (Stream.of(pix[y]).anyMatch(p)) {
-				res.y = y;
-				break;
-			}
-		}
-		pix = raster.rotate(90).all();
-		for (int y = 0; y < pix.length; y++) {
-			if (Stream.of(pix[y]).anyMatch(p)) {
-				res.x = y;
-				break;
-			}
-		}
-		return res;
-	}
-
-	private static Point end(KImage src, Predicate<KColor> p) {
-		KRaster raster = src.asRaster();
-		KColor[][] pix = raster.all();
-		Point res = new Point();
-		for (int y = pix.length - 1; y >= 0; y--) {
-			if (Stream.of(pix[y]).anyMatch(p)) {
-				res.y = y;
-				break;
+	//pがtrueになるピクセルの最も左上と最も右下を返す。無い場合は両方(0,0)。
+	private static Point[] matchBounds(KImage src, Predicate<KColor> p) {
+		BufferedImage image = src.image;
+		int w = image.getWidth();
+		int minX = -1, maxX = -1, minY = -1, maxY = -1;
+		KColor c = src.new KRaster().new KColor(0);
+		int[] row = new int[w];
+		for (int y = 0; y < image.getHeight(); y++) {
+			ImageUtil.getRow(image, y, row);
+			for (int x = 0; x < w; x++) {
+				c.value = row[x];
+				if (!p.test(c)) {
+					continue;
+				}
+				if (minY < 0) {
+					minY = y;
+				}
+				maxY = y;
+				if (minX < 0 || x < minX) {
+					minX = x;
+				}
+				if (x > maxX) {
+					maxX = x;
+				}
 			}
 		}
-		pix = raster.rotate(90).all();
-		for (int y = pix.length - 1; y >= 0; y--) {
-			if (Stream.of(pix[y]).anyMatch(p)) {
-				res.x = y;
-				break;
-			}
+		if (minY < 0) {
+			return new Point[]{new Point(), new Point()};
 		}
-		return res;
+		return new Point[]{new Point(minX, minY), new Point(maxX, maxY)};
 	}
 
 	@NewInstance
 	public List<KImage> fadeAnimation(float addTp) {
 		List<KImage> res = new ArrayList<>();
 		for (float t = 1f; t > 0 && t <= 1; t += addTp) {
-			float v = t;
-			res.add(this.clone().asRaster().set(p -> p.mulA(v)).updateImage());
+			res.add(mulAlpha(t));
 		}
 		return res;
 	}
@@ -877,65 +899,166 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 	}
 
 	public boolean hasClaerPixel() {
-		return asRaster().stream().anyMatch(p -> p.is完全透明());
+		return readPackedRaster().anyMatch(p -> (p >>> 24) == ARGBColor.ALPHA_TRANSPARENT);
 	}
 
 	public boolean hasOpauePixel() {
-		return asRaster().stream().anyMatch(p -> p.is不透明());
+		return readPackedRaster().anyMatch(p -> (p >>> 24) == ARGBColor.ALPHA_OPAQUE);
+	}
+
+	/**
+	 * この画像のピクセルをint[]のまま参照する、書き込み用のラスタを返します.<br>
+	 * 書き込みはこの画像を変更します。書き込まれる前提で、描画用の複製は破棄されます。<br>
+	 * 読み取りだけの場合はreadPackedRasterを使用してください。<br>
+	 *
+	 * @return ラスタ.<br>
+	 */
+	@NotNewInstance
+	public PackedRaster asPackedRaster() {
+		accelerated = null;
+		return PackedRaster.of(image);
+	}
+
+	/**
+	 * この画像のピクセルをint[]のまま参照する、読み取り用のラスタを返します.<br>
+	 * 描画用の複製は破棄されないため、このラスタに書き込んではいけません。<br>
+	 *
+	 * @return ラスタ.<br>
+	 */
+	@NotNewInstance
+	public PackedRaster readPackedRaster() {
+		return PackedRaster.of(image);
+	}
+
+	/**
+	 * 各ピクセルにopを適用した新しい画像を作成します.
+	 *
+	 * @param op 行単位の処理.<br>
+	 * @return 新しい画像.<br>
+	 */
+	@NewInstance
+	public KImage filter(PackedRaster.BandOp op) {
+		return new KImage(PackedRaster.filter(image, op));
 	}
 
 	@NewInstance
 	public KImage replaceColor(Predicate<KColor> b, UnaryOperator<KColor> converter) {
-		return asRaster().set(p -> {
-			if (b.test(p)) {
-				return converter.apply(p);
+		return filter((src, so, dst, d, len) -> {
+			//帯ごとに1つのKColorを使いまわす
+			KColor c = new KRaster().new KColor(0);
+			for (int i = 0; i < len; i++) {
+				c.value = src[so + i];
+				dst[d + i] = b.test(c) ? converter.apply(c).value : src[so + i];
+			}
+		});
+	}
+
+	@NewInstance
+	public KImage replaceARGB(IntPredicate b, IntUnaryOperator converter) {
+		return filter((src, so, dst, d, len) -> {
+			for (int i = 0; i < len; i++) {
+				int v = src[so + i];
+				dst[d + i] = b.test(v) ? converter.applyAsInt(v) : v;
+			}
+		});
+	}
+
+	@NewInstance
+	public KImage replaceColor(int from, int to) {
+		return filter((src, so, dst, d, len) -> {
+			for (int i = 0; i < len; i++) {
+				int v = src[so + i];
+				dst[d + i] = v == from ? to : v;
 			}
-			return p;
-		}).newImage();
+		});
+	}
+
+	/**
+	 * パレットスワップを行います. fromのi番目の色をtoのi番目の色に置換します.<br>
+	 *
+	 * @param from 置換元のARGB.<br>
+	 * @param to 置換先のARGB.<br>
+	 * @return 新しい画像.<br>
+	 */
+	@NewInstance
+	public KImage replaceColor(int[] from, int[] to) {
+		if (from.length != to.length) {
+			throw new IllegalArgumentException("palette size mismatch : " + from.length + " / " + to.length);
+		}
+		//二分探索できるようにfromの順に並べ替える
+		long[] pair = new long[from.length];
+		for (int i = 0; i < from.length; i++) {
+			pair[i] = ((long) from[i] << 32) | (to[i] & 0xFFFFFFFFL);
+		}
+		Arrays.sort(pair);
+		int[] keys = new int[pair.length];
+		int[] values = new int[pair.length];
+		for (int i = 0; i < pair.length; i++) {
+			keys[i] = (int) (pair[i] >> 32);
+			values[i] = (int) pair[i];
+		}
+		return filter((src, so, dst, d, len) -> {
+			for (int i = 0; i < len; i++) {
+				int v = src[so + i];
+				int k = Arrays.binarySearch(keys, v);
+				dst[d + i] = k >= 0 ? values[k] : v;
+			}
+		});
 	}
 
 	@NewInstance
 	public KImage grayScale() {
-		return asRaster().set(p -> p.average()).newImage();
+		return filter((src, so, dst, d, len) -> {
+			for (int i = 0; i < len; i++) {
+				int v = src[so + i];
+				int a = (((v >> 16) & 0xFF) + ((v >> 8) & 0xFF) + (v & 0xFF)) / 3;
+				dst[d + i] = (v & 0xFF000000) | a << 16 | a << 8 | a;
+			}
+		});
 	}
 
 	@NewInstance
 	public KImage weightedGrayScale() {
-		KRaster rs = asRaster();
-		return rs.set(p -> {
-			int r = (int) (p.getR() * 0.298912f);
-			int g = (int) (p.getG() * 0.586611f);
-			int b = (int) (p.getB() * 0.114478f);
-			return rs.new KColor(ARGBColor.toARGB(p.getA(), r, g, b));
-		}).newImage();
+		return filter((src, so, dst, d, len) -> {
+			for (int i = 0; i < len; i++) {
+				int v = src[so + i];
+				int a = (int) (((v >> 16) & 0xFF) * 0.298912f
+						+ ((v >> 8) & 0xFF) * 0.586611f
+						+ (v & 0xFF) * 0.114478f);
+				if (a > 255) {
+					a = 255;
+				}
+				dst[d + i] = (v & 0xFF000000) | a << 16 | a << 8 | a;
+			}
+		});
 	}
 
 	@NewInstance
 	public KImage sepia() {
-		KImage i = grayScale();
-		KRaster rs = i.asRaster();
-		return rs.set(p -> {
-			int r = (int) (p.getR() * 1.12f);
-			if (r > 255) {
-				r = 255;
+		return filter((src, so, dst, d, len) -> {
+			for (int i = 0; i < len; i++) {
+				int v = src[so + i];
+				int a = (((v >> 16) & 0xFF) + ((v >> 8) & 0xFF) + (v & 0xFF)) / 3;
+				int r = (int) (a * 1.12f);
+				if (r > 255) {
+					r = 255;
+				}
+				int g = (int) (a * 0.66f);
+				int b = (int) (a * 0.20f);
+				dst[d + i] = (v & 0xFF000000) | r << 16 | g << 8 | b;
 			}
-			int g = (int) (p.getG() * 0.66f);
-			int b = (int) (p.getB() * 0.20f);
-			return rs.new KColor(ARGBColor.toARGB(p.getA(), r, g, b));
-		}).updateImage();
+		});
 	}
 
 	@NewInstance
 	public KImage monochrome(int center) {
-		KRaster rs = asRaster();
-		return rs.set(p -> {
-			int a = p.average().value;
-			if (a > center) {
-				return rs.new KColor(ARGBColor.WHITE);
-			} else {
-				return rs.new KColor(ARGBColor.BLACK);
+		return filter((src, so, dst, d, len) -> {
+			for (int i = 0; i < len; i++) {
+				int v = src[so + i];
+				int a = (((v >> 16) & 0xFF) + ((v >> 8) & 0xFF) + (v & 0xFF)) / 3;
+				dst[d + i] = a > center ? ARGBColor.WHITE : ARGBColor.BLACK;
 			}
-		}).newImage();
+		});
 	}
 
 	@NewInstance
@@ -946,37 +1069,29 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 		if (mul < 0) {
 			mul = 0;
 		}
-		KRaster rs = asRaster();
-		float m = mul;
-		return rs.set(p -> {
-			int r = (int) (p.getR() * m);
-			if (r > 255) {
-				r = 255;
-			}
-			if (r < 0) {
-				r = 0;
-			}
-			int g = (int) (p.getG() * m);
-			if (g > 255) {
-				g = 255;
-			}
-			if (g < 0) {
-				g = 0;
-			}
-			int b = (int) (p.getB() * m);
-			if (b > 255) {
-				b = 255;
-			}
-			if (b < 0) {
-				b = 0;
+		//0-255の乗算結果を表にしておく
+		int[] table = new int[256];
+		for (int i = 0; i < table.length; i++) {
+			table[i] = Math.min(255, (int) (i * mul));
+		}
+		return filter((src, so, dst, d, len) -> {
+			for (int i = 0; i < len; i++) {
+				int v = src[so + i];
+				dst[d + i] = (v & 0xFF000000)
+						| table[(v >> 16) & 0xFF] << 16
+						| table[(v >> 8) & 0xFF] << 8
+						| table[v & 0xFF];
 			}
-			return p.to(r, g, b, p.getA());
-		}).newImage();
+		});
 	}
 
 	@NewInstance
 	public KImage reverseColor() {
-		return asRaster().set(p -> p.reverse()).newImage();
+		return filter((src, so, dst, d, len) -> {
+			for (int i = 0; i < len; i++) {
+				dst[d + i] = src[so + i] ^ 0x00FFFFFF;
+			}
+		});
 	}
 
 	@NewInstance
@@ -988,21 +1103,14 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 		if (size > src.getWidth() || size > src.getHeight()) {
 			throw new GraphicsException("size is over image bounds : size=[" + size + "]");
 		}
-		BufferedImage dst = ImageUtil.copy(src);
-		int[][] pix = getPixel2D(src);
+		BufferedImage dst = ImageUtil.newImage(src.getWidth(), src.getHeight());
+		int[] row = null;
 		for (int y = 0, imageHeight = src.getHeight(); y < imageHeight; y += size) {
+			row = ImageUtil.getRow(src, y, row);
 			for (int x = 0, imageWidth = src.getWidth(); x < imageWidth; x += size) {
-				int argb = pix[y][x];
-				for (int mosaicY = y, i = 0; i < size; mosaicY++, i++) {
-					for (int mosaicX = x, j = 0; j < size; mosaicX++, j++) {
-						if (mosaicX <= imageWidth && mosaicY <= imageHeight) {
-							pix[mosaicY][mosaicX] = argb;
-						}
-					}
-				}
+				ImageUtil.fillPixels(dst, x, y, size, size, row[x]);
 			}
 		}
-		ImageUtil.setPixel2D(dst, pix);
 		return new KImage(dst);
 	}
 
@@ -1030,17 +1138,37 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 
 	@NewInstance
 	public KImage setAlpha(int a) {
-		return asRaster().set(p -> p.setA(a)).newImage();
+		int na = Math.max(0, Math.min(255, a)) << 24;
+		return filter((src, so, dst, d, len) -> {
+			for (int i = 0; i < len; i++) {
+				dst[d + i] = (src[so + i] & 0x00FFFFFF) | na;
+			}
+		});
 	}
 
 	@NewInstance
 	public KImage addAlpha(int a) {
-		return asRaster().set(p -> p.addA(a)).newImage();
+		return filter((src, so, dst, d, len) -> {
+			for (int i = 0; i < len; i++) {
+				int v = src[so + i];
+				int na = Math.max(0, Math.min(255, (v >>> 24) + a));
+				dst[d + i] = (v & 0x00FFFFFF) | na << 24;
+			}
+		});
 	}
 
 	@NewInstance
 	public KImage mulAlpha(float t) {
-		return asRaster().set(p -> p.mulA(t)).newImage();
+		int[] table = new int[256];
+		for (int i = 0; i < table.length; i++) {
+			table[i] = Math.max(0, Math.min(255, (int) (i * t))) << 24;
+		}
+		return filter((src, so, dst, d, len) -> {
+			for (int i = 0; i < len; i++) {
+				int v = src[so + i];
+				dst[d + i] = (v & 0x00FFFFFF) | table[v >>> 24];
+			}
+		});
 	}
 
 	@NewInstance
@@ -1054,25 +1182,23 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 				spi = (spi < shiftPixNum.length - 1) ? spi + 1 : 0;
 			}
 		}
-		int[][] pix = getPixel2D(dst);
-		for (int y = 0; y < pix.length; y++) {
+		final int[] ROW = new int[dst.getWidth()];
+		final int[] LINE = new int[dst.getWidth()];
+		for (int y = 0; y < dst.getHeight(); y++) {
 			if (sPix[y] == 0) {
 				continue;
 			}
-			final int[] ROW = new int[pix[y].length];
-			System.arraycopy(pix[y], 0, ROW, 0, ROW.length);
-			int x = 0, lineIdx = 0;
+			ImageUtil.getRow(dst, y, ROW);
+			int shift = Math.min(Math.abs(sPix[y]), ROW.length);
 			if (sPix[y] > 0) {
-				Arrays.fill(pix[y], 0, sPix[y], insertARGB);
-				x += sPix[y];
+				Arrays.fill(LINE, 0, shift, insertARGB);
+				System.arraycopy(ROW, 0, LINE, shift, ROW.length - shift);
 			} else {
-				lineIdx += Math.abs(sPix[y]);
+				System.arraycopy(ROW, shift, LINE, 0, ROW.length - shift);
+				Arrays.fill(LINE, ROW.length - shift, LINE.length, insertARGB);
 			}
-			System.arraycopy(ROW, lineIdx, pix[y], x, ROW.length - Math.abs(sPix[y]));
-			x += ROW.length - Math.abs(sPix[y]);
-			Arrays.fill(pix[y], x, pix[y].length, insertARGB);
+			ImageUtil.setRow(dst, y, LINE);
 		}
-		setPixel2D(dst, pix);
 		return new KImage(dst);
 	}
 
@@ -1234,8 +1360,9 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 	@NewInstance
 	public MaskedArea maskedAreaOf(KImage i, Predicate<KColor> p) {
 		//領域算出して切り出してSubに渡す
-		Point start = start(i, p);
-		Point end = end(i, p);
+		Point[] se = matchBounds(i, p);
+		Point start = se[0];
+		Point end = se[1];
 		int x = start.x;
 		int y = start.y;
 		int w = end.x - start.x;
@@ -1267,15 +1394,20 @@ public sealed class KImage extends CloneableObject permits KImage.MaskedArea {
 		int a, r, g, b;
 		r = g = b = 0;
 		a = 255;
-		List<Integer> pix = asRaster().stream().map(p -> p.value).toList();
-		for (int val : pix) {
-			r += ARGBColor.getRed(val);
-			g += ARGBColor.getGreen(val);
-			b += ARGBColor.getBlue(val);
-		}
-		r /= pix.size();
-		g /= pix.size();
-		b /= pix.size();
+		PackedRaster pr = readPackedRaster();
+		int[] pix = pr.getData();
+		for (int y = 0; y < pr.getHeight(); y++) {
+			for (int i = pr.index(0, y), end = i + pr.getWidth(); i < end; i++) {
+				int val = pix[i];
+				r += ARGBColor.getRed(val);
+				g += ARGBColor.getGreen(val);
+				b += ARGBColor.getBlue(val);
+			}
+		}
+		int size = pr.getWidth() * pr.getHeight();
+		r /= size;
+		g /= size;
+		b /= size;
 		return new Color(r, g, b, a);
 	}
 
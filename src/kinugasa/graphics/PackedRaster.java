@@ -0,0 +1,359 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.graphics;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+import kinugasa.game.annotation.Nullable;
+
+/**
+ * BufferedImageのピクセルをint[]のまま扱うラスタです.<br>
+ * 画像がTYPE_INT_ARGBの場合、DataBufferIntの配列をコピーせずに直接参照します。<br>
+ * それ以外の形式の画像はgetRGBでコピーされ、commitで書き戻されます。<br>
+ * 直接参照した画像はJava2Dの管理対象（アクセラレーション）から外れることに注意してください。<br>
+ * <br>
+ * フィルタはBandOpとして行単位のループで記述し、大きな画像は行の帯に分割して共通ForkJoinPoolで並列に処理します。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_14:05:41<br>
+ * @author Shinacho.<br>
+ */
+public final class PackedRaster {
+
+	/**
+	 * 行単位のピクセル処理です.<br>
+	 * srcとdstは同じ配列の場合もあります。<br>
+	 */
+	@FunctionalInterface
+	public interface BandOp {
+
+		/**
+		 * 1行分のピクセルを処理します.
+		 *
+		 * @param src 入力の配列.<br>
+		 * @param srcOff 入力の行の先頭.<br>
+		 * @param dst 出力の配列.<br>
+		 * @param dstOff 出力の行の先頭.<br>
+		 * @param len 行のピクセル数.<br>
+		 */
+		public void apply(int[] src, int srcOff, int[] dst, int dstOff, int len);
+	}
+
+	/**
+	 * 座標が必要な行単位の処理です. 他の行を参照する処理に使用します.<br>
+	 * srcとdstは異なるラスタである必要があります。<br>
+	 */
+	@FunctionalInterface
+	public interface RowOp {
+
+		/**
+		 * dstのy行目を書き込みます.
+		 *
+		 * @param src 入力のラスタ。全ての行を参照できます。<br>
+		 * @param dst 出力のラスタ.<br>
+		 * @param y 書き込む行.<br>
+		 */
+		public void apply(PackedRaster src, PackedRaster dst, int y);
+	}
+
+	@FunctionalInterface
+	private interface Rows {
+
+		void run(int from, int to);
+	}
+
+	//並列化するピクセル数の閾値
+	private static int parallelThreshold = 256 * 256;
+
+	public static int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * 並列処理を行うピクセル数を設定します. この数未満の画像は呼び出しスレッドで処理されます.<br>
+	 * 帯の大きさもこの値が目安になります。<br>
+	 *
+	 * @param parallelThreshold ピクセル数.<br>
+	 */
+	public static void setParallelThreshold(int parallelThreshold) {
+		if (parallelThreshold < 1) {
+			throw new IllegalArgumentException("parallelThreshold < 1 : " + parallelThreshold);
+		}
+		PackedRaster.parallelThreshold = parallelThreshold;
+	}
+
+	private final BufferedImage image;
+	private final int[] data;
+	private final int offset;
+	private final int stride;
+	private final int width;
+	private final int height;
+	private final boolean direct;
+
+	private PackedRaster(BufferedImage image, int[] data, int offset, int stride, boolean direct) {
+		this.image = image;
+		this.data = data;
+		this.offset = offset;
+		this.stride = stride;
+		this.width = image.getWidth();
+		this.height = image.getHeight();
+		this.direct = direct;
+	}
+
+	/**
+	 * 画像のラスタを作成します.
+	 *
+	 * @param image 画像.<br>
+	 * @return TYPE_INT_ARGBの場合は画像のバッファを直接参照するラスタ。<br>
+	 */
+	public static PackedRaster of(BufferedImage image) {
+		PackedRaster r = direct(image);
+		if (r != null) {
+			return r;
+		}
+		int w = image.getWidth();
+		int[] pix = image.getRGB(0, 0, w, image.getHeight(), null, 0, w);
+		return new PackedRaster(image, pix, 0, w, false);
+	}
+
+	/**
+	 * 画像のバッファを直接参照するラスタを作成します.
+	 *
+	 * @param image 画像.<br>
+	 * @return 直接参照できない形式の場合null.<br>
+	 */
+	@Nullable
+	public static PackedRaster direct(BufferedImage image) {
+		if (image.getType() == BufferedImage.TYPE_INT_ARGB
+				&& image.getRaster().getDataBuffer() instanceof DataBufferInt buf
+				&& buf.getNumBanks() == 1
+				&& image.getRaster().getSampleModel() instanceof SinglePixelPackedSampleModel sm) {
+			var r = image.getRaster();
+			int off = buf.getOffset()
+					- r.getSampleModelTranslateY() * sm.getScanlineStride()
+					- r.getSampleModelTranslateX();
+			return new PackedRaster(image, buf.getData(), off, sm.getScanlineStride(), true);
+		}
+		return null;
+	}
+
+	public static PackedRaster of(KImage image) {
+		return of(image.image);
+	}
+
+	public BufferedImage getImage() {
+		return image;
+	}
+
+	/**
+	 * ピクセル配列を返します. 画像の一部である場合、配列には領域外のピクセルも含まれます.<br>
+	 * 位置はindexで算出してください。<br>
+	 *
+	 * @return ピクセル配列.<br>
+	 */
+	public int[] getData() {
+		return data;
+	}
+
+	public int getOffset() {
+		return offset;
+	}
+
+	public int getStride() {
+		return stride;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * 画像のバッファを直接参照しているかを返します.
+	 *
+	 * @return falseの場合、書き込みの反映にはcommitが必要です。<br>
+	 */
+	public boolean isDirect() {
+		return direct;
+	}
+
+	public int index(int x, int y) {
+		return offset + y * stride + x;
+	}
+
+	public int get(int x, int y) {
+		return data[index(x, y)];
+	}
+
+	public void set(int x, int y, int argb) {
+		data[index(x, y)] = argb;
+	}
+
+	/**
+	 * 変更を画像に反映します. 直接参照している場合は何もしません.<br>
+	 *
+	 * @return this.<br>
+	 */
+	public PackedRaster commit() {
+		if (!direct) {
+			image.setRGB(0, 0, width, height, data, offset, stride);
+		}
+		return this;
+	}
+
+	/**
+	 * このラスタの全行にopを適用し、結果をdstに書き込みます.<br>
+	 * dstはこのラスタと同じサイズである必要があります。dstのcommitも行われます。<br>
+	 *
+	 * @param dst 出力先。thisも指定できます。<br>
+	 * @param op 処理.<br>
+	 * @return dst.<br>
+	 */
+	public PackedRaster apply(PackedRaster dst, BandOp op) {
+		checkSize(dst);
+		run((from, to) -> applyRows(dst, op, from, to));
+		return dst.commit();
+	}
+
+	/**
+	 * 全行にopを適用し、結果をdstに書き込みます.<br>
+	 * 行は帯に分けて並列に処理されることがあります。dstのcommitも行われます。<br>
+	 *
+	 * @param dst 出力先。thisとは異なるラスタである必要があります。<br>
+	 * @param op 処理.<br>
+	 * @return dst.<br>
+	 */
+	public PackedRaster apply(PackedRaster dst, RowOp op) {
+		checkSize(dst);
+		if (dst.data == data) {
+			throw new IllegalArgumentException("RowOp : src and dst share the same buffer");
+		}
+		run((from, to) -> {
+			for (int y = from; y < to; y++) {
+				op.apply(this, dst, y);
+			}
+		});
+		return dst.commit();
+	}
+
+	private void checkSize(PackedRaster dst) {
+		if (dst.width != width || dst.height != height) {
+			throw new IllegalArgumentException("raster size mismatch : " + width + "x" + height
+					+ " / " + dst.width + "x" + dst.height);
+		}
+	}
+
+	private void run(Rows rows) {
+		if (width == 0 || height == 0) {
+			return;
+		}
+		long pixels = (long) width * height;
+		if (pixels < parallelThreshold || ForkJoinPool.getCommonPoolParallelism() < 2) {
+			rows.run(0, height);
+		} else {
+			ForkJoinPool.commonPool().invoke(new Band(rows, 0, height));
+		}
+	}
+
+	/**
+	 * このラスタ自身にopを適用します.
+	 *
+	 * @param op 処理.<br>
+	 * @return this.<br>
+	 */
+	public PackedRaster apply(BandOp op) {
+		return apply(this, op);
+	}
+
+	private void applyRows(PackedRaster dst, BandOp op, int from, int to) {
+		for (int y = from; y < to; y++) {
+			op.apply(data, offset + y * stride, dst.data, dst.offset + y * dst.stride, width);
+		}
+	}
+
+	private final class Band extends RecursiveAction {
+
+		private static final long serialVersionUID = 4713825930178416052L;
+		private final Rows rows;
+		private final int from;
+		private final int to;
+
+		Band(Rows rows, int from, int to) {
+			this.rows = rows;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			int n = to - from;
+			if (n < 2 || (long) n * width <= parallelThreshold) {
+				rows.run(from, to);
+				return;
+			}
+			int mid = from + n / 2;
+			invokeAll(new Band(rows, from, mid), new Band(rows, mid, to));
+		}
+	}
+
+	/**
+	 * 新しいTYPE_INT_ARGBの画像を作成します. この画像は常に直接参照できます.<br>
+	 *
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @return 新しい画像.<br>
+	 */
+	public static BufferedImage newImage(int w, int h) {
+		return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+	}
+
+	/**
+	 * srcにopを適用した新しい画像を作成します. srcは変更されません.<br>
+	 *
+	 * @param src 入力.<br>
+	 * @param op 処理.<br>
+	 * @return 新しい画像.<br>
+	 */
+	public static BufferedImage filter(BufferedImage src, BandOp op) {
+		BufferedImage dst = newImage(src.getWidth(), src.getHeight());
+		of(src).apply(of(dst), op);
+		return dst;
+	}
+
+	/**
+	 * 指定の条件を満たすピクセルがあるかを検査します.
+	 *
+	 * @param p 条件.<br>
+	 * @return 1つでもあればtrue.<br>
+	 */
+	public boolean anyMatch(IntPredicate p) {
+		for (int y = 0; y < height; y++) {
+			for (int i = offset + y * stride, end = i + width; i < end; i++) {
+				if (p.test(data[i])) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -62,6 +62,15 @@ public class ColorSprite extends Sprite {
 		super(w, h, vector, model);
 	}
 
+	public Color getColor() {
+		return color;
+	}
+
+	public void setColor(Color color) {
+		this.color = color;
+		markDirty();
+	}
+
 	@Override
 	public void draw(GraphicsContext g) {
 		g.setColor(color);
@@ -98,7 +98,7 @@ public final class ImagePainterStorage extends Storage<ImagePainter> {
 			Graphics2D g2 = g.create();
 			g2.setClip(spr.getBounds());
 			g2.rotate(spr.getVector().getAngleAsRad(), spr.getCenterX(), spr.getCenterY());
-			g2.drawImage(spr.getImage().asBufferedImage(), (int) spr.getX(), (int) spr.getY(), null);
+			g2.drawImage(spr.getImage().asDrawImage(), (int) spr.getX(), (int) spr.getY(), null);
 			g2.dispose();
 		}
 	};
@@ -112,7 +112,7 @@ public final class ImagePainterStorage extends Storage<ImagePainter> {
 			Graphics2D g2 = g.create();
 			g2.setClip(spr.getBounds());
 			g2.rotate(spr.getVector().getAngleAsRad(), spr.getCenterX(), spr.getCenterY());
-			g2.drawImage(spr.getImage().asBufferedImage(),
+			g2.drawImage(spr.getImage().asDrawImage(),
 					(int) (spr.getCenterX() - spr.getImageWidth() / 2),
 					(int) (spr.getCenterY() - spr.getImageHeight() / 2), null);
 			g2.dispose();
@@ -128,7 +128,7 @@ public final class ImagePainterStorage extends Storage<ImagePainter> {
 			Graphics2D g2 = g.create();
 			g2.setClip(spr.getBounds());
 			g2.rotate(spr.getVector().getAngleAsRad(), spr.getCenterX(), spr.getCenterY());
-			g2.drawImage(spr.getImage().asBufferedImage(), (int) spr.getX(), (int) spr.getY(),
+			g2.drawImage(spr.getImage().asDrawImage(), (int) spr.getX(), (int) spr.getY(),
 					(int) spr.getWidth(), (int) spr.getHeight(), null);
 			g2.dispose();
 
@@ -263,9 +263,13 @@ public class ImageSprite extends Sprite {
 	 */
 	public void setImage(BufferedImage image) {
 		this.image = new KImage(image);
+		markDirty();
 	}
 
 	public void setImage(KImage image) {
+		if (this.image != image) {
+			markDirty();
+		}
 		this.image = image;
 	}
 
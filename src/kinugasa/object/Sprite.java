@@ -31,6 +31,7 @@ import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import kinugasa.object.moveEvent.BasicMoving;
+import kinugasa.game.DirtyRegion;
 import kinugasa.game.GameManager;
 import kinugasa.game.GameWindow;
 import kinugasa.game.annotation.NewInstance;
@@ -99,6 +100,10 @@ public abstract class Sprite extends CloneableObject
 	 * 生存状態.
 	 */
 	private boolean exist = true;
+	/**
+	 * 変更をDirtyRegionに登録するかどうか. 移動のシミュレーションに使う複製ではfalseになります.
+	 */
+	private boolean dirtyTracking = true;
 
 	/**
 	 * 角度と速度.
@@ -266,9 +271,11 @@ public abstract class Sprite extends CloneableObject
 	 * @param bounds スプライトの領域.<br>
 	 */
 	public void setBounds(Rectangle2D.Float bounds) {
+		markDirty();
 		this.bounds = (Rectangle2D.Float) bounds.clone();
 		updatePersonalCenter();
 		updateCenter();
+		markDirty();
 	}
 
 	/**
@@ -314,7 +321,7 @@ public abstract class Sprite extends CloneableObject
 
 	public boolean hitOnNextMove(Sprite s) {
 		final float SPEED = 0.7f;
-		Sprite c = this.clone();
+		Sprite c = simulationClone();
 		if (c.getVector().getSpeed() < 0) {
 			c.getVector().setSpeed(-SPEED);
 		} else {
@@ -468,10 +475,12 @@ public abstract class Sprite extends CloneableObject
 	 * @param h スプライトの高さ.<br>
 	 */
 	public void setSize(float w, float h) {
+		markDirty();
 		bounds.width = w;
 		bounds.height = h;
 		updatePersonalCenter();
 		updateCenter();
+		markDirty();
 	}
 
 	/**
@@ -489,6 +498,9 @@ public abstract class Sprite extends CloneableObject
 	 * @param exist 生存状態.<br>
 	 */
 	public void setExist(boolean exist) {
+		if (this.exist != exist) {
+			markDirty();
+		}
 		this.exist = exist;
 	}
 
@@ -507,6 +519,9 @@ public abstract class Sprite extends CloneableObject
 	 * @param visible スプライトの可視状態.<br>
 	 */
 	public void setVisible(boolean visible) {
+		if (this.visible != visible) {
+			markDirty();
+		}
 		this.visible = visible;
 	}
 
@@ -529,8 +544,13 @@ public abstract class Sprite extends CloneableObject
 	 * @param x X座標.<br>
 	 */
 	public void setX(float x) {
+		if (bounds.x == x) {
+			return;
+		}
+		markDirty();
 		bounds.x = x;
 		center.x = bounds.x + personalCenter.x;
+		markDirty();
 	}
 
 	/**
@@ -548,8 +568,13 @@ public abstract class Sprite extends CloneableObject
 	 * @param y Y座標.<br>
 	 */
 	public void setY(float y) {
+		if (bounds.y == y) {
+			return;
+		}
+		markDirty();
 		bounds.y = y;
 		center.y = bounds.y + personalCenter.y;
+		markDirty();
 	}
 
 	/**
@@ -567,9 +592,11 @@ public abstract class Sprite extends CloneableObject
 	 * @param width 幅.<br>
 	 */
 	public void setWidth(float width) {
+		markDirty();
 		bounds.width = width;
 		personalCenter.x = bounds.width / 2;
 		center.x = bounds.x + personalCenter.x;
+		markDirty();
 	}
 
 	/**
@@ -587,9 +614,11 @@ public abstract class Sprite extends CloneableObject
 	 * @param height 高さ.<br>
 	 */
 	public void setHeight(float height) {
+		markDirty();
 		bounds.height = height;
 		personalCenter.y = bounds.height / 2;
 		center.y = bounds.y + personalCenter.y;
+		markDirty();
 	}
 
 	/**
@@ -607,9 +636,25 @@ public abstract class Sprite extends CloneableObject
 	 * @param z 深度.<br>
 	 */
 	public void setZ(float z) {
+		if (this.z != z) {
+			markDirty();
+		}
 		this.z = z;
 	}
 
+	/**
+	 * リテインドモードの描画で、このスプライトの範囲を再描画させます.<br>
+	 * 位置やサイズ、表示状態の変更は自動で登録されます。画像や色など、それ以外の見た目を変更した場合に呼び出してください。<br>
+	 *
+	 * @see DirtyRegion
+	 */
+	public final void markDirty() {
+		DirtyRegion d = DirtyRegion.getInstance();
+		if (dirtyTracking && d.isEnabled()) {
+			d.add(bounds.x, bounds.y, bounds.width, bounds.height);
+		}
+	}
+
 	@NewInstance
 	public KImage toImage() {
 		GameWindow window = GameManager.getInstance().getWindow();
@@ -622,7 +667,7 @@ public abstract class Sprite extends CloneableObject
 
 	@NewInstance
 	public KImage drawOn00() {
-		Sprite s = clone();
+		Sprite s = simulationClone();
 		s.setLocation(0, 0);
 		KImage image = new KImage((int) getWidth(), (int) getHeight());
 		Graphics2D g2 = image.createGraphics2D();
@@ -662,19 +707,20 @@ public abstract class Sprite extends CloneableObject
 	}
 
 	public Point2D.Float simulateMove() {
-		Sprite s = clone();
+		Sprite s = simulationClone();
 		s.move();
 		return simulateMoveLocation = s.getLocation();
 	}
 
 	public Point2D.Float simulateMoveCenterLocation() {
-		Sprite s = clone();
+		Sprite s = simulationClone();
 		s.move();
 		return s.getCenter();
 	}
 
 	public Point2D.Float simulateMove(KVector v) {
 		Sprite s = asEmptySprite();
+		s.dirtyTracking = false;
 		s.setVector(v);
 		s.move();
 		return s.getLocation();
@@ -682,11 +728,19 @@ public abstract class Sprite extends CloneableObject
 
 	public Point2D.Float simulateMoveCenterLocation(KVector v) {
 		Sprite s = asEmptySprite();
+		s.dirtyTracking = false;
 		s.setVector(v);
 		s.move();
 		return s.getCenter();
 	}
 
+	//描画されない複製なので、移動や変更をDirtyRegionに登録しない
+	private Sprite simulationClone() {
+		Sprite s = clone();
+		s.dirtyTracking = false;
+		return s;
+	}
+
 	@NewInstance
 	public EmptySprite asEmptySprite() {
 		return new EmptySprite(getLocation(), getSize());
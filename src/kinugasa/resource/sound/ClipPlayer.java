@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.resource.sound;
+
+import java.io.IOException;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.FloatControl;
+import javax.sound.sampled.LineUnavailableException;
+import kinugasa.game.GameLog;
+import kinugasa.game.annotation.Nullable;
+
+/**
+ * PCM全体をClipにデコードして再生します. 短い効果音向けです.<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_16:21:30<br>
+ * @author Shinacho.<br>
+ */
+final class ClipPlayer implements SoundPlayer {
+
+	private final String id;
+	private final Clip clip;
+
+	ClipPlayer(String id, AudioInputStream stream) throws LineUnavailableException, IOException {
+		this.id = id;
+		DataLine.Info dInfo = new DataLine.Info(Clip.class, stream.getFormat());
+		this.clip = (Clip) AudioSystem.getLine(dInfo);
+		clip.open(stream);
+	}
+
+	Clip getClip() {
+		return clip;
+	}
+
+	@Override
+	public void start(int frame, @Nullable LoopPoint loop) {
+		clip.setFramePosition(frame);
+		if (loop != null) {
+			clip.setLoopPoints(loop.getTo().VALUE, loop.getFrom().VALUE);
+			clip.loop(Clip.LOOP_CONTINUOUSLY);
+		} else {
+			clip.start();
+		}
+	}
+
+	@Override
+	public int stop() {
+		int p = clip.getFramePosition();
+		clip.stop();
+		return p;
+	}
+
+	@Override
+	public void setGain(float gain) {
+		try {
+			FloatControl c = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
+			float db = (float) Math.log10(gain) * 20;
+			c.setValue(Math.max(c.getMinimum(), Math.min(c.getMaximum(), db)));
+		} catch (IllegalArgumentException e) {
+			GameLog.print("! > Sound : [" + id + "] : unsupported control[master gain]");
+		}
+	}
+
+	@Override
+	public void close() {
+		clip.flush();
+		clip.close();
+	}
+
+}
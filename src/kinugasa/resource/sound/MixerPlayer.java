@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.resource.sound;
+
+import java.io.IOException;
+import javax.sound.sampled.AudioInputStream;
+import kinugasa.game.annotation.Nullable;
+
+/**
+ * SoundMixerのボイスで鳴らす再生です. 同じサウンドを重ねて鳴らすことができます.<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_17:03:40<br>
+ * @author Shinacho.<br>
+ */
+final class MixerPlayer implements SoundPlayer {
+
+	private final SoundMixer mixer;
+	private final short[] pcm;
+	private final float srcRate;
+	private volatile float gain = 1f;
+
+	MixerPlayer(SoundMixer mixer, AudioInputStream stream) throws IOException {
+		this.mixer = mixer;
+		this.srcRate = stream.getFormat().getSampleRate();
+		this.pcm = SoundMixer.decode(stream);
+	}
+
+	short[] getPCM() {
+		return pcm;
+	}
+
+	int getFrameLength() {
+		return pcm.length / SoundMixer.FORMAT.getChannels();
+	}
+
+	int toMixerFrame(int frame) {
+		return SoundMixer.toMixerFrame(frame, srcRate);
+	}
+
+	float getGain() {
+		return gain;
+	}
+
+	/**
+	 * 新しいボイスで発音します. 再生中のボイスは止めません.<br>
+	 *
+	 * @param voiceGain このボイスだけの音量.<br>
+	 * @param priority ボイスが足りないときに、これ以下の優先度のボイスを奪います。<br>
+	 */
+	void fire(float voiceGain, int priority) {
+		mixer.fire(this, voiceGain, priority, 0, null);
+	}
+
+	@Override
+	public void start(int frame, @Nullable LoopPoint loop) {
+		mixer.fire(this, 1f, Integer.MAX_VALUE, toMixerFrame(frame), loop);
+	}
+
+	@Override
+	public int stop() {
+		mixer.stop(this);
+		return 0;
+	}
+
+	@Override
+	public void setGain(float gain) {
+		this.gain = gain;
+	}
+
+	@Override
+	public void close() {
+		mixer.stop(this);
+	}
+
+}
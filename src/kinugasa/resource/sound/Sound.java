@@ -25,11 +25,10 @@ package kinugasa.resource.sound;
 
 import java.io.File;
 import java.io.IOException;
+import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.Clip;
-import javax.sound.sampled.DataLine;
-import javax.sound.sampled.FloatControl;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import kinugasa.game.GameLog;
@@ -77,7 +76,7 @@ public final class Sound extends FileObject
 	private State soundStatus;
 	private MasterGain masterGain;
 	private LoopPoint loopPoint;
-	private Clip clip;
+	private SoundPlayer player;
 	private I18NText comment;
 	private FadeOutModel fadeOutModel;
 	private int pauseLocation = -1;
@@ -95,8 +94,7 @@ public final class Sound extends FileObject
 		this.masterGain = new MasterGain(1f);
 		this.fadeOutModel = null;
 		this.loopPoint = null;
-		this.clip = null;
-
+		this.player = null;
 	}
 
 	@Override
@@ -113,6 +111,7 @@ public final class Sound extends FileObject
 		if (soundStatus == State.PLAYING) {
 			if (fadeOutModel != null) {
 				fadeOutModel.set(this);
+				setMasterGainNow();
 				if (fadeOutModel.update() == FadeOutResult.END) {
 					stop();
 				}
@@ -138,22 +137,8 @@ public final class Sound extends FileObject
 		if (soundStatus == State.PLAYING) {
 			return this;
 		}
-		if (pauseLocation == - 1) {
-			clip.setFramePosition(0);
-		}
-		if (loopPoint != null) {
-			if (pauseLocation != -1) {
-				clip.setFramePosition(pauseLocation);
-				pauseLocation = -1;
-			}
-			clip.loop(Clip.LOOP_CONTINUOUSLY);
-		} else {
-			if (pauseLocation != -1) {
-				clip.setFramePosition(pauseLocation);
-				pauseLocation = -1;
-			}
-			clip.start();
-		}
+		player.start(pauseLocation == -1 ? 0 : pauseLocation, loopPoint);
+		pauseLocation = -1;
 		soundStatus = State.PLAYING;
 		return this;
 	}
@@ -165,8 +150,7 @@ public final class Sound extends FileObject
 		if (soundStatus == State.LOADED_STOP) {
 			return this;
 		}
-		pauseLocation = clip.getFramePosition();
-		clip.stop();
+		pauseLocation = player.stop();
 		soundStatus = State.PAUSING;
 		return this;
 	}
@@ -178,12 +162,36 @@ public final class Sound extends FileObject
 		if (soundStatus == State.LOADED_STOP) {
 			return this;
 		}
-		clip.stop();
+		player.stop();
 		pauseLocation = -1;
 		soundStatus = State.LOADED_STOP;
 		return this;
 	}
 
+	/**
+	 * 効果音を発音します.<br>
+	 * ミキシングモードでロードされた効果音は、再生中の同じ音を止めずに新しいボイスで重ねて鳴らします。
+	 * それ以外のサウンドではstopAndPlayと同じです。<br>
+	 *
+	 * @param gain このボイスだけの音量。MasterGainと乗算されます。<br>
+	 * @param priority ボイスが足りない場合、これ以下の優先度のボイスを奪います。<br>
+	 * @return this.<br>
+	 */
+	public Sound fire(float gain, int priority) {
+		if (!isLoaded()) {
+			throw new IllegalStateException("sound " + this.getId() + " is not yet loaded");
+		}
+		if (player instanceof MixerPlayer p) {
+			p.fire(gain, priority);
+			return this;
+		}
+		return stopAndPlay();
+	}
+
+	public Sound fire() {
+		return fire(1f, 0);
+	}
+
 	public Sound stopAndPlay() {
 		stop();
 		play();
@@ -223,12 +231,7 @@ public final class Sound extends FileObject
 		if (!isLoaded()) {
 			return this;
 		}
-		try {
-			float val = this.masterGain.value();
-			((FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN)).setValue((float) Math.log10(val) * 20);
-		} catch (IllegalArgumentException e) {
-			GameLog.print("! > Sound : [" + getId() + "] : unsupported control[master gain]");
-		}
+		player.setGain(this.masterGain.value());
 		return this;
 	}
 
@@ -263,10 +266,34 @@ public final class Sound extends FileObject
 		return this;
 	}
 
+	/**
+	 * Clipを返します.
+	 *
+	 * @return ストリーミング再生のサウンドではnull.<br>
+	 */
 	@Deprecated
 	@NotNewInstance
+	@Nullable
 	public Clip getClip() {
-		return clip;
+		return player instanceof ClipPlayer c ? c.getClip() : null;
+	}
+
+	/**
+	 * このサウンドがストリーミング再生されるかを返します.
+	 *
+	 * @return ロード済みでSourceDataLineに逐次送る場合true.<br>
+	 */
+	public boolean isStreaming() {
+		return player instanceof StreamingPlayer;
+	}
+
+	/**
+	 * このサウンドがSoundMixerで鳴らされるかを返します.
+	 *
+	 * @return ロード済みでミキサーのボイスを使用する場合true.<br>
+	 */
+	public boolean isMixing() {
+		return player instanceof MixerPlayer;
 	}
 
 	public Type getType() {
@@ -280,10 +307,10 @@ public final class Sound extends FileObject
 
 	//-------------------------------------
 	//-------------------------------------------------------------------------
-	private boolean loaded = false;
+	private volatile boolean loaded = false;
 
 	@Override
-	public Sound load() throws FileIOException {
+	public synchronized Sound load() throws FileIOException {
 		if (isLoaded()) {
 			return this;
 		}
@@ -292,32 +319,36 @@ public final class Sound extends FileObject
 		//ID3タグ
 		setTagData();
 		try (AudioInputStream stream = AudioSystem.getAudioInputStream(getFile())) {
-			DataLine.Info dInfo = new DataLine.Info(Clip.class, stream.getFormat());
-			clip = (Clip) AudioSystem.getLine(dInfo);
-			clip.open(stream);
-			setMasterGainNow();
-			if (loopPoint != null) {
-				clip.setLoopPoints(loopPoint.getTo().VALUE, loopPoint.getFrom().VALUE);
+			AudioFormat format = stream.getFormat();
+			float sec = stream.getFrameLength() == AudioSystem.NOT_SPECIFIED || format.getFrameRate() <= 0
+					? Float.MAX_VALUE
+					: stream.getFrameLength() / format.getFrameRate();
+			if (SoundSystem.isMixingTarget(this)) {
+				player = new MixerPlayer(SoundSystem.getInstance().getMixer(), stream);
+			} else if (SoundSystem.isStreamingTarget(this, sec)) {
+				player = new StreamingPlayer(getId(), getFile(), format);
+			} else {
+				player = new ClipPlayer(getId(), stream);
 			}
+			loaded = true;
+			setMasterGainNow();
 		} catch (UnsupportedAudioFileException | LineUnavailableException | IOException ex) {
 			throw new FileIOException(ex);
 		}
 		watch.stop();
 		soundStatus = State.LOADED_STOP;
-		GameLog.print("Sound is loaded id=[" + getId() + "](" + watch.getTime() + " ms)");
-		loaded = true;
+		GameLog.print("Sound is loaded id=[" + getId() + "](" + watch.getTime() + " ms)" + (isStreaming() ? " : streaming" : isMixing() ? " : mixing" : ""));
 		return this;
 	}
 
 	@Override
-	public void free() {
+	public synchronized void free() {
 		if (!isLoaded()) {
 			return;
 		}
 		stop();
-		clip.flush();
-		clip.close();
-		clip = null;
+		player.close();
+		player = null;
 		soundStatus = State.NOT_YET_LOADED;
 		tags = null;
 		setTag = false;
@@ -352,7 +383,7 @@ public final class Sound extends FileObject
 	}
 
 	@Nullable
-	public SoundTagData getTags() {
+	public synchronized SoundTagData getTags() {
 		if (this.tags == null) {
 			try {
 				this.tags = SoundTagSystem.getTags(getFile());
@@ -376,7 +407,7 @@ public final class Sound extends FileObject
 
 	private boolean setTag = false;
 
-	public void setTagData() {
+	public synchronized void setTagData() {
 		if (setTag) {
 			return;
 		}
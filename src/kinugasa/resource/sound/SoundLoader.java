@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.resource.sound;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import kinugasa.game.GameLog;
+import kinugasa.resource.sound.tags.SoundTagSystem;
+import kinugasa.system.GameSystem;
+
+/**
+ * サウンドのタグ読み込みとデコードをワーカースレッドで行います.<br>
+ * 同じサウンドへの要求は1つのロードにまとめられます。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_17:40:26<br>
+ * @author Shinacho.<br>
+ */
+final class SoundLoader {
+
+	private static int workerNum = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+	private static ExecutorService pool;
+	private static final Map<Sound, CompletableFuture<Sound>> LOADING = new ConcurrentHashMap<>();
+
+	private SoundLoader() {
+	}
+
+	static int getWorkerNum() {
+		return workerNum;
+	}
+
+	static void setWorkerNum(int workerNum) {
+		if (workerNum <= 0) {
+			throw new IllegalArgumentException("SoundLoader : workerNum is 0 or minus : " + workerNum);
+		}
+		SoundLoader.workerNum = workerNum;
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if (pool == null) {
+			AtomicInteger n = new AtomicInteger();
+			pool = Executors.newFixedThreadPool(workerNum, r -> {
+				Thread t = new Thread(r, "SoundLoader-" + n.incrementAndGet());
+				t.setDaemon(true);
+				t.setPriority(Thread.NORM_PRIORITY - 1);
+				return t;
+			});
+		}
+		return pool;
+	}
+
+	/**
+	 * ヘッダとタグだけを並行に読み込みます. デコードは行いません.<br>
+	 * 全ての読み込みが終わった後、タグの索引ファイルをまとめて書き込みます。<br>
+	 *
+	 * @param sounds 対象のサウンド.<br>
+	 * @return 全ての読み込みが終わると完了します。<br>
+	 */
+	static CompletableFuture<Void> readTags(Collection<Sound> sounds) {
+		List<CompletableFuture<Void>> list = new ArrayList<>(sounds.size());
+		for (Sound s : sounds) {
+			list.add(CompletableFuture.runAsync(s::setTagData, getPool()));
+		}
+		return CompletableFuture.allOf(list.toArray(CompletableFuture[]::new))
+				.whenComplete((r, e) -> SoundTagSystem.flushIndex());
+	}
+
+	/**
+	 * サウンドをワーカースレッドでロードします.
+	 *
+	 * @param s ロードするサウンド.<br>
+	 * @return ロードが終わると完了します。ロード済みの場合は完了しています。<br>
+	 */
+	static CompletableFuture<Sound> load(Sound s) {
+		if (s.isLoaded()) {
+			return CompletableFuture.completedFuture(s);
+		}
+		CompletableFuture<Sound> f = LOADING.computeIfAbsent(s, k -> CompletableFuture.supplyAsync(() -> {
+			try {
+				return k.load();
+			} catch (RuntimeException e) {
+				if (GameSystem.isDebugMode()) {
+					GameLog.print("! > SoundLoader : [" + k.getId() + "] : " + e);
+				}
+				throw e;
+			}
+		}, getPool()));
+		//マップの更新中に完了しても良いように、登録後に取り除く
+		f.whenComplete((r, e) -> LOADING.remove(s, f));
+		return f;
+	}
+
+}
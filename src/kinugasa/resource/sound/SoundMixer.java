@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.resource.sound;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import kinugasa.game.GameLog;
+import kinugasa.game.annotation.Nullable;
+
+/**
+ * 効果音を1本の出力ラインにまとめて鳴らすソフトウェアミキサーです.<br>
+ * デコード済みのPCMはサウンドごとに1つだけ保持し、固定数のボイスが同時に参照します。
+ * 発音要求はロックフリーのキューに積まれ、ミキサースレッドがボイスに割り当てます。<br>
+ * ボイスが足りない場合は、優先度の低い順、同じ優先度では古い順にボイスを奪います。
+ * また、同じサウンドが同時に鳴るボイス数には上限があります。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_17:02:11<br>
+ * @author Shinacho.<br>
+ */
+final class SoundMixer {
+
+	static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+	private static final int CHANNELS = 2;
+	private static final int BLOCK_FRAMES = 441;
+	private static final int LINE_BUFFER_FRAMES = BLOCK_FRAMES * 4;
+
+	private static final class Voice {
+
+		MixerPlayer player;
+		float gain;
+		int priority;
+		long seq;
+		int pos;
+		int loopStart, loopEnd;
+		boolean loop;
+
+		boolean isActive() {
+			return player != null;
+		}
+	}
+
+	private static final class Command {
+
+		final MixerPlayer player;
+		final boolean stop;
+		final float gain;
+		final int priority;
+		final int frame;
+		final LoopPoint loop;
+
+		Command(MixerPlayer player, boolean stop, float gain, int priority, int frame, LoopPoint loop) {
+			this.player = player;
+			this.stop = stop;
+			this.gain = gain;
+			this.priority = priority;
+			this.frame = frame;
+			this.loop = loop;
+		}
+	}
+
+	private final Voice[] voices;
+	private final int voicesPerSound;
+	private final ConcurrentLinkedQueue<Command> commands = new ConcurrentLinkedQueue<>();
+	private final SourceDataLine line;
+	private final Thread thread;
+	private volatile boolean running = true;
+	private long seq;
+
+	SoundMixer(int voiceNum, int voicesPerSound) throws LineUnavailableException {
+		this.voices = new Voice[voiceNum];
+		for (int i = 0; i < voiceNum; i++) {
+			voices[i] = new Voice();
+		}
+		this.voicesPerSound = voicesPerSound;
+		this.line = (SourceDataLine) AudioSystem.getLine(new DataLine.Info(SourceDataLine.class, FORMAT));
+		line.open(FORMAT, LINE_BUFFER_FRAMES * FORMAT.getFrameSize());
+		line.start();
+		this.thread = new Thread(this::run, "kinugasa-se-mixer");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MAX_PRIORITY);
+		thread.start();
+		GameLog.print("SoundMixer is started : voices=" + voiceNum + ", perSound=" + voicesPerSound);
+	}
+
+	/**
+	 * ストリームを全てミキサーの形式（44.1kHz、16bit、ステレオ）にデコードします.
+	 *
+	 * @param stream 読み込むストリーム.<br>
+	 * @return インターリーブされたステレオのPCM.<br>
+	 * @throws IOException 読み込みに失敗した場合.<br>
+	 */
+	static short[] decode(AudioInputStream stream) throws IOException {
+		AudioFormat src = stream.getFormat();
+		AudioFormat pcm = new AudioFormat(src.getSampleRate(), 16, src.getChannels(), true, false);
+		AudioInputStream in = src.matches(pcm) ? stream : AudioSystem.getAudioInputStream(pcm, stream);
+		byte[] b = in.readAllBytes();
+		int ch = pcm.getChannels();
+		int srcFrames = b.length / (2 * ch);
+		double step = pcm.getSampleRate() / FORMAT.getSampleRate();
+		int dstFrames = (int) (srcFrames / step);
+		short[] res = new short[dstFrames * CHANNELS];
+		for (int i = 0; i < dstFrames; i++) {
+			double p = i * step;
+			int f0 = (int) p;
+			int f1 = Math.min(f0 + 1, srcFrames - 1);
+			double t = p - f0;
+			for (int c = 0; c < CHANNELS; c++) {
+				int sc = Math.min(c, ch - 1);
+				int s0 = sampleOf(b, f0 * ch + sc);
+				int s1 = sampleOf(b, f1 * ch + sc);
+				res[i * CHANNELS + c] = (short) (s0 + (s1 - s0) * t);
+			}
+		}
+		return res;
+	}
+
+	private static int sampleOf(byte[] b, int i) {
+		return (b[i * 2 + 1] << 8) | (b[i * 2] & 0xFF);
+	}
+
+	/**
+	 * ミキサーの形式でのフレーム数に換算します.
+	 */
+	static int toMixerFrame(int frame, float srcRate) {
+		if (frame < 0) {
+			return frame;
+		}
+		return (int) ((long) frame * (long) FORMAT.getSampleRate() / (long) srcRate);
+	}
+
+	void fire(MixerPlayer p, float gain, int priority, int frame, @Nullable LoopPoint loop) {
+		commands.offer(new Command(p, false, gain, priority, frame, loop));
+	}
+
+	void stop(MixerPlayer p) {
+		commands.offer(new Command(p, true, 0, 0, 0, null));
+	}
+
+	void close() {
+		running = false;
+		line.stop();
+		line.flush();
+		try {
+			thread.join(1000);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		line.close();
+		GameLog.print("SoundMixer is closed");
+	}
+
+	private void run() {
+		int[] acc = new int[BLOCK_FRAMES * CHANNELS];
+		byte[] out = new byte[BLOCK_FRAMES * FORMAT.getFrameSize()];
+		while (running) {
+			Command c;
+			while ((c = commands.poll()) != null) {
+				if (c.stop) {
+					for (Voice v : voices) {
+						if (v.player == c.player) {
+							v.player = null;
+						}
+					}
+				} else {
+					assign(c);
+				}
+			}
+			Arrays.fill(acc, 0);
+			for (Voice v : voices) {
+				if (v.isActive()) {
+					mix(v, acc);
+				}
+			}
+			for (int i = 0; i < acc.length; i++) {
+				int s = acc[i];
+				if (s > Short.MAX_VALUE) {
+					s = Short.MAX_VALUE;
+				} else if (s < Short.MIN_VALUE) {
+					s = Short.MIN_VALUE;
+				}
+				out[i * 2] = (byte) s;
+				out[i * 2 + 1] = (byte) (s >> 8);
+			}
+			line.write(out, 0, out.length);
+		}
+	}
+
+	private void assign(Command c) {
+		Voice target = null;
+		int same = 0;
+		Voice oldestSame = null;
+		Voice free = null;
+		Voice weakest = null;
+		for (Voice v : voices) {
+			if (!v.isActive()) {
+				if (free == null) {
+					free = v;
+				}
+				continue;
+			}
+			if (v.player == c.player) {
+				same++;
+				if (oldestSame == null || v.seq < oldestSame.seq) {
+					oldestSame = v;
+				}
+			}
+			if (weakest == null || v.priority < weakest.priority
+					|| (v.priority == weakest.priority && v.seq < weakest.seq)) {
+				weakest = v;
+			}
+		}
+		if (same >= voicesPerSound) {
+			target = oldestSame;
+		} else if (free != null) {
+			target = free;
+		} else if (weakest != null && weakest.priority <= c.priority) {
+			target = weakest;
+		}
+		if (target == null) {
+			return;
+		}
+		int len = c.player.getFrameLength();
+		target.player = c.player;
+		target.gain = c.gain;
+		target.priority = c.priority;
+		target.seq = seq++;
+		target.pos = Math.max(0, Math.min(c.frame, len));
+		target.loop = c.loop != null;
+		if (target.loop) {
+			target.loopStart = Math.max(0, Math.min(c.player.toMixerFrame(c.loop.getTo().VALUE), len));
+			int end = c.player.toMixerFrame(c.loop.getFrom().VALUE);
+			target.loopEnd = end < 0 || end > len ? len : end;
+			if (target.loopEnd <= target.loopStart) {
+				target.loop = false;
+			}
+		}
+	}
+
+	private void mix(Voice v, int[] acc) {
+		short[] pcm = v.player.getPCM();
+		float g = v.gain * v.player.getGain();
+		int end = v.loop ? v.loopEnd : pcm.length / CHANNELS;
+		int i = 0;
+		while (i < BLOCK_FRAMES) {
+			if (v.pos >= end) {
+				if (!v.loop) {
+					v.player = null;
+					return;
+				}
+				v.pos = v.loopStart;
+			}
+			int n = Math.min(BLOCK_FRAMES - i, end - v.pos);
+			int a = i * CHANNELS;
+			int p = v.pos * CHANNELS;
+			for (int k = 0; k < n * CHANNELS; k++) {
+				acc[a + k] += (int) (pcm[p + k] * g);
+			}
+			i += n;
+			v.pos += n;
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.resource.sound;
+
+import kinugasa.game.annotation.Nullable;
+
+/**
+ * Soundの再生を行う出力の実装です.<br>
+ * 短いサウンドはClipに全体をデコードして保持し、長いBGMはSourceDataLineにストリーミングします。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_16:20:44<br>
+ * @author Shinacho.<br>
+ */
+interface SoundPlayer {
+
+	/**
+	 * 指定のフレームから再生を開始します.
+	 *
+	 * @param frame 開始フレーム.<br>
+	 * @param loop nullでない場合、このループポイントでループ再生します。<br>
+	 */
+	void start(int frame, @Nullable LoopPoint loop);
+
+	/**
+	 * 再生を停止します.
+	 *
+	 * @return 停止した時点のフレーム位置.<br>
+	 */
+	int stop();
+
+	/**
+	 * 音量を設定します.
+	 *
+	 * @param gain 1が元の音量.<br>
+	 */
+	void setGain(float gain);
+
+	void close();
+}
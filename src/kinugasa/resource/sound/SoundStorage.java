@@ -24,6 +24,9 @@
 package kinugasa.resource.sound;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import kinugasa.resource.Storage;
 import kinugasa.resource.text.FileFormatException;
 
@@ -41,15 +44,31 @@ public class SoundStorage extends Storage<Sound> {
 		return INSTANCE;
 	}
 
-	void init(File dir) throws FileFormatException {
+	/**
+	 * ディレクトリを走査してサウンドを登録します.<br>
+	 * 登録はこのメソッドの中で終わりますが、タグの読み込みはワーカースレッドで並行に行われます。
+	 * デコードは行われません。<br>
+	 *
+	 * @param dir ルートディレクトリ.<br>
+	 * @return タグの読み込みが全て終わると完了します。<br>
+	 */
+	CompletableFuture<Void> init(File dir) throws FileFormatException {
+		List<Sound> added = new ArrayList<>();
+		scan(dir, added);
+		return SoundLoader.readTags(added);
+	}
+
+	private void scan(File dir, List<Sound> added) {
 		for (var v : dir.listFiles()) {
 			if (v.isDirectory()) {
-				init(v);
+				scan(v, added);
 			}
 			if (!v.getName().toLowerCase().endsWith(".wav")) {
 				continue;
 			}
-			add(new Sound(v));
+			Sound s = new Sound(v);
+			add(s);
+			added.add(s);
 		}
 	}
 
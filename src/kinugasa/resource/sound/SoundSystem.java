@@ -17,12 +17,25 @@
 package kinugasa.resource.sound;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
+import javax.sound.sampled.LineUnavailableException;
 import kinugasa.game.annotation.Singleton;
 import kinugasa.object.Updateable;
+import kinugasa.game.GameLog;
+import kinugasa.resource.FileIOException;
+import kinugasa.system.GameSystem;
 
 /**
  * BGMSystem.<br>
@@ -44,15 +57,178 @@ public class SoundSystem implements Updateable<SoundSystem.Mode>, Iterable<Sound
 		STOP,;
 	}
 	private static final SoundSystem INSTANCE = new SoundSystem();
+	private static float streamingThresholdSec = 20f;
+	private static boolean mixingMode = false;
+	private static int mixerVoices = 16;
+	private static int mixerVoicesPerSound = 4;
+	private static int crossFadeFrame = 0;
 
-	public void init(File root) {
+	/**
+	 * この秒数以上のBGMはClipにデコードせず、ストリーミング再生します.
+	 *
+	 * @param sec 秒数。負数の場合はストリーミングを使用しません。<br>
+	 */
+	public static void setStreamingThresholdSec(float sec) {
+		streamingThresholdSec = sec;
+	}
+
+	public static float getStreamingThresholdSec() {
+		return streamingThresholdSec;
+	}
+
+	/**
+	 * ミキシングモードを設定します.<br>
+	 * 有効な場合、以降にロードされる効果音はClipを持たず、SoundMixerの共有ボイスで鳴らします。
+	 * ロード済みの効果音には影響しません。<br>
+	 *
+	 * @param mixingMode 効果音をミキサーで鳴らす場合true.<br>
+	 */
+	public static void setMixingMode(boolean mixingMode) {
+		SoundSystem.mixingMode = mixingMode;
+	}
+
+	public static boolean isMixingMode() {
+		return mixingMode;
+	}
+
+	/**
+	 * ミキサーのボイス数を設定します. ミキサーの起動前に設定する必要があります.<br>
+	 *
+	 * @param voices 全体のボイス数.<br>
+	 * @param perSound 同じサウンドが同時に使用できるボイス数.<br>
+	 */
+	public static void setMixerVoices(int voices, int perSound) {
+		if (voices <= 0 || perSound <= 0) {
+			throw new IllegalArgumentException("mixer voices must be positive : " + voices + " / " + perSound);
+		}
+		mixerVoices = voices;
+		mixerVoicesPerSound = perSound;
+	}
+
+	public static int getMixerVoices() {
+		return mixerVoices;
+	}
+
+	public static int getMixerVoicesPerSound() {
+		return mixerVoicesPerSound;
+	}
+
+	/**
+	 * toNextで曲を切り替えるときのクロスフェードのフレーム数を設定します.
+	 *
+	 * @param frame 0の場合、前の曲を即座に止めます。<br>
+	 */
+	public static void setCrossFadeFrame(int frame) {
+		if (frame < 0) {
+			throw new IllegalArgumentException("cross fade frame is minus : " + frame);
+		}
+		crossFadeFrame = frame;
+	}
+
+	public static int getCrossFadeFrame() {
+		return crossFadeFrame;
+	}
+
+	/**
+	 * サウンドのロードを行うスレッド数を設定します. 最初のロードより前に設定してください.<br>
+	 *
+	 * @param n スレッド数.<br>
+	 */
+	public static void setLoaderWorkerNum(int n) {
+		SoundLoader.setWorkerNum(n);
+	}
+
+	public static int getLoaderWorkerNum() {
+		return SoundLoader.getWorkerNum();
+	}
+
+	static boolean isMixingTarget(Sound s) {
+		return mixingMode && s.getType() != Sound.Type.BGM;
+	}
+
+	/**
+	 * サウンドをストリーミング再生するかを判定します.
+	 * 短い効果音は即座に鳴らせるようにClip、長いBGMはSourceDataLineを使用します。<br>
+	 *
+	 * @param s 判定するサウンド.<br>
+	 * @param lengthSec サウンドの長さ。不明な場合はFloat.MAX_VALUE.<br>
+	 * @return ストリーミングする場合true.<br>
+	 */
+	static boolean isStreamingTarget(Sound s, float lengthSec) {
+		return s.getType() == Sound.Type.BGM && streamingThresholdSec >= 0 && lengthSec >= streamingThresholdSec;
+	}
+
+	/**
+	 * サウンドのルートディレクトリを走査します.<br>
+	 * このメソッドが戻った時点でofによる取得はできますが、タグはワーカースレッドで読み込まれます。
+	 * サウンドのデコードはload、loadAsync、preloadが呼ばれるまで行われません。<br>
+	 *
+	 * @param root ルートディレクトリ.<br>
+	 * @return タグの読み込みが全て終わると完了します。<br>
+	 */
+	public CompletableFuture<Void> init(File root) {
 		if (!root.exists()) {
 			throw new IllegalArgumentException("sound root is not found : " + root);
 		}
 		if (!root.isDirectory()) {
 			throw new IllegalArgumentException("sound root is not directory : " + root);
 		}
-		SoundStorage.getInstance().init(root);
+		return SoundStorage.getInstance().init(root);
+	}
+
+	/**
+	 * サウンドをワーカースレッドでロードします.
+	 *
+	 * @param s ロードするサウンド.<br>
+	 * @return ロードが終わると完了します。<br>
+	 */
+	public CompletableFuture<Sound> loadAsync(Sound s) {
+		return SoundLoader.load(s);
+	}
+
+	public CompletableFuture<Sound> loadAsync(String id) {
+		return loadAsync(of(id));
+	}
+
+	/**
+	 * 指定のサウンドをワーカースレッドでロードします. 存在しないIDは無視されます.<br>
+	 *
+	 * @param ids サウンドのIDのリスト.<br>
+	 * @return 全てのロードが終わると完了します。<br>
+	 */
+	public CompletableFuture<Void> preload(Collection<String> ids) {
+		List<CompletableFuture<Sound>> list = new ArrayList<>();
+		for (String id : ids) {
+			if (SoundStorage.getInstance().contains(id)) {
+				list.add(loadAsync(id));
+			} else if (GameSystem.isDebugMode()) {
+				GameLog.print("! > SoundSystem : preload : not found : " + id);
+			}
+		}
+		return CompletableFuture.allOf(list.toArray(CompletableFuture[]::new));
+	}
+
+	/**
+	 * マニフェストに書かれたサウンドをワーカースレッドでロードします.<br>
+	 * マニフェストは1行に1つのサウンドIDを書いたテキストファイルです。空行と#から始まる行は無視されます。<br>
+	 *
+	 * @param manifest マニフェストファイル.<br>
+	 * @return 全てのロードが終わると完了します。<br>
+	 * @throws FileIOException ファイルが読めない場合.<br>
+	 */
+	public CompletableFuture<Void> preload(File manifest) throws FileIOException {
+		List<String> ids = new ArrayList<>();
+		try {
+			for (String l : Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8)) {
+				l = l.trim();
+				if (!l.isEmpty() && !l.startsWith("#")) {
+					ids.add(l);
+				}
+			}
+		} catch (IOException ex) {
+			throw new FileIOException(ex);
+		}
+		return preload(ids);
 	}
 
 	public Sound of(String id) {
@@ -69,6 +245,38 @@ public class SoundSystem implements Updateable<SoundSystem.Mode>, Iterable<Sound
 
 	public void free() {
 		SoundStorage.getInstance().forEach(p -> p.stop().free());
+		fadingOut.clear();
+		originalGain.clear();
+		nextLoading = null;
+		fadeInFrame = -1;
+		if (mixer != null) {
+			mixer.close();
+			mixer = null;
+		}
+	}
+
+	private SoundMixer mixer;
+
+	synchronized SoundMixer getMixer() {
+		if (mixer == null) {
+			try {
+				mixer = new SoundMixer(mixerVoices, mixerVoicesPerSound);
+			} catch (LineUnavailableException ex) {
+				throw new FileIOException(ex);
+			}
+		}
+		return mixer;
+	}
+
+	/**
+	 * 効果音を発音します. ロードされていない場合はロードします.<br>
+	 *
+	 * @param id サウンドのID.<br>
+	 * @return 発音したサウンド.<br>
+	 * @see Sound#fire()
+	 */
+	public Sound fire(String id) {
+		return of(id).load().fire();
 	}
 
 	private Sound current, next;
@@ -91,14 +299,73 @@ public class SoundSystem implements Updateable<SoundSystem.Mode>, Iterable<Sound
 		return next;
 	}
 
+	//ワーカーでロード中の次の曲
+	private CompletableFuture<Sound> nextLoading;
+	//クロスフェードで止めている曲
+	private final Set<Sound> fadingOut = new HashSet<>();
+	//クロスフェードに入る前の音量。途中の音量から再度フェードしても、この値に戻す
+	private final Map<Sound, MasterGain> originalGain = new HashMap<>();
+	private float fadeInTarget;
+	private int fadeInFrame = -1;
+
+	/**
+	 * 次の曲に切り替えます.<br>
+	 * 次の曲がロードされていない場合はワーカースレッドでロードを始め、終わるまで現在の曲を鳴らし続けます。
+	 * クロスフェードのフレーム数が設定されている場合、現在の曲をフェードアウトさせながら次の曲をフェードインします。<br>
+	 */
 	public void toNext() {
-		if (current != null) {
-			current.stop().free();
+		if (next == null) {
+			if (current != null) {
+				current.stop().free();
+			}
+			return;
 		}
-		if (next != null) {
-			current = next;
-			current.load().play();
+		if (!next.isLoaded()) {
+			nextLoading = loadAsync(next);
+			return;
+		}
+		nextLoading = null;
+		switchToNext();
+	}
+
+	private void switchToNext() {
+		if (current == next) {
 			next = null;
+			current.play();
+			return;
+		}
+		boolean fade = crossFadeFrame > 0 && current != null && current.getSoundStatus() == Sound.State.PLAYING;
+		if (fade) {
+			originalGain.putIfAbsent(current, current.getMasterGain());
+			current.setFadeOutNow(crossFadeFrame);
+			fadingOut.add(current);
+		} else if (current != null) {
+			current.stop().free();
+			restoreGain(current);
+		}
+		//フェードアウト中の曲を再度選んだ場合は、フェードアウトをやめる
+		if (fadingOut.remove(next)) {
+			next.setFadeOutNow(null);
+		}
+		current = next;
+		next = null;
+		fadeInFrame = -1;
+		if (fade) {
+			originalGain.putIfAbsent(current, current.getMasterGain());
+			fadeInTarget = originalGain.get(current).value();
+			fadeInFrame = 0;
+			current.setMasterGain(new MasterGain(0f)).setMasterGainNow();
+		} else {
+			restoreGain(current);
+		}
+		current.play();
+	}
+
+	//クロスフェード前の音量に戻す
+	private void restoreGain(Sound s) {
+		MasterGain g = originalGain.remove(s);
+		if (g != null) {
+			s.setMasterGain(g).setMasterGainNow();
 		}
 	}
 
@@ -123,6 +390,41 @@ public class SoundSystem implements Updateable<SoundSystem.Mode>, Iterable<Sound
 		}
 		autoCloseSound.removeAll(remove);
 
+		//次の曲のロード待ち
+		if (nextLoading != null && nextLoading.isDone()) {
+			CompletableFuture<Sound> f = nextLoading;
+			nextLoading = null;
+			if (f.isCompletedExceptionally()) {
+				GameLog.print("! > SoundSystem : next sound load failed : " + next);
+				next = null;
+			} else if (next != null && next.isLoaded()) {
+				switchToNext();
+			}
+		}
+
+		//クロスフェード
+		if (!fadingOut.isEmpty()) {
+			fadingOut.removeIf(p -> {
+				if (p.update() == Sound.State.LOADED_STOP) {
+					//フェードアウトで下げた音量を戻しておく
+					p.setFadeOutNow(null);
+					restoreGain(p);
+					p.free();
+					return true;
+				}
+				return false;
+			});
+		}
+		if (fadeInFrame >= 0 && current != null) {
+			fadeInFrame++;
+			float t = Math.min(1f, (float) fadeInFrame / crossFadeFrame);
+			current.setMasterGain(new MasterGain(fadeInTarget * t)).setMasterGainNow();
+			if (t >= 1f) {
+				fadeInFrame = -1;
+				restoreGain(current);
+			}
+		}
+
 		//カレントのフェード
 		if (current != null) {
 			if (current.update() == Sound.State.LOADED_STOP) {
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.resource.sound;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.FloatControl;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import kinugasa.game.GameLog;
+import kinugasa.game.annotation.Nullable;
+
+/**
+ * ファイルから少しずつデコードしてSourceDataLineに送る再生です.<br>
+ * PCM全体をヒープに持たないため、長いBGMに使用します。
+ * ラインのバッファがリングバッファとなり、専用スレッドが空いた分だけ書き込みます。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_16:24:02<br>
+ * @author Shinacho.<br>
+ */
+final class StreamingPlayer implements SoundPlayer {
+
+	private static final int LINE_BUFFER_MS = 250;
+	private static final int CHUNK_MS = 50;
+	private static final long PARK_NANOS = 2_000_000L;
+
+	private final String id;
+	private final File file;
+	private final AudioFormat format;
+	private final int frameSize;
+	private final SourceDataLine line;
+	private final byte[] chunk;
+	private final FloatControl gainControl;
+	private volatile float softGain = 1f;
+
+	private volatile Thread feeder;
+	private volatile boolean running;
+	//スレッドが最後に書き込んだフレーム位置と、その時点の書込み済みフレーム数
+	private volatile int writeFrame;
+	private volatile long writtenFrames;
+	private int stoppedFrame;
+
+	StreamingPlayer(String id, File file, AudioFormat srcFormat) throws LineUnavailableException {
+		this.id = id;
+		this.file = file;
+		this.format = pcmOf(srcFormat);
+		this.frameSize = format.getFrameSize();
+		int bufferBytes = align((int) (format.getFrameRate() * LINE_BUFFER_MS / 1000) * frameSize);
+		this.chunk = new byte[align((int) (format.getFrameRate() * CHUNK_MS / 1000) * frameSize)];
+		this.line = (SourceDataLine) AudioSystem.getLine(new DataLine.Info(SourceDataLine.class, format));
+		line.open(format, bufferBytes);
+		this.gainControl = line.isControlSupported(FloatControl.Type.MASTER_GAIN)
+				? (FloatControl) line.getControl(FloatControl.Type.MASTER_GAIN)
+				: null;
+	}
+
+	/**
+	 * Clipと同じく、PCM以外の形式は16bit符号付きPCMにデコードして送ります.
+	 */
+	static AudioFormat pcmOf(AudioFormat f) {
+		if (f.getEncoding() == AudioFormat.Encoding.PCM_SIGNED || f.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED) {
+			return f;
+		}
+		return new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, f.getSampleRate(), 16,
+				f.getChannels(), f.getChannels() * 2, f.getSampleRate(), false);
+	}
+
+	private int align(int bytes) {
+		return Math.max(frameSize, bytes - bytes % frameSize);
+	}
+
+	private AudioInputStream open(int frame) throws UnsupportedAudioFileException, IOException {
+		AudioInputStream src = AudioSystem.getAudioInputStream(file);
+		if (!src.getFormat().matches(format)) {
+			src = AudioSystem.getAudioInputStream(format, src);
+		}
+		long skip = (long) frame * frameSize;
+		while (skip > 0) {
+			long n = src.skip(skip);
+			if (n <= 0) {
+				break;
+			}
+			skip -= n;
+		}
+		return src;
+	}
+
+	@Override
+	public void start(int frame, @Nullable LoopPoint loop) {
+		stop();
+		line.flush();
+		writeFrame = stoppedFrame = frame;
+		writtenFrames = line.getLongFramePosition();
+		running = true;
+		Thread t = new Thread(() -> feed(frame, loop), "kinugasa-bgm-" + id);
+		t.setDaemon(true);
+		t.setPriority(Thread.MAX_PRIORITY);
+		feeder = t;
+		line.start();
+		t.start();
+	}
+
+	private void feed(int frame, @Nullable LoopPoint loop) {
+		int loopStart = loop == null ? 0 : Math.max(0, loop.getTo().VALUE);
+		int loopEnd = loop == null ? -1 : loop.getFrom().VALUE;
+		int pos = frame;
+		AudioInputStream in = null;
+		try {
+			in = open(pos);
+			while (running) {
+				int free = line.available();
+				if (free < frameSize) {
+					LockSupport.parkNanos(PARK_NANOS);
+					continue;
+				}
+				int len = Math.min(chunk.length, free - free % frameSize);
+				if (loopEnd > 0) {
+					len = (int) Math.min(len, (long) (loopEnd - pos) * frameSize);
+				}
+				int n = len <= 0 ? -1 : readFully(in, len);
+				if (n <= 0) {
+					if (loop == null) {
+						//Clipと同じく、末尾に達したら送信をやめる。送信済みの分はそのまま鳴る
+						break;
+					}
+					in.close();
+					pos = loopStart;
+					in = open(pos);
+					continue;
+				}
+				if (gainControl == null && softGain != 1f) {
+					applySoftGain(n);
+				}
+				line.write(chunk, 0, n);
+				pos += n / frameSize;
+				writeFrame = pos;
+				writtenFrames = line.getLongFramePosition() + (line.getBufferSize() - line.available()) / frameSize;
+			}
+		} catch (UnsupportedAudioFileException | IOException ex) {
+			GameLog.print("! > Sound : [" + id + "] : stream error " + ex);
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException ex) {
+				}
+			}
+		}
+	}
+
+	private int readFully(AudioInputStream in, int len) throws IOException {
+		int off = 0;
+		while (off < len) {
+			int n = in.read(chunk, off, len - off);
+			if (n < 0) {
+				break;
+			}
+			off += n;
+		}
+		return off - off % frameSize;
+	}
+
+	/**
+	 * MASTER_GAINを持たないライン用に16bitPCMの音量をソフトウェアで変更します.
+	 */
+	private void applySoftGain(int len) {
+		if (format.getSampleSizeInBits() != 16 || format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
+			return;
+		}
+		float g = softGain;
+		boolean big = format.isBigEndian();
+		for (int i = 0; i + 1 < len; i += 2) {
+			int hi = big ? chunk[i] : chunk[i + 1];
+			int lo = big ? chunk[i + 1] : chunk[i];
+			int v = (int) (((hi << 8) | (lo & 0xFF)) * g);
+			if (v > Short.MAX_VALUE) {
+				v = Short.MAX_VALUE;
+			} else if (v < Short.MIN_VALUE) {
+				v = Short.MIN_VALUE;
+			}
+			chunk[big ? i : i + 1] = (byte) (v >> 8);
+			chunk[big ? i + 1 : i] = (byte) v;
+		}
+	}
+
+	@Override
+	public int stop() {
+		Thread t = feeder;
+		if (t == null) {
+			return stoppedFrame;
+		}
+		running = false;
+		feeder = null;
+		line.stop();
+		try {
+			t.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		//まだ鳴っていないラインの残りを差し引いた位置が再開位置
+		long queued = Math.max(0, writtenFrames - line.getLongFramePosition());
+		line.flush();
+		return stoppedFrame = (int) Math.max(0, writeFrame - queued);
+	}
+
+	@Override
+	public void setGain(float gain) {
+		if (gainControl != null) {
+			float db = (float) Math.log10(gain) * 20;
+			gainControl.setValue(Math.max(gainControl.getMinimum(), Math.min(gainControl.getMaximum(), db)));
+		} else {
+			softGain = gain;
+		}
+	}
+
+	@Override
+	public void close() {
+		stop();
+		line.close();
+	}
+
+}
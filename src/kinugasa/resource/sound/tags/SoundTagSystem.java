@@ -16,16 +16,33 @@
  */
 package kinugasa.resource.sound.tags;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.InputStream;
-import java.io.RandomAccessFile;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import kinugasa.game.GameLog;
+import kinugasa.game.annotation.Nullable;
 
 /**
  * SoundTagSystem.<br>
+ * RIFFのチャンク表を長さフィールドで前方に辿り、タグの入った領域だけをヒープに読み込んでタグを読み取ります。<br>
+ * 読み取った結果は音声ファイルと同じディレクトリの索引ファイルに、ファイルサイズと更新日時をキーとして保存され、
+ * 変更されていないファイルは再度走査されません。索引ファイルはflushIndexを呼び出したときにまとめて書き込まれます。<br>
  *
  * @vesion 1.0.0 - 2025/08/24_0:39:35<br>
  * @author Shinacho.<br>
@@ -35,366 +52,479 @@ public final class SoundTagSystem {
 	private SoundTagSystem() {
 	}
 
+	/**
+	 * 索引ファイルの名前です. 音声ファイルのディレクトリごとに作成されます.<br>
+	 */
+	public static final String INDEX_FILE_NAME = "soundTags.idx";
+	private static final int INDEX_VERSION = 1;
+	private static boolean useIndex = true;
+	private static final Map<File, Index> INDEX = new HashMap<>();
+
+	public static boolean isUseIndex() {
+		return useIndex;
+	}
+
+	/**
+	 * 索引ファイルを使用するかを設定します. 使用しない場合も、実行中に走査した結果はメモリに保持されます.<br>
+	 *
+	 * @param useIndex 索引ファイルを読み書きする場合true。<br>
+	 */
+	public static void setUseIndex(boolean useIndex) {
+		SoundTagSystem.useIndex = useIndex;
+	}
+
+	/**
+	 * 走査によって追加された索引を、ディレクトリごとに1度だけ索引ファイルに書き込みます.<br>
+	 * 変更のない索引は書き込まれません。<br>
+	 */
+	public static void flushIndex() {
+		List<Index> list;
+		synchronized (INDEX) {
+			list = new ArrayList<>(INDEX.values());
+		}
+		for (var v : list) {
+			v.flush();
+		}
+	}
+
+	/**
+	 * メモリ上の索引を破棄します. 索引ファイルは削除されません.<br>
+	 * 書き込まれていない索引も破棄されます。<br>
+	 */
+	public static void clearIndex() {
+		synchronized (INDEX) {
+			INDEX.clear();
+		}
+	}
+
 	public static SoundTagData getTags(File f) throws SoundTagIOException, SoundTagNotFoundException {
 		if (!f.exists()) {
 			throw new SoundTagIOException(f + " is not found");
 		}
+		long size = f.length();
+		long lastModified = f.lastModified();
+		Index index = indexOf(f.getAbsoluteFile().getParentFile());
+		Scan s = index.get(f.getName(), size, lastModified);
+		if (s == null) {
+			try {
+				s = scan(f, size);
+			} catch (SoundTagNotFoundException ex) {
+				s = Scan.notFound(ex.getMessage());
+			}
+			index.put(f.getName(), size, lastModified, s);
+		}
+		if (s.notFound != null) {
+			throw new SoundTagNotFoundException(s.notFound);
+		}
+		return s.toTagData();
+	}
+
+	private static Index indexOf(File dir) {
+		synchronized (INDEX) {
+			return INDEX.computeIfAbsent(dir, Index::new);
+		}
+	}
 
-		//--------------------------------v1 tags----------------------------------------
-		String title, artist, album, comment;
-		title = artist = album = comment = null;
-		Year year = null;
-		int trackNo = 0;
-		L1:
-		try (InputStream is = new FileInputStream(f)) {
-			//v1は末尾128バイトに入ってる。
-			is.skipNBytes(Files.size(f.toPath()) - 128);
-
-			//TAG
-			{
-				String tag = SoundTagUtil.toString(is.readNBytes(3));
-				if (!"TAG".equals(tag)) {
-					//v1タグなし
-					break L1;
+	//--------------------------------走査結果----------------------------------------
+	/**
+	 * 1ファイル分の走査結果です. タグのフレームは未解釈のバイト列のまま保持され、toTagDataで解釈されます.<br>
+	 */
+	private static final class Scan {
+
+		private String notFound;
+		//tagSizeが0のID3はv1も含めて空になる
+		private boolean empty;
+		private SoundTagData.V1Tags v1;
+		private final List<Frame> frames = new ArrayList<>();
+
+		static Scan notFound(String msg) {
+			Scan s = new Scan();
+			s.notFound = msg == null ? "tag not found" : msg;
+			return s;
+		}
+
+		SoundTagData toTagData() {
+			if (empty) {
+				return new SoundTagData();
+			}
+			SoundTagData r = new SoundTagData(v1 == null ? new SoundTagData.V1Tags(null, null, null, null, null, 0) : v1);
+			for (var v : frames) {
+				if (v.riff) {
+					RIFFTagKeys.valueOf(v.key).set(r, v.data);
+					continue;
+				}
+				try {
+					ID3V23TagKeys.valueOf(v.key).set(r, v.data);
+				} catch (IllegalArgumentException e) {
+					//解釈できないフレーム以降は読まない
+					break;
 				}
 			}
-			//title
-			{
-				title = SoundTagUtil.toString(is.readNBytes(30));
+			return r;
+		}
+
+		void write(DataOutputStream os) throws IOException {
+			writeNullable(os, notFound);
+			os.writeBoolean(empty);
+			os.writeBoolean(v1 != null);
+			if (v1 != null) {
+				writeNullable(os, v1.title);
+				writeNullable(os, v1.artist);
+				writeNullable(os, v1.album);
+				os.writeInt(v1.year == null ? Integer.MIN_VALUE : v1.year.getValue());
+				writeNullable(os, v1.comment);
+				os.writeInt(v1.trackNo);
 			}
-			//artist
-			{
-				artist = SoundTagUtil.toString(is.readNBytes(30));
+			os.writeInt(frames.size());
+			for (var v : frames) {
+				os.writeBoolean(v.riff);
+				os.writeUTF(v.key);
+				os.writeInt(v.data.length);
+				os.write(v.data);
 			}
-			//album
-			{
-				album = SoundTagUtil.toString(is.readNBytes(30));
+		}
+
+		static Scan read(DataInputStream is) throws IOException {
+			Scan s = new Scan();
+			s.notFound = readNullable(is);
+			s.empty = is.readBoolean();
+			if (is.readBoolean()) {
+				String title = readNullable(is);
+				String artist = readNullable(is);
+				String album = readNullable(is);
+				int year = is.readInt();
+				String comment = readNullable(is);
+				int trackNo = is.readInt();
+				s.v1 = new SoundTagData.V1Tags(title, artist, album,
+						year == Integer.MIN_VALUE ? null : Year.of(year), comment, trackNo);
 			}
-			//year
-			{
-				try {
-					year = Year.of(Integer.parseInt(SoundTagUtil.toString(is.readNBytes(4))));
-				} catch (NumberFormatException e) {
-					//ignore
-				}
+			int n = is.readInt();
+			for (int i = 0; i < n; i++) {
+				boolean riff = is.readBoolean();
+				String key = is.readUTF();
+				byte[] data = new byte[is.readInt()];
+				is.readFully(data);
+				s.frames.add(new Frame(riff, key, data));
 			}
-			//comment
-			{
-				byte[] data = is.readNBytes(30);
-
-				//v1.1のトラック番号判定
-				if (data[28] == 0x00 && data[29] != 0x00) {
-					//v1.1
-					byte[] data2 = new byte[28];
-					System.arraycopy(data, 0, data2, 0, 28);
-					comment = SoundTagUtil.toString(data2);
-					trackNo = (int) data[29];
-				} else {
-					comment = SoundTagUtil.toString(data);
-				}
+			return s;
+		}
+
+		private static void writeNullable(DataOutputStream os, String s) throws IOException {
+			os.writeBoolean(s != null);
+			if (s != null) {
+				os.writeUTF(s);
 			}
+		}
+
+		@Nullable
+		private static String readNullable(DataInputStream is) throws IOException {
+			return is.readBoolean() ? is.readUTF() : null;
+		}
+	}
+
+	private record Frame(boolean riff, String key, byte[] data) {
+
+	}
+
+	//--------------------------------索引----------------------------------------
+	/**
+	 * ディレクトリごとの索引です. 最初に参照されたときに索引ファイルから読み込まれます.<br>
+	 */
+	private static final class Index {
+
+		private record Entry(long size, long lastModified, Scan scan) {
 
-		} catch (Exception e) {
-			throw new SoundTagIOException(e);
 		}
-		SoundTagData r = new SoundTagData(new SoundTagData.V1Tags(title, artist, album, year, comment, trackNo));
+		private final File file;
+		private final Map<String, Entry> entries = new HashMap<>();
+		private boolean loaded = false;
+		private boolean dirty = false;
 
-		//tag fmt
-		enum Mode {
-			ID3,
-			RIFF;
+		Index(File dir) {
+			this.file = new File(dir, INDEX_FILE_NAME);
 		}
-		Mode mode = null;
-		try (InputStream is = new FileInputStream(f)) {
-			String header = SoundTagUtil.toString(is.readNBytes(4));
-			if (header.equals("RIFF")) {
-				mode = Mode.RIFF;
-			} else if (header.startsWith("ID3")) {
-				mode = Mode.ID3;
+
+		synchronized Scan get(String name, long size, long lastModified) {
+			if (!loaded) {
+				load();
 			}
-			if (mode == null) {
-				throw new SoundTagNotFoundException(f.getName() + " is not RIFF or ID3");
+			Entry e = entries.get(name);
+			if (e == null || e.size != size || e.lastModified != lastModified) {
+				return null;
 			}
-		} catch (SoundTagNotFoundException ex) {
-			throw ex;
-		} catch (Exception ex) {
-			throw new SoundTagNotFoundException(ex);
-		}
-
-		//--------------------------------RIFF---------------------------------------------
-		if (mode == Mode.RIFF) {
-			try (RandomAccessFile raf = new RandomAccessFile(f, "r")) {
-				//"LIST" = 4C 49 53 54 <--...--> EOF
-				long location = -1;
-				int count = 0;
-				for (long p = raf.length() - 1; p >= 0; p--) {
-					raf.seek(p);
-					byte b = raf.readByte();
-					if (b == 0x54) {
-						count = 1;
-						continue;
-					}
-					if (count == 1 && b == 0x53) {
-						count++;
-						continue;
-					}
-					if (count == 2 && b == 0x49) {
-						count++;
-						continue;
-					}
-					if (count == 3 && b == 0x4C) {
-						location = p;
-						break;
-					}
-					count = 0;
-				}
+			return e.scan;
+		}
 
-				if (location < 0) {
-					throw new SoundTagNotFoundException(f + " RIFF LIST tag not found");
-				}
+		synchronized void put(String name, long size, long lastModified, Scan s) {
+			entries.put(name, new Entry(size, lastModified, s));
+			dirty = true;
+		}
 
-				//"LIST"チェック
-				raf.seek(location);
-				{
-					byte[] v = new byte[4];
-					raf.read(v);
-					if (!"LIST".equals(SoundTagUtil.toString(v))) {
-						throw new SoundTagNotFoundException("RIFF LIST not found : " + location);
-					}
+		synchronized void flush() {
+			if (dirty && useIndex) {
+				save();
+			}
+			dirty = false;
+		}
+
+		private void load() {
+			loaded = true;
+			if (!useIndex || !file.exists()) {
+				return;
+			}
+			try (DataInputStream is = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+				if (is.readInt() != INDEX_VERSION) {
+					return;
 				}
-				//"LIST" .... "INFO"チェック
-				{
-					raf.read(new byte[4]);
-					byte[] v = new byte[4];
-					raf.read(v);
-					if (!"INFO".equals(SoundTagUtil.toString(v))) {
-						throw new SoundTagNotFoundException("RIFF LIST....INFO not found : " + location);
-					}
+				int n = is.readInt();
+				for (int i = 0; i < n; i++) {
+					String name = is.readUTF();
+					long size = is.readLong();
+					long lastModified = is.readLong();
+					entries.put(name, new Entry(size, lastModified, Scan.read(is)));
 				}
-				location = raf.getFilePointer();
-
-				//タグ解析開始
-				boolean isID3 = false;
-				L2:
-				while (location < raf.length()) {
-					raf.seek(location);
-
-					//id3かどうかの判定
-					{
-						long prev = location;
-						byte[] v = new byte[3];
-						raf.read(v);
-						location = prev;
-						raf.seek(location);
-
-						if ("id3".equals(SoundTagUtil.toString(v))) {
-							//IENDまでID3。
-							isID3 = true;
-							break L2;
-						}
-					}
-					{
-						//4バイトをタグ名として取る
-						RIFFTagKeys tagKeys;
-						{
-							byte[] v = new byte[4];
-							raf.read(v);
-							location += 4;
-							tagKeys = RIFFTagKeys.valueOf(SoundTagUtil.toString(v));
-						}
-						if (tagKeys == RIFFTagKeys.IEND) {
-							r.putRIFF(tagKeys, "END");
-							break;
-						}
-
-						//4バイトをサイズとして取るが、エンディアンが逆。
-						int size = -1;
-						{
-							byte[] v = new byte[4];
-							raf.read(v);
-							location += 4;
-							size = SoundTagUtil.toInt8bitReverse(v);
-						}
-						if (size < 0) {
-							location++;
-							continue;
-						}
-						//data
-						{
-							byte[] v = new byte[size];
-							raf.read(v);
-							location += size;
-							tagKeys.set(r, v);
-						}
-						while (location < raf.length()) {
-							long prev = location;
-							byte b = raf.readByte();
-							if (b != 0x00) {
-								location = prev;
-								break;
-							}
-							location++;
-						}
+			} catch (IOException | RuntimeException ex) {
+				//壊れた索引は捨てて作り直す
+				GameLog.print("SoundTagSystem : index is broken, rebuild : " + file + " : " + ex);
+				entries.clear();
+			}
+		}
+
+		private void save() {
+			File tmp = new File(file.getPath() + ".tmp");
+			try {
+				try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+					os.writeInt(INDEX_VERSION);
+					os.writeInt(entries.size());
+					for (var v : entries.entrySet()) {
+						os.writeUTF(v.getKey());
+						os.writeLong(v.getValue().size);
+						os.writeLong(v.getValue().lastModified);
+						v.getValue().scan.write(os);
 					}
 				}
-				if (isID3) {
-					//IENDまでid3
-					//skip
-					raf.skipBytes(11);
-
-					//version ...2byte,
-					{
-						byte v = raf.readByte();
-						if (v != 0x03) { //3
-							throw new SoundTagNotFoundException(f + " is not id3v2.3");
-						}
-						//revision ...skip
-						raf.readByte();
-					}
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException ex) {
+				//索引が書けなくてもタグは返せる
+				GameLog.print("SoundTagSystem : cant write index : " + file + " : " + ex);
+			}
+		}
+	}
 
-					//flag：使ってない。
-					boolean unsynchronisation = false;
-					boolean extendedHeader = false;
-					boolean experimental = false;
-					{
-						byte v = raf.readByte();
-						unsynchronisation = (v & 0b0100_0000) != 0; //7
-						extendedHeader = (v & 0b0010_0000) != 0; //6
-						experimental = (v & 0b0001_0000) != 0; //5
-						//残りは無視してOK
-					}
-					int tagSize = 0;
-					{
-						byte[] v = new byte[4];
-						raf.read(v);
-						tagSize = SoundTagUtil.toIntSynchsafe(v);
-						if (tagSize == 0) {
-							return new SoundTagData();
-						}
-					}
-					//拡張ヘッダモード
-					if (extendedHeader) {
-						//拡張ヘッダサイズ
-						byte[] v = new byte[4];
-						raf.read(v);
-						int extendedHeaderSize = SoundTagUtil.toInt8bit(v);
-						//多分使わないので、いったん無視して、拡張ヘッダサイズ分スキップ
-						v = new byte[extendedHeaderSize];
-						raf.read(v);
+	//--------------------------------走査----------------------------------------
+	private static String ascii(ByteBuffer b, int pos, int len) {
+		char[] c = new char[len];
+		for (int i = 0; i < len; i++) {
+			c[i] = (char) b.get(pos + i);
+		}
+		return String.valueOf(c);
+	}
 
-					}
-					int current = 0;
-					while (current < tagSize) {
-						byte[] v = new byte[4];
-						raf.read(v);
-						String name = SoundTagUtil.toString(v);
-						current += 4;
-						if ("".equals(name.trim())) {
-							break;
-						}
-						try {
-							ID3V23TagKeys key = ID3V23TagKeys.valueOf(name);
-							v = new byte[4];
-							raf.read(v);
-							int frameSize = SoundTagUtil.toInt8bit(v);
-							current += 4;
-							//flagは多分使わないのでスキップ
-							byte[] flags = new byte[2];
-							raf.read(flags);
-							current += 2;
-							//data
-							byte[] data = new byte[frameSize];
-							raf.read(data);
-							current += frameSize;
-
-							key.set(r, data);
-
-						} catch (IllegalArgumentException e) {
-							break;
-						}
-					}
-				}
+	private static byte[] bytes(ByteBuffer b, int pos, int len) {
+		byte[] v = new byte[len];
+		b.get(pos, v);
+		return v;
+	}
 
-			} catch (Exception ex) {
-				GameLog.print("! > " + f.getName());
-				throw new SoundTagIOException(ex);
+	//posからlenバイトをヒープに読み込む。ファイルの終わりに達した場合はlimitが短くなる
+	private static ByteBuffer read(FileChannel ch, long pos, int len) throws IOException {
+		ByteBuffer b = ByteBuffer.allocate(len);
+		while (b.hasRemaining()) {
+			if (ch.read(b, pos + b.position()) < 0) {
+				break;
 			}
-			return r;
 		}
-		//--------------------------------v2.3 tags----------------------------------------
-		if (mode == Mode.ID3) {
-			try (InputStream is = new FileInputStream(f)) {
-				//skip
-				is.skipNBytes(3);
-				//version ...2byte,
-				{
-					byte[] v = is.readNBytes(1);
-					if (v[0] != 0x03) { //3
-						throw new SoundTagNotFoundException(f + " is not id3v2.3");
-					}
-					//revision ...skip
-					is.readNBytes(1);
-				}
+		b.flip();
+		return b;
+	}
+
+	//startにあるID3タグのヘッダからタグの長さを求め、タグ全体を読み込む
+	@Nullable
+	private static ByteBuffer readID3(FileChannel ch, long start, long len) throws IOException {
+		if (start + 10 > len) {
+			return null;
+		}
+		ByteBuffer h = read(ch, start, 10);
+		long total = 10L + SoundTagUtil.toIntSynchsafe(bytes(h, 6, 4));
+		if ((h.get(5) & 0b0100_0000) != 0 && start + 14 <= len) {
+			total += 4 + Math.max(read(ch, start + 10, 4).getInt(0), 0);
+		}
+		return read(ch, start, (int) Math.min(total, len - start));
+	}
 
-				//flag：使ってない。
-				boolean unsynchronisation = false;
-				boolean extendedHeader = false;
-				boolean experimental = false;
-				{
-					byte[] v = is.readNBytes(1);
-					unsynchronisation = (v[0] & 0b0100_0000) != 0; //7
-					extendedHeader = (v[0] & 0b0010_0000) != 0; //6
-					experimental = (v[0] & 0b0001_0000) != 0; //5
-					//残りは無視してOK
+	private static Scan scan(File f, long size) throws SoundTagIOException, SoundTagNotFoundException {
+		try (FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+			//2GBを超えるファイルは先頭2GBだけを見る
+			long len = Math.min(size, Integer.MAX_VALUE);
+			Scan r = new Scan();
+			if (len >= 128) {
+				r.v1 = scanV1(read(ch, len - 128, 128));
+			}
+			ByteBuffer head = read(ch, 0, (int) Math.min(len, 12));
+			if (head.limit() >= 4 && ascii(head, 0, 4).equals("RIFF")) {
+				scanRIFF(f, ch, len, r);
+				return r;
+			}
+			if (head.limit() >= 3 && ascii(head, 0, 3).equals("ID3")) {
+				ByteBuffer b = readID3(ch, 0, len);
+				if (b != null) {
+					scanID3(f, b, 0, r);
 				}
-				int tagSize = 0;
-				{
-					byte[] v = is.readNBytes(4);
-					tagSize = SoundTagUtil.toIntSynchsafe(v);
-					if (tagSize == 0) {
-						return new SoundTagData();
-					}
+				return r;
+			}
+			throw new SoundTagNotFoundException(f.getName() + " is not RIFF or ID3");
+		} catch (SoundTagNotFoundException | SoundTagIOException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			GameLog.print("! > " + f.getName());
+			throw new SoundTagIOException(ex);
+		}
+	}
+
+	//v1は末尾128バイトに入ってる。bは末尾を含む領域。
+	@Nullable
+	private static SoundTagData.V1Tags scanV1(ByteBuffer b) {
+		if (b.limit() < 128) {
+			return null;
+		}
+		int p = b.limit() - 128;
+		if (!"TAG".equals(ascii(b, p, 3))) {
+			return null;
+		}
+		String title = SoundTagUtil.toString(bytes(b, p + 3, 30));
+		String artist = SoundTagUtil.toString(bytes(b, p + 33, 30));
+		String album = SoundTagUtil.toString(bytes(b, p + 63, 30));
+		Year year = null;
+		try {
+			year = Year.of(Integer.parseInt(SoundTagUtil.toString(bytes(b, p + 93, 4))));
+		} catch (RuntimeException e) {
+			//ignore
+		}
+		byte[] data = bytes(b, p + 97, 30);
+		String comment;
+		int trackNo = 0;
+		//v1.1のトラック番号判定
+		if (data[28] == 0x00 && data[29] != 0x00) {
+			byte[] data2 = new byte[28];
+			System.arraycopy(data, 0, data2, 0, 28);
+			comment = SoundTagUtil.toString(data2);
+			trackNo = (int) data[29];
+		} else {
+			comment = SoundTagUtil.toString(data);
+		}
+		return new SoundTagData.V1Tags(title, artist, album, year, comment, trackNo);
+	}
+
+	//"RIFF" size "WAVE" の後にチャンク（ID 4バイト、リトルエンディアンの長さ 4バイト、データ、偶数境界へのパディング）が並ぶ。
+	//チャンクのヘッダだけを読んで表を辿り、INFOとid3チャンクの中身だけを読み込む
+	private static void scanRIFF(File f, FileChannel ch, long len, Scan r) throws IOException, SoundTagNotFoundException {
+		long infoStart = -1, infoEnd = -1, id3Start = -1;
+		long p = 12;
+		while (p + 8 <= len) {
+			ByteBuffer h = read(ch, p, (int) Math.min(12, len - p)).order(ByteOrder.LITTLE_ENDIAN);
+			String id = ascii(h, 0, 4);
+			long size = Integer.toUnsignedLong(h.getInt(4));
+			if (id.equals("LIST") && h.limit() >= 12 && ascii(h, 8, 4).equals("INFO")) {
+				//複数ある場合は最後のLISTを使う
+				infoStart = p + 12;
+				infoEnd = Math.min(p + 8 + size, len);
+			} else if (id.equalsIgnoreCase("id3 ")) {
+				id3Start = p + 8;
+			}
+			p += 8 + size + (size & 1);
+		}
+		if (infoStart < 0 && id3Start < 0) {
+			throw new SoundTagNotFoundException(f + " RIFF LIST tag not found");
+		}
+		//INFOのサブチャンク
+		if (infoStart >= 0) {
+			ByteBuffer b = read(ch, infoStart, (int) Math.max(infoEnd - infoStart, 0)).order(ByteOrder.LITTLE_ENDIAN);
+			int end = b.limit();
+			p = 0;
+			while (p + 8 <= end) {
+				int pos = (int) p;
+				String id = ascii(b, pos, 4);
+				if (id.equals("IEND")) {
+					r.frames.add(new Frame(true, RIFFTagKeys.IEND.name(), "END".getBytes()));
+					break;
 				}
-				//拡張ヘッダモード
-				if (extendedHeader) {
-					//拡張ヘッダサイズ
-					int extendedHeaderSize = SoundTagUtil.toInt8bit(is.readNBytes(4));
-					//多分使わないので、いったん無視して、拡張ヘッダサイズ分スキップ
-					is.readNBytes(extendedHeaderSize);
-
-//				byte[] extendedHeaderFlag = is.readNBytes(2);
-//				boolean crc = (extendedHeaderFlag[0] & 0b1000_0000) != 0;
-//				int paddingSize = toInt8bit(is.readNBytes(4));
+				int size = b.getInt(pos + 4);
+				if (size < 0 || pos + 8L + size > end) {
+					break;
 				}
-				int current = 0;
-				while (current < tagSize) {
-					String name = SoundTagUtil.toString(is.readNBytes(4));
-					current += 4;
-					if ("".equals(name.trim())) {
-						break;
-					}
-					try {
-						ID3V23TagKeys key = ID3V23TagKeys.valueOf(name);
-
-						int frameSize = SoundTagUtil.toInt8bit(is.readNBytes(4));
-						current += 4;
-						//flagは多分使わないのでスキップ
-						byte[] flags = is.readNBytes(2);
-						current += 2;
-						//data
-						byte[] data = is.readNBytes(frameSize);
-						current += frameSize;
-
-						key.set(r, data);
-
-					} catch (IllegalArgumentException e) {
-						break;
-					}
+				if (isRIFFKey(id)) {
+					r.frames.add(new Frame(true, id, bytes(b, pos + 8, size)));
 				}
-			} catch (Exception e) {
-				throw new SoundTagIOException(e);
+				p += 8 + size + (size & 1);
+			}
+		}
+		//id3チャンク
+		if (id3Start >= 0) {
+			ByteBuffer b = readID3(ch, id3Start, len);
+			if (b != null && ascii(b, 0, 3).equalsIgnoreCase("ID3")) {
+				scanID3(f, b, 0, r);
+			}
+		}
+	}
+
+	private static boolean isRIFFKey(String id) {
+		for (var v : RIFFTagKeys.values()) {
+			if (v.name().equals(id)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isID3Key(String id) {
+		for (var v : ID3V23TagKeys.values()) {
+			if (v.name().equals(id)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	//--------------------------------v2.3 tags----------------------------------------
+	private static void scanID3(File f, ByteBuffer b, int start, Scan r) throws SoundTagNotFoundException {
+		b.order(ByteOrder.BIG_ENDIAN);
+		int p = start + 3;
+		//version ...2byte,
+		if (b.get(p) != 0x03) { //3
+			throw new SoundTagNotFoundException(f + " is not id3v2.3");
+		}
+		//revision ...skip
+		p += 2;
+		//flag：拡張ヘッダのみ使用する
+		boolean extendedHeader = (b.get(p) & 0b0100_0000) != 0;
+		p++;
+		int tagSize = SoundTagUtil.toIntSynchsafe(bytes(b, p, 4));
+		p += 4;
+		if (tagSize == 0) {
+			r.empty = true;
+			r.frames.clear();
+			return;
+		}
+		//拡張ヘッダモード
+		if (extendedHeader) {
+			//多分使わないので、拡張ヘッダサイズ分スキップ
+			int extendedHeaderSize = b.getInt(p);
+			p += 4 + extendedHeaderSize;
+		}
+		int end = (int) Math.min((long) p + tagSize, b.limit());
+		while (p + 10 <= end) {
+			String name = ascii(b, p, 4);
+			if ("".equals(name.trim()) || !isID3Key(name)) {
+				break;
+			}
+			int frameSize = b.getInt(p + 4);
+			//flagは多分使わないのでスキップ
+			p += 10;
+			if (frameSize < 0 || p + frameSize > b.limit()) {
+				break;
 			}
+			r.frames.add(new Frame(false, name, bytes(b, p, frameSize)));
+			p += frameSize;
 		}
-		return r;
 	}
 }
@@ -45,7 +45,6 @@ public class HeavyIniFile{
 	private File file;
 	private Charset charset;
 	private boolean loaded;
-	private BufferedReader br;
 
 	public HeavyIniFile(String fileName) {
 		this(new File(fileName));
@@ -72,8 +71,7 @@ public class HeavyIniFile{
 	@Nullable
 	private UniversalValue findOrNull(String key) {
 		String line;
-		try {
-			br = new BufferedReader(new InputStreamReader(new FileInputStream(file), charset));
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), charset))) {
 			while ((line = br.readLine()) != null) {
 				line = line.trim();
 				if (line.startsWith("[")) {
@@ -124,8 +122,7 @@ public class HeavyIniFile{
 	public Map<String, UniversalValue> getAll(Collection<String> s) {
 		Map<String, UniversalValue> res = new HashMap<>();
 		String line;
-		try {
-			br = new BufferedReader(new InputStreamReader(new FileInputStream(file), charset));
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), charset))) {
 			while ((line = br.readLine()) != null) {
 				line = line.trim();
 				if (line.startsWith("[")) {
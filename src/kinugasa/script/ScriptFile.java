@@ -49,6 +49,7 @@ public class ScriptFile extends FileObject {
 	// EVENT
 	private EnumMap<ScriptBlockType, ScriptBlock> blocks;
 	private boolean isLoaded = false;
+	private long loadedLastModified;
 
 	public ScriptFile(FileObject f) {
 		super(f.getFile());
@@ -79,6 +80,7 @@ public class ScriptFile extends FileObject {
 			GameLog.print("SF [" + getName() + "] load start");
 			GameLog.addIndent();
 		}
+		loadedLastModified = getFile().lastModified();
 		DataFile f = new DataFile(super.getFile()).load();
 
 		//PARAM
@@ -148,6 +150,24 @@ public class ScriptFile extends FileObject {
 		return isLoaded;
 	}
 
+	/**
+	 * ロード後にファイルが更新されたかを検査します.
+	 *
+	 * @return ロードされていて、ファイルの更新日時がロード時と異なる場合true。<br>
+	 */
+	public boolean isModified() {
+		return isLoaded && getFile().lastModified() != loadedLastModified;
+	}
+
+	/**
+	 * すべてのブロックの実行位置を先頭に戻します.
+	 */
+	void resetIdx() {
+		if (blocks != null) {
+			blocks.values().forEach(p -> p.resetIdx());
+		}
+	}
+
 	public ScriptFile test() throws ScriptSyntaxException {
 		load();
 		free();
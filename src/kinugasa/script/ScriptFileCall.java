@@ -36,6 +36,7 @@ public class ScriptFileCall {
 	private String scriptName;
 	private List<UniversalValue> args;
 	private ScriptBlockType blockType;
+	private Boolean literalArgs;
 
 	public ScriptFileCall(String original) {
 		this.original = original;
@@ -112,8 +113,15 @@ public class ScriptFileCall {
 	}
 
 	public ScriptResult exec(ScriptBlockType type, Map<String, UniversalValue> argsMap) {
+		//全て文字列リテラルの場合はそのまま渡す
+		if (literalArgs == null) {
+			literalArgs = this.args.stream().allMatch(p -> p.startWith("\""));
+		}
+		if (literalArgs) {
+			return ScriptSystem.getInstance().compiled(scriptName).getBlockOf(type).exec(this.args).free();
+		}
 		//args再計算
-		List<UniversalValue> newArgs = new ArrayList<>();
+		List<UniversalValue> newArgs = new ArrayList<>(this.args.size());
 		for (var v : this.args) {
 			if (v.startWith("\"")) {
 				newArgs.add(v);
@@ -123,7 +131,7 @@ public class ScriptFileCall {
 			newArgs.add(new UniversalValue("\"" + newValue + "\""));
 		}
 
-		return getScriptFile().load().getBlockOf(type).exec(newArgs).free();
+		return ScriptSystem.getInstance().compiled(scriptName).getBlockOf(type).exec(newArgs).free();
 	}
 
 	public ScriptFile getScriptFile() {
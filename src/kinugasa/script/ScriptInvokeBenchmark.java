@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.script;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import kinugasa.system.UniversalValue;
+
+/**
+ * ScriptLineのメソッド呼び出しを、Method#invokeと解析時に作成するMethodHandleで比較します.<br>
+ * ScriptLine.Valueが作成するハンドルを、ScriptLineと同じ引数の数ごとのinvokeExactで呼び出します。<br>
+ * 引数は呼び出し回数と計測の回数です。省略した場合は1000000回を5回計測します。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_21:40:12<br>
+ * @author Shinacho.<br>
+ */
+public class ScriptInvokeBenchmark {
+
+	/**
+	 * 呼び出されるメソッドです. SAOのメソッドと同じく、UniversalValueを受け取ります.<br>
+	 */
+	public static final class Target {
+
+		private int count;
+
+		public Object zero() {
+			return count++;
+		}
+
+		public Object one(UniversalValue a) {
+			count += a.value().length();
+			return a;
+		}
+
+		public Object two(UniversalValue a, UniversalValue b) {
+			count += a.value().length() + b.value().length();
+			return b;
+		}
+	}
+
+	//最適化で呼び出しが消えないように、結果をここに集める
+	private static int sink;
+
+	public static void main(String[] args) throws Throwable {
+		int calls = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+		Target t = new Target();
+		UniversalValue a = new UniversalValue("a");
+		UniversalValue b = new UniversalValue("bb");
+		ScriptLine.Value v0 = ScriptLine.Value.methodCall(Target.class.getMethod("zero"), List.of());
+		ScriptLine.Value v1 = ScriptLine.Value.methodCall(Target.class.getMethod("one", UniversalValue.class), List.of(a));
+		ScriptLine.Value v2 = ScriptLine.Value.methodCall(Target.class.getMethod("two", UniversalValue.class, UniversalValue.class), List.of(a, b));
+		if (v0.mh == null || v1.mh == null || v2.mh == null) {
+			throw new IllegalStateException("ScriptInvokeBenchmark : method handle is not available");
+		}
+		UniversalValue[] args1 = {a};
+		UniversalValue[] args2 = {a, b};
+
+		//ウォームアップ
+		for (int i = 0; i < 3; i++) {
+			reflect(t, v0.m, v1.m, v2.m, args1, args2, calls);
+			handle(t, v0, v1, v2, args1, args2, calls);
+		}
+
+		System.out.println("ScriptInvokeBenchmark : calls=" + calls + " x 3 methods, rounds=" + rounds);
+		long bestReflect = Long.MAX_VALUE, bestHandle = Long.MAX_VALUE;
+		for (int r = 0; r < rounds; r++) {
+			long reflect = reflect(t, v0.m, v1.m, v2.m, args1, args2, calls);
+			long handle = handle(t, v0, v1, v2, args1, args2, calls);
+			bestReflect = Math.min(bestReflect, reflect);
+			bestHandle = Math.min(bestHandle, handle);
+			System.out.printf("round %d : Method.invoke %.2f ns/call, MethodHandle %.2f ns/call%n",
+					r, perCall(reflect, calls), perCall(handle, calls));
+		}
+		System.out.printf("best : Method.invoke %.2f ns/call, MethodHandle %.2f ns/call, speedup %.2fx%n",
+				perCall(bestReflect, calls), perCall(bestHandle, calls), (double) bestReflect / bestHandle);
+		System.out.println("(sink=" + sink + ")");
+	}
+
+	private static double perCall(long nanos, int calls) {
+		return (double) nanos / (calls * 3L);
+	}
+
+	//ScriptLineのフォールバックと同じ呼び出し
+	private static long reflect(Target t, Method m0, Method m1, Method m2, UniversalValue[] args1, UniversalValue[] args2, int calls) throws Throwable {
+		long s = System.nanoTime();
+		for (int i = 0; i < calls; i++) {
+			sink += m0.invoke(t).hashCode();
+			sink += m1.invoke(t, (Object[]) args1).hashCode();
+			sink += m2.invoke(t, (Object[]) args2).hashCode();
+		}
+		return System.nanoTime() - s;
+	}
+
+	//ScriptLine#invokeと同じ呼び出し
+	private static long handle(Target t, ScriptLine.Value v0, ScriptLine.Value v1, ScriptLine.Value v2, UniversalValue[] args1, UniversalValue[] args2, int calls) throws Throwable {
+		long s = System.nanoTime();
+		for (int i = 0; i < calls; i++) {
+			sink += ((Object) v0.mh.invokeExact((Object) t)).hashCode();
+			sink += ((Object) v1.mh.invokeExact((Object) t, (Object) args1[0])).hashCode();
+			sink += ((Object) v2.mh.invokeExact((Object) t, (Object) args2[0], (Object) args2[1])).hashCode();
+		}
+		return System.nanoTime() - s;
+	}
+}
@@ -16,8 +16,12 @@
  */
 package kinugasa.script;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -45,6 +49,10 @@ import kinugasa.util.StringUtil;
  */
 public class ScriptLine {
 
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final UniversalValue[] NO_ARGS = new UniversalValue[0];
+	private static final ScriptResult.Value MISSFIRE = new ScriptResult.Value(ScriptResultType.MISSFIRE, ScriptResultType.MISSFIRE);
+
 	static class Value {
 
 		@Nullable
@@ -54,11 +62,47 @@ public class ScriptLine {
 		@Nullable
 		public List<UniversalValue> args = null;
 		public boolean ifNot = false;
+		//(Object, Object...)Object型に変換済みのハンドル。アクセスできない場合はnullでMethod#invokeを使う
+		@Nullable
+		final MethodHandle mh;
+		//リテラル引数は解析時に引用符を外しておく。引数名の場合はnull
+		final UniversalValue[] literal;
+		final String[] paramKey;
+		//実行時の引数バッファ
+		final UniversalValue[] argBuf;
 
 		private Value(ScriptFileCall scriptFileCall, Method m, List<UniversalValue> args) {
 			this.scriptFileCall = scriptFileCall;
 			this.m = m;
 			this.args = args;
+			int n = args == null ? 0 : args.size();
+			this.literal = new UniversalValue[n];
+			this.paramKey = new String[n];
+			this.argBuf = n == 0 ? NO_ARGS : new UniversalValue[n];
+			for (int i = 0; i < n; i++) {
+				String key = args.get(i).trim().value();
+				if (key.startsWith("\"")) {
+					//りてらる
+					key = key.substring(1);
+					key = key.substring(0, key.length() - 1);
+					literal[i] = new UniversalValue(key);
+				} else {
+					paramKey[i] = key;
+				}
+			}
+			this.mh = m == null ? null : toHandle(m);
+		}
+
+		private static MethodHandle toHandle(Method m) {
+			try {
+				MethodHandle h = LOOKUP.unreflect(m);
+				if (Modifier.isStatic(m.getModifiers())) {
+					h = MethodHandles.dropArguments(h, 0, Object.class);
+				}
+				return h.asType(MethodType.genericMethodType(m.getParameterCount() + 1));
+			} catch (IllegalAccessException ex) {
+				return null;
+			}
 		}
 
 		public static Value scriptCall(ScriptFileCall scriptFileCall) {
@@ -83,6 +127,8 @@ public class ScriptLine {
 	private final String origin;
 	private final List<Value> data;//getFieldMapSystem(), get("001"), load();
 	private final List<List<List<Value>>> ifBlock;// and / or / hoge().piyo()=data
+	private Value[] dataArray;
+	private Value[][][] ifArray;
 
 	ScriptLine(ScriptAccessObject sao, String line, List<List<String>> ifStack) {
 		this.sao = sao;
@@ -90,6 +136,10 @@ public class ScriptLine {
 		this.data = new ArrayList<>();
 		this.ifBlock = new ArrayList<>();
 		parse(line, ifStack);
+		this.dataArray = data.toArray(Value[]::new);
+		this.ifArray = ifBlock.stream()
+				.map(and -> and.stream().map(or -> or.toArray(Value[]::new)).toArray(Value[][]::new))
+				.toArray(Value[][][]::new);
 	}
 
 	private void parse(String line, List<List<String>> ifStack) throws ScriptSyntaxException {
@@ -197,85 +247,69 @@ public class ScriptLine {
 		if (v.scriptFileCall != null) {
 			throw new InternalError("SL :  scriptCall, but createARGS");
 		}
-		if (v.args == null || v.args.isEmpty()) {
-			throw new InternalError("SL :  createARGS, but non param");
-		}
-		UniversalValue[] res = new UniversalValue[v.args.size()];
+		UniversalValue[] res = v.argBuf;
 
 		for (int i = 0; i < res.length; i++) {
-			var key = v.args.get(i).trim().value();
-			if (key.startsWith("\"")) {
-				//りてらる　
-				key = key.substring(1);
-				key = key.substring(0, key.length() - 1);
-				res[i] = new UniversalValue(key);
-			} else {
-				//引数
-				if (!args.containsKey(key)) {
-					throw new ScriptSyntaxException("SL : param not found : " + key);
-				}
-				String val = args.get(key).value().trim();
-				if (val.startsWith("\"")) {
-					val = val.substring(1);
-					val = val.substring(0, val.length() - 1);
-				}
-				res[i] = new UniversalValue(val);
+			if (v.literal[i] != null) {
+				res[i] = v.literal[i];
+				continue;
+			}
+			//引数
+			String key = v.paramKey[i];
+			UniversalValue arg = args.get(key);
+			if (arg == null && !args.containsKey(key)) {
+				throw new ScriptSyntaxException("SL : param not found : " + key);
+			}
+			String org = arg.value();
+			String val = org.trim();
+			if (val.startsWith("\"")) {
+				val = val.substring(1);
+				val = val.substring(0, val.length() - 1);
 			}
+			res[i] = val.equals(org) ? arg : new UniversalValue(val);
 		}
 		return res;
 	}
 
 	public ScriptResult.Value exec(Map<String, UniversalValue> argsMap) throws ScriptSyntaxException {
+		final boolean debug = GameSystem.isDebugMode();
 		//IF BLOCK判定
-		if (!ifBlock.isEmpty()) {
-			Object o = sao;
-			boolean and = true;
-			for (var v : ifBlock) {
-				boolean or = false;
-				for (var vv : v) {
-					for (var vvv : vv) {
-						o = invoke(o, vvv, createArgs(vvv, argsMap));
-					}
-					if (o.getClass() != Boolean.class) {
-						throw new ScriptSyntaxException("SL : IF is not boolean : " + this);
-					}
-					boolean res = Boolean.parseBoolean(o.toString());
-					or |= res;
-					o = sao;
-					if (or) {
-						break;
-					}
+		for (Value[][] and : ifArray) {
+			boolean or = false;
+			for (Value[] chain : and) {
+				Object o = sao;
+				boolean not = false;
+				for (Value v : chain) {
+					o = invoke(o, v, createArgs(v, argsMap), debug);
+					not ^= v.ifNot;
 				}
-				and &= or;
-				if (!and) {
+				if (!(o instanceof Boolean b)) {
+					throw new ScriptSyntaxException("SL : IF is not boolean : " + this);
+				}
+				if (b != not) {
+					or = true;
 					break;
 				}
 			}
-			if (!and) {
-				if (GameSystem.isDebugMode()) {
+			if (!or) {
+				if (debug) {
 					GameLog.print("SL script misfire : " + this);
 				}
-				return new ScriptResult.Value(ScriptResultType.MISSFIRE, ScriptResultType.MISSFIRE);
+				return MISSFIRE;
 			}
 		}
 
 		//ファイルモード
-		if (data.get(0).scriptFileCall != null) {
-			return data.get(0).scriptFileCall.exec(argsMap).getLast();
+		if (dataArray[0].scriptFileCall != null) {
+			return dataArray[0].scriptFileCall.exec(argsMap).getLast();
 		}
 		//SAOモード
 		Object o = sao;
-		for (var v : data) {
-			if (o.getClass() == Void.class) {
+		for (Value v : dataArray) {
+			if (o != null && o.getClass() == Void.class) {
 				throw new ScriptSyntaxException("SL : return type is void : " + v);
 			}
-
-			//no param
-			if (v.args == null || v.args.isEmpty()) {
-				o = invoke(o, v);
-			} else {
-				o = invoke(o, v, createArgs(v, argsMap));
-			}
+			o = invoke(o, v, createArgs(v, argsMap), debug);
 			//終了判定
 			if (o instanceof ScriptResultType t) {
 				if (t.is(ScriptResultType.END)) {
@@ -291,53 +325,44 @@ public class ScriptLine {
 
 	}
 
-	private Object invoke(Object o, Value v) {
-		try {
-			if (v.scriptFileCall != null) {
-				throw new InternalError("SL : method invoke, but value is scriptFileCall : " + v);
-			}
-			if (GameSystem.isDebugMode()) {
-				GameLog.print("SL : invoke : " + o.getClass().getName() + "#" + v.toString() + ")");
-				GameLog.addIndent();
-			}
-			if (v.args != null && !v.args.isEmpty()) {
-				throw new InternalError("SL : invoke missmatch : " + v);
-			}
-
-			return v.m.invoke(o);
-
-		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
-			ex.printStackTrace();
-			throw new ScriptRuntimeException(ex);
-		} finally {
-			if (GameSystem.isDebugMode()) {
-				GameLog.removeIndent();
-			}
+	private Object invoke(Object o, Value v, UniversalValue[] args, boolean debug) {
+		if (v.scriptFileCall != null) {
+			throw new InternalError("SL : method invoke, but value is scriptFileCall : " + v);
+		}
+		if (debug) {
+			GameLog.print("SL : invoke : " + o.getClass().getName() + "#" + v.toString() + ")");
+			GameLog.addIndent();
 		}
-
-	}
-
-	private Object invoke(Object o, Value v, UniversalValue[] args) {
-
 		try {
-			if (v.scriptFileCall != null) {
-				throw new InternalError("SL : method invoke, but value is scriptFileCall : " + v);
-			}
-			if (GameSystem.isDebugMode()) {
-				GameLog.print("SL : invoke : " + o.getClass().getName() + "#" + v.toString() + ")");
-				GameLog.addIndent();
+			if (v.mh == null) {
+				return v.m.invoke(o, (Object[]) args);
 			}
-
-			Object[] p = new Object[args.length];
-			System.arraycopy(args, 0, p, 0, p.length);
-
-			return v.m.invoke(o, p);
-
+			return switch (args.length) {
+				case 0 ->
+					(Object) v.mh.invokeExact(o);
+				case 1 ->
+					(Object) v.mh.invokeExact(o, (Object) args[0]);
+				case 2 ->
+					(Object) v.mh.invokeExact(o, (Object) args[0], (Object) args[1]);
+				case 3 ->
+					(Object) v.mh.invokeExact(o, (Object) args[0], (Object) args[1], (Object) args[2]);
+				default -> {
+					Object[] p = new Object[args.length + 1];
+					p[0] = o;
+					System.arraycopy(args, 0, p, 1, args.length);
+					yield v.mh.invokeWithArguments(p);
+				}
+			};
 		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
 			ex.printStackTrace();
 			throw new ScriptRuntimeException(ex);
+		} catch (Error | ScriptRuntimeException ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			ex.printStackTrace();
+			throw new ScriptRuntimeException(new InvocationTargetException(ex));
 		} finally {
-			if (GameSystem.isDebugMode()) {
+			if (debug) {
 				GameLog.removeIndent();
 			}
 		}
@@ -59,7 +59,7 @@ public class ScriptResult {
 	}
 
 	public ScriptResult free() {
-		block.getScriptFile().free();
+		ScriptSystem.getInstance().release(block.getScriptFile());
 		return this;
 	}
 
@@ -21,6 +21,7 @@ import java.awt.geom.Point2D;
 import java.io.File;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import kinugasa.game.GameLog;
@@ -60,6 +61,22 @@ public final class ScriptSystem {
 		ScriptSystem.testEnable = testEnable;
 	}
 
+	private static int cacheSize = 64;
+
+	public static int getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * 解析済みのスクリプトファイルを保持する最大数を設定します.<br>
+	 * 0以下の場合はキャッシュせず、実行のたびにロードと解放を行います。<br>
+	 *
+	 * @param cacheSize 保持するファイル数。<br>
+	 */
+	public static void setCacheSize(int cacheSize) {
+		ScriptSystem.cacheSize = cacheSize;
+	}
+
 	private static final ScriptSystem INSTANCE = new ScriptSystem();
 
 	public static ScriptSystem getInstance() {
@@ -75,6 +92,18 @@ public final class ScriptSystem {
 	private File root;
 	private Storage<ScriptFile> data;
 	private boolean loaded = false;
+	private final LinkedHashMap<String, ScriptFile> compiled = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ScriptFile> eldest) {
+			if (size() <= cacheSize) {
+				return false;
+			}
+			if (eldest.getValue() != currentExecFile) {
+				eldest.getValue().free();
+			}
+			return true;
+		}
+	};
 
 	//current
 	public void init(File root) throws ScriptSyntaxException, ScriptFileException {
@@ -89,6 +118,7 @@ public final class ScriptSystem {
 			throw new ScriptFileException("ScriptSystem" + root.getName() + " is not exists");
 		}
 		this.root = root;
+		clearCache();
 		this.data = new Storage<>();
 		addFile(root);
 		loaded = true;
@@ -128,9 +158,79 @@ public final class ScriptSystem {
 		return data.contains(name);
 	}
 
+	/**
+	 * 解析済みのスクリプトファイルを取得します.<br>
+	 * キャッシュにあり、ファイルが更新されていない場合は再解析しません。<br>
+	 * 取得したファイルはrelease(ScriptResult.free)で返却してください。<br>
+	 *
+	 * @param name スクリプト名。<br>
+	 * @return ロード済みで、全ブロックの実行位置が先頭のスクリプトファイル。<br>
+	 * @throws IDNotFoundException 存在しない場合。<br>
+	 */
+	public ScriptFile compiled(String name) throws IDNotFoundException {
+		ScriptFile f = of(name);
+		if (cacheSize <= 0) {
+			return f.load();
+		}
+		if (f == currentExecFile) {
+			//実行中（ポーズ中）のファイルは実行位置を壊さないよう別インスタンスを使う
+			return new ScriptFile(f.getFile()).load();
+		}
+		if (f.isModified()) {
+			if (GameSystem.isDebugMode()) {
+				GameLog.print("ScriptSystem : " + name + " is modified, reload");
+			}
+			f.free();
+		}
+		f.load();
+		f.resetIdx();
+		compiled.put(name, f);
+		return f;
+	}
+
+	/**
+	 * compiledで取得したスクリプトファイルを返却します.<br>
+	 * キャッシュ対象のファイルは解放されず、次回の実行で再利用されます。<br>
+	 *
+	 * @param f 返却するスクリプトファイル。<br>
+	 */
+	void release(ScriptFile f) {
+		if (f == null) {
+			return;
+		}
+		if (compiled.get(f.getId()) == f) {
+			return;
+		}
+		f.free();
+	}
+
+	/**
+	 * 解析済みのスクリプトファイルをすべて解放します.
+	 */
+	public void clearCache() {
+		compiled.values().stream().filter(p -> p != currentExecFile).forEach(p -> p.free());
+		compiled.clear();
+	}
+
+	public int getCachedCount() {
+		return compiled.size();
+	}
+
 	public ScriptResult.Value instantCall(String line, ScriptAccessObject sao) throws ScriptSyntaxException {
-		ScriptLine sl = new ScriptLine(sao, line, List.of());
-		return sl.exec(Map.of());
+		return compileInstantCall(line, sao).exec(Map.of());
+	}
+
+	/**
+	 * 1行のスクリプトを解析します. 返されたScriptLineは何度でも実行できます.<br>
+	 * 同じ行を繰り返し実行する場合は、instantCallの代わりにこれを保持してください。<br>
+	 *
+	 * @param line スクリプト。<br>
+	 * @param sao 実行に使うアクセスオブジェクト。<br>
+	 * @return 解析済みの行。<br>
+	 * @throws ScriptSyntaxException 解析に失敗した場合。<br>
+	 */
+	public ScriptLine compileInstantCall(String line, ScriptAccessObject sao) throws ScriptSyntaxException {
+		return new ScriptLine(sao, line, List.of());
 	}
 
 	public ScriptResult execDirect(String name) {
@@ -154,7 +254,7 @@ public final class ScriptSystem {
 	}
 
 	public ScriptResult execDirect(String name, ScriptBlockType block, List<UniversalValue> param) {
-		return of(name).load().getBlockOf(block).exec(param).free();
+		return compiled(name).getBlockOf(block).exec(param).free();
 	}
 
 	//---------------------------------------------------------------------------
@@ -181,7 +281,7 @@ public final class ScriptSystem {
 	}
 
 	public void end() {
-		currentExecFile.free();
+		release(currentExecFile);
 		currentExecBlock.resetIdx();
 		currentExecFile = null;
 		currentExecBlock = null;
@@ -16,16 +16,36 @@
  */
 package kinugasa.system;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import kinugasa.game.GameLog;
 import kinugasa.game.annotation.Nullable;
 import kinugasa.game.annotation.Singleton;
+import kinugasa.resource.ContentsIOException;
 import kinugasa.resource.text.TextFile;
 
 /**
  * FlagSystem.<br>
+ * フラグはinitでメモリに読み込まれ、存在とON/OFFを2つのビットセットで保持します。<br>
+ * 変更はフラグディレクトリのジャーナルファイルに追記され、書き込みはワーカースレッドで行われます。
+ * ジャーナルが一定以上大きくなると、現在の状態だけを書いたファイルに置き換えます。<br>
+ * ジャーナルがないディレクトリでは、初回のinitで従来のフラグファイル（*.flg.txt）を取り込みます。<br>
  *
  * @vesion 1.0.0 - 2025/08/10_2:18:22<br>
  * @author Shinacho.<br>
@@ -34,7 +54,35 @@ import kinugasa.resource.text.TextFile;
 public class FlagSystem {
 
 	private static final FlagSystem INSTANCE = new FlagSystem();
+	public static final String JOURNAL_FILE_NAME = "flags.journal";
+	private static int compactThreshold = 1024;
+
+	/**
+	 * ジャーナルを圧縮するまでの、フラグ数を超えて追記できる行数を設定します.<br>
+	 *
+	 * @param compactThreshold 行数。<br>
+	 */
+	public static void setCompactThreshold(int compactThreshold) {
+		FlagSystem.compactThreshold = compactThreshold;
+	}
+
+	public static int getCompactThreshold() {
+		return compactThreshold;
+	}
+
 	private File dir;
+	private File journal;
+	//フラグ名->ビット番号
+	private final Map<String, Integer> index = new HashMap<>();
+	private final List<String> names = new ArrayList<>();
+	private final BitSet exists = new BitSet();
+	private final BitSet on = new BitSet();
+	//未書き込みのジャーナル行
+	private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+	private ExecutorService writer;
+	//ワーカースレッドからのみ参照
+	private int journalLines;
 
 	private FlagSystem() {
 	}
@@ -47,79 +95,227 @@ public class FlagSystem {
 		if (!f.isDirectory()) {
 			throw new IllegalArgumentException("flag dir is not dir : " + f);
 		}
-		this.dir = f;
+		if (dir != null) {
+			flush();
+		}
+		synchronized (this) {
+			this.dir = f;
+			this.journal = new File(f, JOURNAL_FILE_NAME);
+			index.clear();
+			names.clear();
+			exists.clear();
+			on.clear();
+			pending.clear();
+			if (journal.exists()) {
+				replay();
+			} else {
+				importFlagFiles();
+				pending.clear();
+				compact(snapshot());
+			}
+		}
 	}
 
-	public boolean exeist(String name) {
-		return get(name).exists;
+	private void replay() {
+		int n = 0;
+		try (BufferedReader br = Files.newBufferedReader(journal.toPath(), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = br.readLine()) != null) {
+				if (line.length() < 3) {
+					continue;
+				}
+				apply(line.charAt(0), line.substring(2));
+				n++;
+			}
+		} catch (IOException ex) {
+			throw new ContentsIOException(ex);
+		}
+		journalLines = n;
+		GameLog.print("FlagSystem : " + exists.cardinality() + " flags loaded");
 	}
 
-	public boolean notExistsOrOFF(String name) {
-		var r = get(name);
-		if (r.exists) {
-			return false;
+	private void importFlagFiles() {
+		int n = 0;
+		for (var f : dir.listFiles()) {
+			String fileName = f.getName();
+			if (fileName.toLowerCase().endsWith(".flg.txt")) {
+				var r = getFile(f);
+				String name = fileName.substring(0, fileName.length() - ".flg.txt".length());
+				apply(r.status ? '1' : '0', name);
+				n++;
+			}
 		}
-		return !r.status;
+		GameLog.print("FlagSystem : " + n + " flag files imported");
 	}
 
-	public boolean existsAndON(String name) {
-		var r = get(name);
-		if (!r.exists) {
-			return false;
+	private int slotOf(String name) {
+		Integer i = index.get(name);
+		if (i == null) {
+			i = names.size();
+			names.add(name);
+			index.put(name, i);
 		}
-		return r.status;
+		return i;
 	}
 
-	public void createAndON(String name) {
-		String d = dir.getName();
-		if (!d.endsWith("/") && !d.endsWith("\\")) {
-			d += "/";
+	private void apply(char op, String name) {
+		int i = slotOf(name);
+		switch (op) {
+			case '1' -> {
+				exists.set(i);
+				on.set(i);
+			}
+			case '0' -> {
+				exists.set(i);
+				on.clear(i);
+			}
+			default -> {
+				exists.clear(i);
+				on.clear(i);
+			}
 		}
-		String path = d + name + ".flg.txt";
-		File f = new File(path);
-		set(f, true);
 	}
 
-	public void createAndOFF(String name) {
-		String d = dir.getName();
-		if (!d.endsWith("/") && !d.endsWith("\\")) {
-			d += "/";
+	private synchronized void mutate(char op, String name) {
+		if (dir == null) {
+			throw new IllegalStateException("FlagSystem is not initialized");
+		}
+		apply(op, name);
+		pending.add(op + " " + name);
+		if (flushScheduled.compareAndSet(false, true)) {
+			getWriter().execute(this::writeBehind);
 		}
-		String path = d + name + ".flg.txt";
-		File f = new File(path);
-		set(f, false);
 	}
 
-	public void delete(String name) {
-		String d = dir.getName();
-		if (!d.endsWith("/") && !d.endsWith("\\")) {
-			d += "/";
+	private synchronized ExecutorService getWriter() {
+		if (writer == null) {
+			writer = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "FlagSystem-journal");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		return writer;
+	}
+
+	//ワーカースレッドでジャーナルに追記する
+	private void writeBehind() {
+		flushScheduled.set(false);
+		File j;
+		synchronized (this) {
+			j = journal;
+		}
+		if (pending.isEmpty()) {
+			return;
+		}
+		try (BufferedWriter bw = Files.newBufferedWriter(j.toPath(), StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			String line;
+			while ((line = pending.poll()) != null) {
+				bw.write(line);
+				bw.newLine();
+				journalLines++;
+			}
+		} catch (IOException ex) {
+			GameLog.print("!> WARNING : FlagSystem journal write failed : " + ex);
+			return;
+		}
+		List<String> snapshot = null;
+		synchronized (this) {
+			//未書き込みの変更がある場合は、次の追記の後で圧縮する
+			if (pending.isEmpty() && journalLines > exists.cardinality() + compactThreshold) {
+				snapshot = snapshot();
+			}
+		}
+		if (snapshot != null) {
+			compact(snapshot);
 		}
-		String path = d + name + ".flg.txt";
-		File f = new File(path);
-		if (f.exists()) {
-			f.delete();
+	}
+
+	private List<String> snapshot() {
+		List<String> res = new ArrayList<>(exists.cardinality());
+		for (int i = exists.nextSetBit(0); i >= 0; i = exists.nextSetBit(i + 1)) {
+			res.add((on.get(i) ? "1 " : "0 ") + names.get(i));
+		}
+		return res;
+	}
+
+	private void compact(List<String> snapshot) {
+		File tmp = new File(journal.getPath() + ".tmp");
+		try {
+			Files.write(tmp.toPath(), snapshot, StandardCharsets.UTF_8);
+			Files.move(tmp.toPath(), journal.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			journalLines = snapshot.size();
+		} catch (IOException ex) {
+			GameLog.print("!> WARNING : FlagSystem journal compaction failed : " + ex);
+		}
+	}
+
+	/**
+	 * 未書き込みの変更をジャーナルに書き込み、完了するまで待機します.<br>
+	 */
+	public void flush() {
+		ExecutorService w;
+		synchronized (this) {
+			w = writer;
+		}
+		if (w == null) {
+			return;
 		}
+		try {
+			w.submit(this::writeBehind).get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ex) {
+			throw new ContentsIOException(ex.getCause());
+		}
+	}
+
+	public synchronized boolean exeist(String name) {
+		Integer i = index.get(name);
+		return i != null && exists.get(i);
+	}
+
+	public synchronized boolean notExistsOrOFF(String name) {
+		Integer i = index.get(name);
+		return i == null || !on.get(i);
 	}
 
-	private void set(File f, boolean status) {
-		if (f.exists()) {
-			f.delete();
+	public synchronized boolean existsAndON(String name) {
+		Integer i = index.get(name);
+		return i != null && on.get(i);
+	}
+
+	public void createAndON(String name) {
+		mutate('1', name);
+	}
+
+	public void createAndOFF(String name) {
+		mutate('0', name);
+	}
+
+	public void delete(String name) {
+		if (exeist(name)) {
+			mutate('-', name);
 		}
-		TextFile tf = new TextFile(f);
-		tf.getData().clear();
-		tf.getData().add(new UniversalValue(status ? "1" : "0"));
-		tf.save();
 	}
 
 	public static class FlagFile {
 
+		public final String name;
+		//ジャーナルで管理されるフラグではnull
+		@Nullable
 		public final TextFile file;
 		public final boolean exists;
 		@Nullable
 		public final Boolean status;
 
 		public FlagFile(TextFile file, boolean exists, Boolean value) {
+			this(file.getName(), file, exists, value);
+		}
+
+		public FlagFile(String name, @Nullable TextFile file, boolean exists, Boolean value) {
+			this.name = name;
 			this.file = file;
 			this.exists = exists;
 			this.status = value;
@@ -127,18 +323,17 @@ public class FlagSystem {
 
 		@Override
 		public String toString() {
-			return "FlagFile{" + "file=" + file + ", exists=" + exists + ", status=" + status + '}';
+			return "FlagFile{" + "name=" + name + ", exists=" + exists + ", status=" + status + '}';
 		}
 
 	}
 
-	public FlagFile get(String name) {
-		String d = dir.getName();
-		if (!d.endsWith("/") && !d.endsWith("\\")) {
-			d += "/";
+	public synchronized FlagFile get(String name) {
+		Integer i = index.get(name);
+		if (i == null || !exists.get(i)) {
+			return new FlagFile(name, null, false, null);
 		}
-		String path = d + name + ".flg.txt";
-		return getFile(new File(path));
+		return new FlagFile(name, null, true, on.get(i));
 	}
 
 	private FlagFile getFile(File f) {
@@ -153,12 +348,10 @@ public class FlagSystem {
 
 	}
 
-	public List<FlagFile> list() {
+	public synchronized List<FlagFile> list() {
 		List<FlagFile> r = new ArrayList<>();
-		for (var f : dir.listFiles()) {
-			if (f.getName().toLowerCase().endsWith(".flg.txt")) {
-				r.add(getFile(f));
-			}
+		for (int i = exists.nextSetBit(0); i >= 0; i = exists.nextSetBit(i + 1)) {
+			r.add(new FlagFile(names.get(i), null, true, on.get(i)));
 		}
 		return r;
 	}
@@ -88,6 +88,7 @@ public class Actor extends ScriptFile implements MWSpeaker, VisibleNameSupport {
 	private boolean named = false;
 	//
 	private boolean isLoaded = false;
+	private UniversalValue moveModel;
 	//
 	private FieldMap fieldMap;
 
@@ -116,6 +117,19 @@ public class Actor extends ScriptFile implements MWSpeaker, VisibleNameSupport {
 	@Override
 	@RequiresReturnTypeChange
 	public Actor load() throws FileNotFoundException, FileFormatException, ContentsIOException {
+		loadData();
+		bindMoveModel();
+		return this;
+	}
+
+	/**
+	 * 移動モデル以外をロードします. FieldMapの構築中にワーカースレッドから呼び出せます.<br>
+	 * 移動モデルはbindMoveModelで設定します。<br>
+	 *
+	 * @return このアクター.<br>
+	 */
+	@RequiresReturnTypeChange
+	public Actor loadData() throws FileNotFoundException, FileFormatException, ContentsIOException {
 		super.load();
 		DataFile f = new DataFile(super.getFile()).load();
 
@@ -144,51 +158,9 @@ public class Actor extends ScriptFile implements MWSpeaker, VisibleNameSupport {
 				this.named = pi.get("named").value.asBoolean();
 			}
 		}
-		//NPC MoveModel
+		//NPC MoveModel：移動モデルは通行可否を参照するので、bindMoveModelで設定する
 		{
-			if (pi.has("moveModel")) {
-				UniversalValue moveModel = pi.get("moveModel").value;
-				switch (moveModel.trim().safeSplit(",")[0].toUpperCase()) {
-					case "LOCKED" -> {
-						new FieldMapNPCMoveModelSetter(this).locked();
-					}
-					case "PROWL" -> {
-						int d = moveModel.trim().safeSplitUV(",")[1].asInt();
-						float wt = moveModel.trim().safeSplitUV(",")[2].asFloat();
-						new FieldMapNPCMoveModelSetter(this).prowl(d, wt);
-					}
-					case "TRIP" -> {
-						UniversalValue[] val = moveModel.safeSplitUV(",");
-						float tt = val[1].asFloat();
-						float ti = val[2].asFloat();
-						int sx = val[3].asInt();
-						int sy = val[4].asInt();
-						new FieldMapNPCMoveModelSetter(this).trip(tt, ti, new D2Idx(sx, sy));
-					}
-					case "PATROL" -> {
-
-					}
-					case "RANDOM_TGT" -> {
-						UniversalValue[] val = moveModel.safeSplitUV(",");
-						float w1 = val[1].asFloat();
-						float w2 = val[2].asFloat();
-						new FieldMapNPCMoveModelSetter(this).randomTgt(w1, w2);
-					}
-					case "GOTO_AND_STOP" -> {
-						UniversalValue[] val = moveModel.safeSplitUV(",");
-						float w = val[1].asFloat();
-						int x = val[2].asInt();
-						int y = val[3].asInt();
-						new FieldMapNPCMoveModelSetter(this).gotoAndStop(w, new D2Idx(x, y));
-					}
-					case "FOLLOW" -> {
-						new FieldMapNPCMoveModelSetter(this).follow(this.fieldSprite.getCurrentLocationOnMap());
-					}
-					default -> {
-						throw new FileFormatException("Actor : undefined move model : " + moveModel);
-					}
-				}
-			}
+			this.moveModel = pi.has("moveModel") ? pi.get("moveModel").value : null;
 		}
 		//STATUS
 		{
@@ -313,6 +285,57 @@ public class Actor extends ScriptFile implements MWSpeaker, VisibleNameSupport {
 		return this;
 	}
 
+	/**
+	 * loadDataで読み込んだ定義から移動モデルを設定します. FieldMapのレイヤーが反映された後に呼び出してください.<br>
+	 *
+	 * @throws FileFormatException 移動モデルの定義が不正な場合.<br>
+	 */
+	public void bindMoveModel() throws FileFormatException {
+		if (moveModel == null) {
+			return;
+		}
+		switch (moveModel.trim().safeSplit(",")[0].toUpperCase()) {
+			case "LOCKED" -> {
+				new FieldMapNPCMoveModelSetter(this).locked();
+			}
+			case "PROWL" -> {
+				int d = moveModel.trim().safeSplitUV(",")[1].asInt();
+				float wt = moveModel.trim().safeSplitUV(",")[2].asFloat();
+				new FieldMapNPCMoveModelSetter(this).prowl(d, wt);
+			}
+			case "TRIP" -> {
+				UniversalValue[] val = moveModel.safeSplitUV(",");
+				float tt = val[1].asFloat();
+				float ti = val[2].asFloat();
+				int sx = val[3].asInt();
+				int sy = val[4].asInt();
+				new FieldMapNPCMoveModelSetter(this).trip(tt, ti, new D2Idx(sx, sy));
+			}
+			case "PATROL" -> {
+
+			}
+			case "RANDOM_TGT" -> {
+				UniversalValue[] val = moveModel.safeSplitUV(",");
+				float w1 = val[1].asFloat();
+				float w2 = val[2].asFloat();
+				new FieldMapNPCMoveModelSetter(this).randomTgt(w1, w2);
+			}
+			case "GOTO_AND_STOP" -> {
+				UniversalValue[] val = moveModel.safeSplitUV(",");
+				float w = val[1].asFloat();
+				int x = val[2].asInt();
+				int y = val[3].asInt();
+				new FieldMapNPCMoveModelSetter(this).gotoAndStop(w, new D2Idx(x, y));
+			}
+			case "FOLLOW" -> {
+				new FieldMapNPCMoveModelSetter(this).follow(this.fieldSprite.getCurrentLocationOnMap());
+			}
+			default -> {
+				throw new FileFormatException("Actor : undefined move model : " + moveModel);
+			}
+		}
+	}
+
 	@Virtual
 	protected CharaSprite loadSprite(DataFile.Element pi) {
 		int waTime = pi.get("waTime").value.asInt();
@@ -76,10 +76,21 @@ public class NPC extends Actor {
 			return this;
 		}
 		super.load();
+		return this;
+	}
+
+	@Override
+	public NPC loadData() throws FileNotFoundException, FileFormatException, ContentsIOException {
+		super.loadData();
+		return this;
+	}
+
+	@Override
+	public void bindMoveModel() throws FileFormatException {
+		super.bindMoveModel();
 		if (getSprite().getMoveModel() == null) {
 			throw new FileFormatException("NPC moveModel is null : " + getId());
 		}
-		return this;
 	}
 
 	@DataChange
@@ -95,22 +106,11 @@ public class NPC extends Actor {
 		} catch (IOException ex) {
 			throw new ContentsIOException(ex);
 		}
-		D2Idx i = null;
-
-		//キー探索
-		for (var v : super.getFieldMap().getNPCMap().getMap().entrySet()) {
-			if (v.getValue().equals(this)) {
-				i = v.getKey();
-				break;
-			}
-		}
-		if (i == null) {
+		//削除
+		if (!super.getFieldMap().getNPCMap().remove(this)) {
 			return false;
 		}
 
-		//削除
-		super.getFieldMap().getNPCMap().getMap().remove(i);
-
 		//追加
 		if (next.isLoaded()) {
 			next.getNPCMap().add(idx, this);
@@ -19,11 +19,15 @@ package kinugasa.system.actor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiFunction;
-import java.util.function.Predicate;
 import java.util.stream.Stream;
+import kinugasa.game.annotation.NewInstance;
+import kinugasa.game.annotation.Nullable;
 import kinugasa.resource.ID;
 import kinugasa.resource.IDNotFoundException;
 import kinugasa.system.actor.status.StatusEffect;
@@ -32,6 +36,9 @@ import kinugasa.util.KRandom;
 
 /**
  * PersonalBag.<br>
+ * アイテムはIDごとの山として保持します。アイテムは同一性で比較され、追加されたインスタンスは山の中にそのまま保持されます。<br>
+ * インスタンスごとの状態や取得・破棄時のイベントを持たないアイテムをaddNで追加した場合だけ、山の代表の複製として数だけを持ちます。<br>
+ * 発生中効果による判定と状態の再計算は、1回の操作につきIDごとに1回だけ行われます。<br>
  *
  * @vesion 1.0.0 - 2025/10/02_22:01:26<br>
  * @author Shinacho.<br>
@@ -40,9 +47,68 @@ public class PersonalBag<T extends PersonalBagItem> implements Iterable<T> {
 
 	private final Actor actor;
 	private int max;
-	private final List<T> list = new ArrayList<>();
+	private final Map<String, Entry<T>> map = new LinkedHashMap<>();
+	private int size;
 	private final BiFunction<StatusEffect<?>, T, StatusUpdateResult> getFnc, dropFnc;
 
+	/**
+	 * 1つのIDのアイテムの山です.<br>
+	 * instancesの先頭が山の代表です。copiesは代表と同じインスタンスが繰り返し入っているものとして扱います。<br>
+	 */
+	private static final class Entry<T> {
+
+		//保持しているインスタンス。山が空でない間、空になることはない。
+		final List<T> instances = new ArrayList<>(2);
+		//代表の複製として数だけを持つ分
+		int copies;
+
+		T first() {
+			return instances.get(0);
+		}
+
+		int count() {
+			return instances.size() + copies;
+		}
+
+		private int indexOf(T t) {
+			for (int i = 0; i < instances.size(); i++) {
+				if (instances.get(i) == t) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		boolean contains(T t) {
+			return indexOf(t) >= 0;
+		}
+
+		int countOf(T t) {
+			int n = t == first() ? copies : 0;
+			for (var v : instances) {
+				if (v == t) {
+					n++;
+				}
+			}
+			return n;
+		}
+
+		//tを1つ取り出す。代表の場合は数だけの分から減らす。先頭を取り出した場合は次のインスタンスが代表になる。
+		@Nullable
+		T remove(T t) {
+			if (t == first() && copies > 0) {
+				copies--;
+				return t;
+			}
+			int i = indexOf(t);
+			return i < 0 ? null : instances.remove(i);
+		}
+
+		T get(int i) {
+			return i < instances.size() ? instances.get(i) : first();
+		}
+	}
+
 	public PersonalBag(Actor actor, int max,
 			BiFunction<StatusEffect<?>, T, StatusUpdateResult> getFnc,
 			BiFunction<StatusEffect<?>, T, StatusUpdateResult> dropFnc) {
@@ -69,84 +135,67 @@ public class PersonalBag<T extends PersonalBagItem> implements Iterable<T> {
 	}
 
 	final void initAdd(T t) {
-		this.list.add(t);
+		put(t);
 	}
 
-	public PersonalBag<T> add(T t) {
-		//持てる数の判定
-		if (!canAdd()) {
-			//持てない
-			return this;
-		}
-		//発生中効果による判定
-		for (var v : actor.getStatus().getCurrentEffect().sorted()) {
-			var r = getFnc.apply(v, t);
-			if (!r.isCanExec()) {
-				//追加されなかった
-				return this;
+	private void put(T t) {
+		map.computeIfAbsent(t.getId(), k -> new Entry<>()).instances.add(t);
+		size++;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E extends PersonalBagItem> E copyOf(E t) {
+		return (E) t.clone();
+	}
+
+	//数だけで持ってよいアイテム
+	private static boolean shareable(PersonalBagItem t) {
+		return !t.hasInstanceState() && !t.getThisEventRequire() && !t.dropThisEventRequire();
+	}
+
+	//発生中効果による判定。effectsは1回の操作につき1度だけ取得する。
+	private boolean canExec(List<StatusEffect<?>> effects, BiFunction<StatusEffect<?>, T, StatusUpdateResult> f, T t) {
+		for (var v : effects) {
+			if (!f.apply(v, t).isCanExec()) {
+				return false;
 			}
 		}
-		this.list.add(t);
-		if (t.getThisEventRequire()) {
-			t.whenGetThis(actor);
-		}
-		if (t.effectedRecalcRequire()) {
-			actor.getStatus().updateEffectedStatus();
+		return true;
+	}
+
+	private List<StatusEffect<?>> effects() {
+		return actor.getStatus().getCurrentEffect().sorted();
+	}
+
+	//IDごとにまとめる。順序は最初に出現した順。
+	private static <E extends PersonalBagItem> Map<String, List<E>> group(Collection<? extends E> c) {
+		Map<String, List<E>> res = new LinkedHashMap<>();
+		for (var t : c) {
+			res.computeIfAbsent(t.getId(), k -> new ArrayList<>()).add(t);
 		}
-		return this;
+		return res;
+	}
+
+	public PersonalBag<T> add(T t) {
+		return add(List.of(t));
 	}
 
 	public PersonalBag<T> add(T... t) {
 		return add(Arrays.asList(t));
 	}
 
+	/**
+	 * アイテムを追加します. 持てる数を超えた分と、発生中効果に拒否されたID以降のアイテムは追加されません.<br>
+	 *
+	 * @param c 追加するアイテム。<br>
+	 * @return このバッグ。<br>
+	 */
 	public PersonalBag<T> add(Collection<? extends T> c) {
-		boolean recalc = false;
-		for (var t : c) {
-			//持てる数の判定
-			if (!canAdd()) {
-				//持てない
-				return this;
-			}
-			//発生中効果による判定
-			for (var v : actor.getStatus().getCurrentEffect().sorted()) {
-				var r = getFnc.apply(v, t);
-				if (!r.isCanExec()) {
-					//追加されなかった
-					return this;
-				}
-			}
-			recalc |= t.effectedRecalcRequire();
-			this.list.add(t);
-			if (t.getThisEventRequire()) {
-				t.whenGetThis(actor);
-			}
-		}
-
-		if (recalc) {
-			actor.getStatus().updateEffectedStatus();
-		}
-		return this;
+		return addImpl(c, true);
 	}
 
 	public PersonalBag<T> addForce(T t) {
-		//持てる数の判定
-		//発生中効果による判定
-		for (var v : actor.getStatus().getCurrentEffect().sorted()) {
-			var r = getFnc.apply(v, t);
-			if (!r.isCanExec()) {
-				//追加されなかった
-				return this;
-			}
-		}
-		this.list.add(t);
-		if (t.getThisEventRequire()) {
-			t.whenGetThis(actor);
-		}
-		if (t.effectedRecalcRequire()) {
-			actor.getStatus().updateEffectedStatus();
-		}
-		return this;
+		return addForce(List.of(t));
 	}
 
 	public PersonalBag<T> addForce(T... t) {
@@ -154,53 +203,106 @@ public class PersonalBag<T extends PersonalBagItem> implements Iterable<T> {
 
 	}
 
+	/**
+	 * 持てる数を無視してアイテムを追加します. 発生中効果による判定は行われます.<br>
+	 *
+	 * @param c 追加するアイテム。<br>
+	 * @return このバッグ。<br>
+	 */
 	public PersonalBag<T> addForce(Collection<? extends T> c) {
+		return addImpl(c, false);
+	}
+
+	private PersonalBag<T> addImpl(Collection<? extends T> c, boolean checkMax) {
+		if (c.isEmpty()) {
+			return this;
+		}
+		List<StatusEffect<?>> effects = effects();
 		boolean recalc = false;
-		for (var t : c) {
+		for (var g : group(c).values()) {
 			//持てる数の判定
-			if (!canAdd()) {
+			int n = checkMax ? Math.min(g.size(), spaceSize()) : g.size();
+			if (n <= 0) {
 				//持てない
-				return this;
+				break;
 			}
+			T t = g.get(0);
 			//発生中効果による判定
-			for (var v : actor.getStatus().getCurrentEffect().sorted()) {
-				var r = getFnc.apply(v, t);
-				if (!r.isCanExec()) {
-					//追加されなかった
-					return this;
+			if (!canExec(effects, getFnc, t)) {
+				//追加されなかった
+				break;
+			}
+			for (int i = 0; i < n; i++) {
+				T v = g.get(i);
+				put(v);
+				if (v.getThisEventRequire()) {
+					v.whenGetThis(actor);
 				}
 			}
 			recalc |= t.effectedRecalcRequire();
-			this.list.add(t);
-			if (t.getThisEventRequire()) {
-				t.whenGetThis(actor);
+			if (n < g.size()) {
+				break;
 			}
 		}
-
 		if (recalc) {
 			actor.getStatus().updateEffectedStatus();
 		}
 		return this;
 	}
 
+	/**
+	 * tの複製をn個追加します. t自体は追加されません.<br>
+	 * インスタンスごとの状態やイベントを持たないアイテムは、複製を作成せずに数だけが保持されます。<br>
+	 *
+	 * @param t アイテム。<br>
+	 * @param n 数。<br>
+	 * @return このバッグ。<br>
+	 */
 	public PersonalBag<T> addN(T t, int n) {
-		List<T> l = new ArrayList<>();
-		for (int i = 0; i < n; i++) {
-			l.add((T) t.clone());
-		}
-		return add(l);
+		return addNImpl(t, n, true);
 	}
 
 	public PersonalBag<T> addNForce(T t, int n) {
-		List<T> l = new ArrayList<>();
-		for (int i = 0; i < n; i++) {
-			l.add((T) t.clone());
+		return addNImpl(t, n, false);
+	}
+
+	private PersonalBag<T> addNImpl(T t, int n, boolean checkMax) {
+		if (checkMax) {
+			n = Math.min(n, spaceSize());
+		}
+		if (n <= 0) {
+			return this;
+		}
+		if (!canExec(effects(), getFnc, t)) {
+			return this;
 		}
-		return addForce(l);
+		if (shareable(t)) {
+			//状態を持たないので、既にある山の代表の複製として数える
+			Entry<T> e = map.get(t.getId());
+			if (e == null) {
+				put(copyOf(t));
+				e = map.get(t.getId());
+				n--;
+			}
+			e.copies += n;
+			size += n;
+		} else {
+			for (int i = 0; i < n; i++) {
+				T v = copyOf(t);
+				put(v);
+				if (v.getThisEventRequire()) {
+					v.whenGetThis(actor);
+				}
+			}
+		}
+		if (t.effectedRecalcRequire()) {
+			actor.getStatus().updateEffectedStatus();
+		}
+		return this;
 	}
 
 	public boolean has(String id) {
-		return list.stream().anyMatch(p -> p.getId().equals(id));
+		return map.containsKey(id);
 	}
 
 	public boolean has(ID i) {
@@ -208,19 +310,22 @@ public class PersonalBag<T extends PersonalBagItem> implements Iterable<T> {
 	}
 
 	public boolean has(T t) {
-		return list.stream().anyMatch(p -> p.equals(t));
+		Entry<T> e = map.get(t.getId());
+		return e != null && e.contains(t);
 	}
 
 	public int hasN(String id) {
-		return (int) list.stream().filter(p -> p.getId().equals(id)).count();
+		Entry<T> e = map.get(id);
+		return e == null ? 0 : e.count();
 	}
 
 	public int hasN(ID i) {
-		return (int) list.stream().filter(p -> p.getId().equals(i.getId())).count();
+		return hasN(i.getId());
 	}
 
 	public int hasN(T t) {
-		return (int) list.stream().filter(p -> p.equals(t)).count();
+		Entry<T> e = map.get(t.getId());
+		return e == null ? 0 : e.countOf(t);
 	}
 
 	public boolean canAdd() {
@@ -232,35 +337,29 @@ public class PersonalBag<T extends PersonalBagItem> implements Iterable<T> {
 	}
 
 	public int currentSize() {
-		return list.size();
+		return size;
 	}
 
-	public PersonalBag<T> drop(T t) {
-		//発生中効果による判定
-		for (var v : actor.getStatus().getCurrentEffect().sorted()) {
-			var r = dropFnc.apply(v, t);
-			if (!r.isCanExec()) {
-				//されなかった
-				return this;
-			}
-		}
-		this.list.remove(t);
-		if (t.dropThisEventRequire()) {
-			t.whenDropThis(actor);
+	//tを1つ取り出す。持っていない場合はnull。空になった山は削除する。
+	@Nullable
+	private T take(Entry<T> e, T t) {
+		T res = e.remove(t);
+		if (res == null) {
+			return null;
 		}
-		if (t.effectedRecalcRequire()) {
-			actor.getStatus().updateEffectedStatus();
+		size--;
+		if (e.count() == 0) {
+			map.remove(res.getId());
 		}
-		return this;
+		return res;
+	}
+
+	public PersonalBag<T> drop(T t) {
+		return dropAll(List.of(t));
 	}
 
 	public PersonalBag<T> drop(String id) {
-		for (var v : list) {
-			if (v.getId().equals(id)) {
-				return drop(v);
-			}
-		}
-		return this;
+		return dropN(id, 1);
 	}
 
 	public PersonalBag<T> drop(ID id) {
@@ -271,23 +370,48 @@ public class PersonalBag<T extends PersonalBagItem> implements Iterable<T> {
 		return dropAll(Arrays.asList(t));
 	}
 
+	/**
+	 * アイテムを捨てます. 持っていないインスタンスと、発生中効果に拒否されたIDのアイテムは捨てられません.<br>
+	 *
+	 * @param c 捨てるアイテム。<br>
+	 * @return このバッグ。<br>
+	 */
 	public PersonalBag<T> dropAll(Collection<? extends T> c) {
+		if (c.isEmpty()) {
+			return this;
+		}
+		List<StatusEffect<?>> effects = effects();
 		boolean recalc = false;
-		L1:
-		for (var t : c) {
+		for (var g : group(c).values()) {
+			Entry<T> e = map.get(g.get(0).getId());
+			if (e == null) {
+				continue;
+			}
+			T t = null;
+			for (var v : g) {
+				if (e.contains(v)) {
+					t = v;
+					break;
+				}
+			}
+			if (t == null) {
+				continue;
+			}
 			//発生中効果による判定
-			for (var v : actor.getStatus().getCurrentEffect().sorted()) {
-				var r = dropFnc.apply(v, t);
-				if (!r.isCanExec()) {
-					//されなかった
-					continue L1;
+			if (!canExec(effects, dropFnc, t)) {
+				//されなかった
+				continue;
+			}
+			for (var v : g) {
+				T removed = take(e, v);
+				if (removed == null) {
+					continue;
+				}
+				if (removed.dropThisEventRequire()) {
+					removed.whenDropThis(actor);
 				}
 			}
 			recalc |= t.effectedRecalcRequire();
-			this.list.remove(t);
-			if (t.dropThisEventRequire()) {
-				t.whenDropThis(actor);
-			}
 		}
 		if (recalc) {
 			actor.getStatus().updateEffectedStatus();
@@ -295,26 +419,32 @@ public class PersonalBag<T extends PersonalBagItem> implements Iterable<T> {
 		return this;
 	}
 
+	/**
+	 * IDのアイテムをn個捨てます. 持っている数より多い場合は全て捨てます.<br>
+	 *
+	 * @param id アイテムのID。<br>
+	 * @param n 数。<br>
+	 * @return このバッグ。<br>
+	 */
 	public PersonalBag<T> dropN(String id, int n) {
-		boolean recalc = false;
-		L1:
+		Entry<T> e = map.get(id);
+		if (e == null || n <= 0) {
+			return this;
+		}
+		//発生中効果による判定
+		T t = e.first();
+		if (!canExec(effects(), dropFnc, t)) {
+			//されなかった
+			return this;
+		}
+		n = Math.min(n, e.count());
 		for (int i = 0; i < n; i++) {
-			//発生中効果による判定
-			T t = getOrNull(id);
-			for (var v : actor.getStatus().getCurrentEffect().sorted()) {
-				var r = dropFnc.apply(v, t);
-				if (!r.isCanExec()) {
-					//されなかった
-					continue L1;
-				}
-			}
-			recalc |= t.effectedRecalcRequire();
-			this.list.remove(t);
-			if (t.dropThisEventRequire()) {
-				t.whenDropThis(actor);
+			T v = take(e, e.first());
+			if (v.dropThisEventRequire()) {
+				v.whenDropThis(actor);
 			}
 		}
-		if (recalc) {
+		if (t.effectedRecalcRequire()) {
 			actor.getStatus().updateEffectedStatus();
 		}
 		return this;
@@ -325,32 +455,31 @@ public class PersonalBag<T extends PersonalBagItem> implements Iterable<T> {
 	}
 
 	public PersonalBag<T> dropN(T id, int n) {
-		boolean recalc = false;
-		L1:
-		for (int i = 0; i < n; i++) {
-			//発生中効果による判定
-			T t = getOrNull(id);
-			for (var v : actor.getStatus().getCurrentEffect().sorted()) {
-				var r = dropFnc.apply(v, t);
-				if (!r.isCanExec()) {
-					//されなかった
-					continue L1;
-				}
-			}
-			recalc |= t.effectedRecalcRequire();
-			this.list.remove(t);
-			if (t.dropThisEventRequire()) {
-				t.whenDropThis(actor);
-			}
+		if (!has(id)) {
+			return this;
 		}
-		if (recalc) {
-			actor.getStatus().updateEffectedStatus();
+		return dropN(id.getId(), n);
+	}
+
+	/**
+	 * 全てのアイテムを並べたリストを返します. 数だけで保持しているアイテムは、山の代表のインスタンスが繰り返されます.<br>
+	 *
+	 * @return 新しいリスト。<br>
+	 */
+	@NewInstance
+	public List<T> asList() {
+		List<T> res = new ArrayList<>(size);
+		for (var e : map.values()) {
+			res.addAll(e.instances);
+			for (int i = 0; i < e.copies; i++) {
+				res.add(e.first());
+			}
 		}
-		return this;
+		return res;
 	}
 
 	public Stream<T> stream() {
-		return list.stream();
+		return asList().stream();
 	}
 
 	public T get(String id) {
@@ -373,40 +502,45 @@ public class PersonalBag<T extends PersonalBagItem> implements Iterable<T> {
 		return get(i.getId());
 	}
 
+	@Nullable
 	public T getOrNull(String id) {
-		for (var v : list) {
-			if (v.getId().equals(id)) {
-				return v;
-			}
-		}
-		return null;
+		Entry<T> e = map.get(id);
+		return e == null ? null : e.first();
 	}
 
+	@Nullable
 	public T getOrNull(T i) {
-		for (var v : list) {
-			if (v.equals(i)) {
-				return v;
-			}
-		}
-		return null;
+		return has(i) ? i : null;
 	}
 
+	@Nullable
 	public T getOrNull(ID i) {
 		return getOrNull(i.getId());
 	}
 
+	@Nullable
 	public T random() {
-		return KRandom.randomChoice(list);
+		if (size == 0) {
+			return null;
+		}
+		int r = KRandom.randomAbsInt(size);
+		for (var e : map.values()) {
+			if (r < e.count()) {
+				return e.get(r);
+			}
+			r -= e.count();
+		}
+		throw new InternalError("PersonalBag size mismatch : " + this);
 	}
 
 	@Override
 	public Iterator<T> iterator() {
-		return list.iterator();
+		return Collections.unmodifiableList(asList()).iterator();
 	}
 
 	@Override
 	public String toString() {
-		return "PersonalBag{" + "list=" + list + '}';
+		return "PersonalBag{" + "list=" + asList() + '}';
 	}
 
 }
@@ -104,6 +104,11 @@ public abstract class PersonalBagItem extends ScriptFile
 		return recalc;
 	}
 
+	/* 強化やエンチャントなど、インスタンスごとに変わる状態を持つ場合はtrue。falseの場合、PersonalBagは複製を作らず数だけで持つことがある */
+	public boolean hasInstanceState() {
+		return true;
+	}
+
 //	public<T extends PersonalBagItem> StatusEffectable<T> effect1(){
 //		
 //	}
@@ -63,13 +63,24 @@ public class GotoAndStopNPCMove extends FieldMapNPCMoveModel {
 	@Override
 	public void setNext() {
 		waitTimeOfMove = new FrameTimeCounter(KRandom.spread(waitTimeBaseOfMove, WAIT_TIME_SPREAD));
-		stage = 0;
+		stage = 4;
 		idx = 0;
-		route = RoutingUtil.getRoute(fm, sprite, initial, tgt);
-		if (route.isEmpty()) {
-			stage = 3;
-		}
-		nextIdx = route.get(0);
+		route = null;
+		//経路はワーカーで探索し、stage4で待つ
+		PathRequestService.getInstance().submit(fm.getWalkability(sprite.getVehicle()), initial, tgt, r -> {
+			route = r;
+			int next = 0;
+			if (route.isEmpty()) {
+				next = 3;
+			} else {
+				nextIdx = route.get(0);
+			}
+			if (stage == -1) {
+				prevStage = next;
+			} else {
+				stage = next;
+			}
+		});
 	}
 
 	@Override
@@ -80,7 +91,11 @@ public class GotoAndStopNPCMove extends FieldMapNPCMoveModel {
 			return;
 		}
 
-		//初期化されたときにすでにルートはできている。
+		//経路探索待ち
+		if (stage == 4) {
+			return;
+		}
+
 		//移動待機
 		if (stage == 0 && waitTimeOfMove.update() == TimeCounterState.INACTIVE) {
 			return;
@@ -246,6 +261,9 @@ public class GotoAndStopNPCMove extends FieldMapNPCMoveModel {
 
 	@Override
 	public String toString() {
+		if (route == null || route.isEmpty()) {
+			return "GOTO_AND_STOP_" + tgt + " / " + (stage == 4 ? "ROUTING" : "NO_ROUTE");
+		}
 		return "GOTO_AND_STOP_" + route.get(route.size() - 1) + " / " + this.nextMoveTimeCounter();
 	}
 
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.system.actor.npcMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import kinugasa.field4.D2Idx;
+import kinugasa.field4.WalkabilityMap;
+
+/**
+ * 再利用可能なA*経路探索です.<br>
+ * 作業用の配列はインスタンスに保持され、次の探索で再利用されます。<br>
+ * ノードはy*W+xの整数で表し、探索中にオブジェクトを作成しません。<br>
+ * インスタンスはスレッドセーフではありません。スレッドごとに作成してください。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_11:20:41<br>
+ * @author Shinacho.<br>
+ */
+public final class PathFinder {
+
+	private static final int STEP = 10;
+	private static final int[] DX = {-1, -1, -1, 0, 0, 1, 1, 1};
+	private static final int[] DY = {-1, 0, 1, -1, 1, -1, 0, 1};
+	//
+	private int[] g = new int[0];
+	private int[] parent = new int[0];
+	private int[] openStamp = new int[0];
+	private int[] closedStamp = new int[0];
+	private int stamp = 0;
+	//二分ヒープ
+	private int[] heapNode = new int[64];
+	private int[] heapF = new int[64];
+	private int heapSize;
+
+	public PathFinder() {
+	}
+
+	private void ensureCapacity(int n) {
+		if (g.length >= n) {
+			return;
+		}
+		g = new int[n];
+		parent = new int[n];
+		openStamp = new int[n];
+		closedStamp = new int[n];
+		stamp = 0;
+	}
+
+	private void nextStamp() {
+		stamp++;
+		if (stamp == Integer.MAX_VALUE) {
+			Arrays.fill(openStamp, 0);
+			Arrays.fill(closedStamp, 0);
+			stamp = 1;
+		}
+	}
+
+	/**
+	 * startからgoalまでの経路を探索します.<br>
+	 * 8方向に移動でき、斜め移動のコストは縦横と同じです。startのタイルは通行可否を問いません。<br>
+	 *
+	 * @param w 通行可否表。<br>
+	 * @param start 開始位置。<br>
+	 * @param goal 目的地。<br>
+	 * @return startとgoalを含む経路。到達できない場合は空のリスト。<br>
+	 */
+	public List<D2Idx> find(WalkabilityMap w, D2Idx start, D2Idx goal) {
+		final int W = w.getWidth();
+		final int H = w.getHeight();
+		if (start.x < 0 || start.y < 0 || start.x >= W || start.y >= H) {
+			return List.of();
+		}
+		if (!w.canStep(goal) && !start.equals(goal)) {
+			return List.of();
+		}
+		ensureCapacity(W * H);
+		nextStamp();
+		heapSize = 0;
+
+		final int s = start.y * W + start.x;
+		final int t = goal.y * W + goal.x;
+		open(s, 0, -1);
+		push(s, heuristic(start.x, start.y, goal.x, goal.y));
+
+		while (heapSize > 0) {
+			int c = pop();
+			if (closedStamp[c] == stamp) {
+				continue;
+			}
+			closedStamp[c] = stamp;
+			if (c == t) {
+				return reconstruct(t, W);
+			}
+			int cx = c % W;
+			int cy = c / W;
+			for (int d = 0; d < DX.length; d++) {
+				int nx = cx + DX[d];
+				int ny = cy + DY[d];
+				if (!w.canStep(nx, ny)) {
+					continue;
+				}
+				int n = ny * W + nx;
+				if (closedStamp[n] == stamp) {
+					continue;
+				}
+				int ng = g[c] + STEP;
+				if (openStamp[n] != stamp || ng < g[n]) {
+					open(n, ng, c);
+					push(n, ng + heuristic(nx, ny, goal.x, goal.y));
+				}
+			}
+		}
+		return List.of();
+	}
+
+	private void open(int n, int gv, int p) {
+		openStamp[n] = stamp;
+		g[n] = gv;
+		parent[n] = p;
+	}
+
+	private static int heuristic(int x, int y, int gx, int gy) {
+		return STEP * Math.max(Math.abs(x - gx), Math.abs(y - gy));
+	}
+
+	private List<D2Idx> reconstruct(int t, int W) {
+		int len = 0;
+		for (int c = t; c != -1; c = parent[c]) {
+			len++;
+		}
+		D2Idx[] r = new D2Idx[len];
+		for (int c = t, i = len - 1; c != -1; c = parent[c], i--) {
+			r[i] = new D2Idx(c % W, c / W);
+		}
+		return new ArrayList<>(Arrays.asList(r));
+	}
+
+	private void push(int node, int f) {
+		if (heapSize == heapNode.length) {
+			heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+			heapF = Arrays.copyOf(heapF, heapSize * 2);
+		}
+		int i = heapSize++;
+		while (i > 0) {
+			int p = (i - 1) >>> 1;
+			if (heapF[p] <= f) {
+				break;
+			}
+			heapNode[i] = heapNode[p];
+			heapF[i] = heapF[p];
+			i = p;
+		}
+		heapNode[i] = node;
+		heapF[i] = f;
+	}
+
+	private int pop() {
+		int res = heapNode[0];
+		int lastNode = heapNode[--heapSize];
+		int lastF = heapF[heapSize];
+		int i = 0;
+		int half = heapSize >>> 1;
+		while (i < half) {
+			int c = 2 * i + 1;
+			int r = c + 1;
+			if (r < heapSize && heapF[r] < heapF[c]) {
+				c = r;
+			}
+			if (lastF <= heapF[c]) {
+				break;
+			}
+			heapNode[i] = heapNode[c];
+			heapF[i] = heapF[c];
+			i = c;
+		}
+		heapNode[i] = lastNode;
+		heapF[i] = lastF;
+		return res;
+	}
+
+}
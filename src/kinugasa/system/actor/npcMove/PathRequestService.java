@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2025 Shinacho
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package kinugasa.system.actor.npcMove;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import kinugasa.field4.D2Idx;
+import kinugasa.field4.WalkabilityMap;
+import kinugasa.game.GameLog;
+import kinugasa.game.annotation.LoopCall;
+import kinugasa.game.annotation.Singleton;
+
+/**
+ * NPCの経路探索をワーカースレッドで行うサービスです.<br>
+ * 探索はWalkabilityMapのスナップショットに対して行われ、結果は次のupdateでゲームループのスレッドから適用されます。<br>
+ * 1回のupdateで適用される結果の数はapplyBudgetで制限されます。<br>
+ *
+ * @vesion 1.0.0 - 2025/10/18_12:05:33<br>
+ * @author Shinacho.<br>
+ */
+@Singleton
+public final class PathRequestService {
+
+	private static int workerNum = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+	private static int applyBudget = 8;
+
+	public static int getWorkerNum() {
+		return workerNum;
+	}
+
+	/**
+	 * 経路探索を行うスレッド数を設定します. 最初のsubmitより前に設定してください.<br>
+	 *
+	 * @param workerNum スレッド数。<br>
+	 */
+	public static void setWorkerNum(int workerNum) {
+		if (workerNum <= 0) {
+			throw new IllegalArgumentException("PathRequestService : workerNum is 0 or minus : " + workerNum);
+		}
+		PathRequestService.workerNum = workerNum;
+	}
+
+	public static int getApplyBudget() {
+		return applyBudget;
+	}
+
+	/**
+	 * 1回のupdateで適用する探索結果の最大数を設定します.<br>
+	 *
+	 * @param applyBudget 結果の数。<br>
+	 */
+	public static void setApplyBudget(int applyBudget) {
+		if (applyBudget <= 0) {
+			throw new IllegalArgumentException("PathRequestService : applyBudget is 0 or minus : " + applyBudget);
+		}
+		PathRequestService.applyBudget = applyBudget;
+	}
+
+	private static final PathRequestService INSTANCE = new PathRequestService();
+
+	public static PathRequestService getInstance() {
+		return INSTANCE;
+	}
+
+	private PathRequestService() {
+	}
+
+	private ExecutorService pool;
+	private final ConcurrentLinkedQueue<Runnable> completed = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger generation = new AtomicInteger();
+
+	private synchronized ExecutorService getPool() {
+		if (pool == null) {
+			AtomicInteger n = new AtomicInteger();
+			pool = Executors.newFixedThreadPool(workerNum, r -> {
+				Thread t = new Thread(r, "PathRequestService-" + n.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		return pool;
+	}
+
+	/**
+	 * 経路探索を要求します.<br>
+	 * onApplyは、探索が完了した後のupdateでゲームループのスレッドから呼び出されます。<br>
+	 * 探索に失敗した場合は空のリストが渡されます。<br>
+	 *
+	 * @param w 通行可否表のスナップショット。<br>
+	 * @param start 開始位置。<br>
+	 * @param goal 目的地。<br>
+	 * @param onApply 結果の適用処理。<br>
+	 * @return 探索結果。適用を待たずに完了します。<br>
+	 */
+	public CompletableFuture<List<D2Idx>> submit(WalkabilityMap w, D2Idx start, D2Idx goal, Consumer<List<D2Idx>> onApply) {
+		final int gen = generation.get();
+		CompletableFuture<List<D2Idx>> res = CompletableFuture.supplyAsync(() -> RoutingUtil.getRoute(w, start, goal), getPool());
+		res.whenComplete((r, ex) -> {
+			if (ex != null) {
+				GameLog.print("PathRequestService : route failed : " + start + " -> " + goal + " : " + ex);
+			}
+			List<D2Idx> route = ex == null ? r : List.of();
+			completed.add(() -> {
+				if (gen == generation.get()) {
+					onApply.accept(route);
+				}
+			});
+		});
+		return res;
+	}
+
+	/**
+	 * 完了した探索結果を、applyBudgetの数まで適用します.
+	 */
+	@LoopCall
+	public void update() {
+		Runnable r;
+		for (int i = 0; i < applyBudget && (r = completed.poll()) != null; i++) {
+			r.run();
+		}
+	}
+
+	/**
+	 * 適用待ちと実行中の探索結果をすべて破棄します. マップを切り替えるときに呼び出してください.
+	 */
+	public void clear() {
+		generation.incrementAndGet();
+		completed.clear();
+	}
+
+	public int getPendingCount() {
+		return completed.size();
+	}
+
+	public synchronized void shutdown() {
+		clear();
+		if (pool != null) {
+			pool.shutdownNow();
+			pool = null;
+		}
+	}
+
+}
@@ -21,7 +21,6 @@ import kinugasa.game.annotation.NotNewInstance;
 import kinugasa.field4.D2Idx;
 import kinugasa.field4.FieldMap;
 import kinugasa.field4.FieldMapSystem;
-import kinugasa.field4.LayeredTile;
 import kinugasa.system.GameSystem;
 import kinugasa.system.actor.Actor;
 import kinugasa.system.actor.CharaSprite;
@@ -139,8 +138,7 @@ public class ProwlNPCMove extends FieldMapNPCMoveModel {
 			}
 			//乗れるチップ判定
 			{
-				LayeredTile tile = fm.getTile(tgt);
-				if (!sprite.getVehicle().canStep(tile)) {
+				if (!RoutingUtil.canStep(fm, sprite, tgt)) {
 					setNext();
 					return;
 				}
@@ -88,21 +88,22 @@ public class TripNPCMove extends FieldMapNPCMoveModel {
 		stage = 0;
 		//tgtB or initial
 		idx = 0;
-		route.clear();
-		if (toTgtB) {
-			toTgtB = !toTgtB;
-			route = RoutingUtil.getRoute(fm, sprite, tgtA, tgtB);
+		route = List.of();
+		D2Idx from = toTgtB ? tgtA : tgtB;
+		D2Idx to = toTgtB ? tgtB : tgtA;
+		toTgtB = !toTgtB;
+		//経路はワーカーで探索し、stage5で待つ
+		stage = 5;
+		PathRequestService.getInstance().submit(fm.getWalkability(sprite.getVehicle()), from, to, r -> {
+			route = r;
 			//経路がない場合はstage4で待機してから再計算する
-			if (route.isEmpty()) {
-				stage = 4;
-			}
-		} else {
-			toTgtB = !toTgtB;
-			route = RoutingUtil.getRoute(fm, sprite, tgtB, tgtA);
-			if (route.isEmpty()) {
-				stage = 4;
+			int next = route.isEmpty() ? 4 : 0;
+			if (stage == -1) {
+				prevStage = next;
+			} else {
+				stage = next;
 			}
-		}
+		});
 	}
 
 	@Override
@@ -111,6 +112,10 @@ public class TripNPCMove extends FieldMapNPCMoveModel {
 		if (stage == -1) {
 			return;
 		}
+		//経路探索待ち
+		if (stage == 5) {
+			return;
+		}
 		//移動ごとの待機
 		if (stage == 0) {
 			if (waitTimeOfMove.update() == TimeCounterState.ACTIVE) {
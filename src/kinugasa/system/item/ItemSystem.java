@@ -16,25 +16,35 @@
  */
 package kinugasa.system.item;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.EnumMap;
-import java.util.HashSet;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
 import kinugasa.game.GameLog;
+import kinugasa.game.annotation.NewInstance;
 import kinugasa.game.annotation.Singleton;
-import kinugasa.resource.FileNotFoundException;
-import kinugasa.resource.text.TextFile;
+import kinugasa.resource.text.DataFile;
+import kinugasa.resource.text.FileFormatException;
 import kinugasa.system.GameSystem;
-import kinugasa.system.UniversalValue;
 
 /**
  * ItemSystem.<br>
+ * initでアイテムのディレクトリを走査し、アイテムに0から連番の番号を付けます。
+ * ItemTagsごとに、その番号をビットとする表を作成するため、複数タグの検索はlongごとのANDで行われます。<br>
+ * 走査結果はアイテムのディレクトリの索引ファイルに保存され、サイズか更新日時が変わったアイテムファイルだけを読み直します。<br>
  *
  * @vesion 1.0.0 - 2025/08/13_15:16:05<br>
  * @author Shinacho.<br>
@@ -52,12 +62,27 @@ public class ItemSystem {
 	}
 
 	public static final String SUFFIX = ".item.txt";
+	/**
+	 * 索引ファイルの名前です. アイテムのディレクトリに作成されます.<br>
+	 */
+	public static final String INDEX_FILE_NAME = "items.itemIndex.bin";
+	private static final int INDEX_VERSION = 1;
+	private static final ItemTags[] TAGS = ItemTags.values();
 	private File root;
-	private final EnumMap<ItemTags, TextFile> indexFiles = new EnumMap<>(ItemTags.class);
+	//番号->ID
+	private String[] ids = new String[0];
+	//ID->番号
+	private final Map<String, Integer> idIndex = new HashMap<>();
+	//タグのordinal->番号のビット表
+	private long[][] postings = new long[ItemTags.values().length][0];
+
+	private record Entry(long size, long lastModified, EnumSet<ItemTags> tags) {
+
+	}
 
 	public void init(File root) {
 		if (GameSystem.isDebugMode()) {
-			GameLog.print("ScriptSystem init start");
+			GameLog.print("ItemSystem init start");
 			GameLog.addIndent();
 		}
 		if (!root.isDirectory()) {
@@ -67,15 +92,11 @@ public class ItemSystem {
 			throw new IllegalArgumentException("ItemSystem" + root.getName() + " is not exists");
 		}
 		this.root = root;
-		//タグファイルの作成
-		for (var v : ItemTags.values()) {
-			String p = root.getPath();
-			if (!p.endsWith(File.separator)) {
-				p += "/";
-			}
-			indexFiles.put(v, new TextFile(p + v.toString() + ".itemIndex.txt"));
-		}
 		setIndex(root);
+		if (GameSystem.isDebugMode()) {
+			GameLog.removeIndent();
+			GameLog.print("ItemSystem init end : " + ids.length + " items");
+		}
 	}
 
 	private String getPath(String id) {
@@ -83,23 +104,109 @@ public class ItemSystem {
 	}
 
 	private void setIndex(File root) {
-		for (var v : root.listFiles()) {
-			//アイテムは1つのフォルダに入ってる必要がある。IDでPK指定するため。
-//			if (v.isDirectory()) {
-//				setIndex(v);
-//				continue;
-//			}
-			if (!v.getName().endsWith(SUFFIX)) {
-				continue;
+		File indexFile = new File(root, INDEX_FILE_NAME);
+		Map<String, Entry> cache = loadIndex(indexFile);
+		Map<String, Entry> entries = new HashMap<>();
+		boolean modified = false;
+		//アイテムは1つのフォルダに入ってる必要がある。IDでPK指定するため。
+		File[] files = root.listFiles((d, n) -> n.endsWith(SUFFIX));
+		Arrays.sort(files);
+		List<String> idList = new ArrayList<>(files.length);
+		for (var v : files) {
+			String name = v.getName();
+			long size = v.length();
+			long lastModified = v.lastModified();
+			Entry e = cache.get(name);
+			if (e == null || e.size != size || e.lastModified != lastModified) {
+				e = new Entry(size, lastModified, scanTags(v));
+				modified = true;
 			}
-//			Item i = new Item(v);
-//			i.load();
-//			for (var t : i.getItemTags()) {
-//				TextFile tf = indexFiles.get(t);
-//				tf.getData().add(new UniversalValue(i.getFile().getPath()));
-//				tf.save();
-//			}
-//			i.free();
+			entries.put(name, e);
+			idList.add(name.substring(0, name.length() - SUFFIX.length()));
+		}
+		if (modified || entries.size() != cache.size()) {
+			saveIndex(indexFile, entries);
+		}
+
+		//番号とビット表の作成
+		int words = (idList.size() + 63) >>> 6;
+		long[][] p = new long[TAGS.length][words];
+		idIndex.clear();
+		for (int i = 0; i < idList.size(); i++) {
+			idIndex.put(idList.get(i), i);
+			for (var t : entries.get(files[i].getName()).tags) {
+				p[t.ordinal()][i >>> 6] |= 1L << i;
+			}
+		}
+		this.ids = idList.toArray(String[]::new);
+		this.postings = p;
+	}
+
+	private EnumSet<ItemTags> scanTags(File f) throws FileFormatException {
+		EnumSet<ItemTags> res = EnumSet.noneOf(ItemTags.class);
+		DataFile d = new DataFile(f).load();
+		if (d.has("GENERAL") && d.get("GENERAL").has("itemTags")) {
+			for (var v : d.get("GENERAL").get("itemTags").value.asCsv()) {
+				try {
+					res.add(ItemTags.valueOf(v.trim()));
+				} catch (IllegalArgumentException ex) {
+					throw new FileFormatException("ItemSystem : undefined item tag : " + v + " : " + f.getName());
+				}
+			}
+		}
+		d.free();
+		return res;
+	}
+
+	private Map<String, Entry> loadIndex(File file) {
+		Map<String, Entry> res = new HashMap<>();
+		if (!file.exists()) {
+			return res;
+		}
+		try (DataInputStream is = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (is.readInt() != INDEX_VERSION) {
+				return res;
+			}
+			int n = is.readInt();
+			for (int i = 0; i < n; i++) {
+				String name = is.readUTF();
+				long size = is.readLong();
+				long lastModified = is.readLong();
+				int tagNum = is.readInt();
+				EnumSet<ItemTags> tags = EnumSet.noneOf(ItemTags.class);
+				for (int j = 0; j < tagNum; j++) {
+					tags.add(ItemTags.valueOf(is.readUTF()));
+				}
+				res.put(name, new Entry(size, lastModified, tags));
+			}
+		} catch (IOException | RuntimeException ex) {
+			//壊れた索引は捨てて作り直す
+			GameLog.print("ItemSystem : index is broken, rebuild : " + file + " : " + ex);
+			res.clear();
+		}
+		return res;
+	}
+
+	private void saveIndex(File file, Map<String, Entry> entries) {
+		File tmp = new File(file.getPath() + ".tmp");
+		try {
+			try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				os.writeInt(INDEX_VERSION);
+				os.writeInt(entries.size());
+				for (var v : entries.entrySet()) {
+					os.writeUTF(v.getKey());
+					os.writeLong(v.getValue().size);
+					os.writeLong(v.getValue().lastModified);
+					os.writeInt(v.getValue().tags.size());
+					for (var t : v.getValue().tags) {
+						os.writeUTF(t.name());
+					}
+				}
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException ex) {
+			//索引が書けなくても検索はできる
+			GameLog.print("ItemSystem : cant write index : " + file + " : " + ex);
 		}
 	}
 
@@ -131,30 +238,103 @@ public class ItemSystem {
 		return exists(Arrays.asList(tags));
 	}
 
+	/**
+	 * 全てのタグを持つアイテムがあるかを検査します.<br>
+	 *
+	 * @param tags タグ。<br>
+	 * @return 1つ以上ある場合true。tagsが空の場合はfalse。<br>
+	 */
 	public boolean exists(Collection<ItemTags> tags) {
 		if (tags.isEmpty()) {
 			return false;
 		}
-		EnumMap<ItemTags, Set<File>> list = new EnumMap<>(ItemTags.class);
+		int words = (ids.length + 63) >>> 6;
+		for (int w = 0; w < words; w++) {
+			if (and(tags, w) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 全てのタグを持つアイテムの数を返します.<br>
+	 *
+	 * @param tags タグ。<br>
+	 * @return アイテムの数。tagsが空の場合は0。<br>
+	 */
+	public int count(Collection<ItemTags> tags) {
+		if (tags.isEmpty()) {
+			return 0;
+		}
+		int res = 0;
+		int words = (ids.length + 63) >>> 6;
+		for (int w = 0; w < words; w++) {
+			res += Long.bitCount(and(tags, w));
+		}
+		return res;
+	}
+
+	public List<String> getIds(ItemTags... tags) {
+		return getIds(Arrays.asList(tags));
+	}
+
+	/**
+	 * 全てのタグを持つアイテムのIDを返します.<br>
+	 *
+	 * @param tags タグ。<br>
+	 * @return アイテムのIDのリスト。tagsが空の場合は空のリスト。<br>
+	 */
+	@NewInstance
+	public List<String> getIds(Collection<ItemTags> tags) {
+		List<String> res = new ArrayList<>();
+		if (tags.isEmpty()) {
+			return res;
+		}
+		int words = (ids.length + 63) >>> 6;
+		for (int w = 0; w < words; w++) {
+			long bits = and(tags, w);
+			while (bits != 0) {
+				res.add(ids[(w << 6) + Long.numberOfTrailingZeros(bits)]);
+				bits &= bits - 1;
+			}
+		}
+		return res;
+	}
 
+	private long and(Collection<ItemTags> tags, int w) {
+		long bits = -1L;
 		for (var t : tags) {
-			TextFile f = indexFiles.get(t);
-			f.load();
-			for (var v : f) {
-				list.get(t).add(v.asFile());
+			bits &= postings[t.ordinal()][w];
+			if (bits == 0) {
+				break;
 			}
-			f.free();
 		}
+		return bits;
+	}
 
-		List<ItemTags> t = new ArrayList<>(tags);
-		Set<File> r = new HashSet<>(list.getOrDefault(t.get(0), Set.of()));
+	public boolean has(String id, ItemTags t) {
+		Integer i = idIndex.get(id);
+		return i != null && (postings[t.ordinal()][i >>> 6] & (1L << i)) != 0;
+	}
 
-		for (int i = 1; i < t.size(); i++) {
-			r.retainAll(list.getOrDefault(t.get(i), Set.of()));
-		}
+	/**
+	 * アイテムの番号を返します. 番号はinitのたびに振り直されます.<br>
+	 *
+	 * @param id アイテムのID。<br>
+	 * @return 番号。ない場合は-1。<br>
+	 */
+	public int indexOf(String id) {
+		Integer i = idIndex.get(id);
+		return i == null ? -1 : i;
+	}
 
-		return !r.isEmpty();
+	public String idOf(int index) {
+		return ids[index];
+	}
 
+	public int size() {
+		return ids.length;
 	}
 
 //	public Set<Item> get(ItemTags... tags) {
@@ -187,7 +367,7 @@ public class ItemSystem {
 //	}
 
 	public boolean exists(String id) {
-		return new File(getPath(id)).exists();
+		return idIndex.containsKey(id);
 	}
 
 }
@@ -69,12 +69,17 @@ public class MessageWindow extends Sprite {
 	@Override
 	public MessageWindow update() {
 		text.isReaching();
+		//文字送りとアイコンの点滅があるため、表示中は毎フレーム再描画させる
+		if (isVisible() && isExist()) {
+			markDirty();
+		}
 
 		return this;
 	}
 
 	public void setModel(MessageWindowModel model) {
 		this.model = model;
+		markDirty();
 	}
 
 	public MessageWindowModel getModel() {
@@ -83,11 +88,13 @@ public class MessageWindow extends Sprite {
 
 	public void showAllNow() {
 		text.allText();
+		markDirty();
 	}
 
 	public void setText(Text text) {
 		this.text = text;
 		select = 0;
+		markDirty();
 		if (this.text.getScript() != null) {
 			this.text.getScript().exec();
 		}
@@ -132,6 +139,7 @@ public class MessageWindow extends Sprite {
 	public void reset() {
 		text.reset();
 		this.select = 0;
+		markDirty();
 	}
 
 	public boolean hasNext() {
@@ -179,6 +187,7 @@ public class MessageWindow extends Sprite {
 
 	public void setSelect(int select) {
 		this.select = select;
+		markDirty();
 	}
 
 	public void nextSelect() {
@@ -189,6 +198,7 @@ public class MessageWindow extends Sprite {
 		if (getChoice().getOptions().size() <= select) {
 			select = 0;
 		}
+		markDirty();
 	}
 
 	public void prevSelect() {
@@ -199,6 +209,7 @@ public class MessageWindow extends Sprite {
 		if (0 > select) {
 			select = getChoice().getOptions().size() - 1;
 		}
+		markDirty();
 	}
 
 	public Text getSelectedChoiceOption() {
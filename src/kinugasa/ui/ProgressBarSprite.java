@@ -50,6 +50,8 @@ public class ProgressBarSprite extends Sprite {
 
 	public void reset() {
 		val = initial;
+		setColor();
+		markDirty();
 	}
 
 	public void setColorChange(boolean colorChange) {
@@ -63,6 +65,7 @@ public class ProgressBarSprite extends Sprite {
 	public void setVal(int val) {
 		this.val = val;
 		setColor();
+		markDirty();
 	}
 
 	public void setInitial(int initial) {
@@ -72,6 +75,7 @@ public class ProgressBarSprite extends Sprite {
 	public void setMax(int max) {
 		this.max = max;
 		setColor();
+		markDirty();
 	}
 
 	public int getVal() {
@@ -88,6 +92,7 @@ public class ProgressBarSprite extends Sprite {
 
 	public void setColor(Color color) {
 		this.color = color;
+		markDirty();
 	}
 
 	public Color getColor() {
@@ -112,6 +117,7 @@ public class ProgressBarSprite extends Sprite {
 			val = max;
 		}
 		setColor();
+		markDirty();
 	}
 
 	public void sub() {
@@ -120,6 +126,7 @@ public class ProgressBarSprite extends Sprite {
 			val = 0;
 		}
 		setColor();
+		markDirty();
 	}
 
 	private void setColor() {
@@ -140,6 +147,7 @@ public class ProgressBarSprite extends Sprite {
 
 	public void setVisibleValue(boolean visibleValue) {
 		this.visibleValue = visibleValue;
+		markDirty();
 	}
 
 	public boolean isVisibleValue() {
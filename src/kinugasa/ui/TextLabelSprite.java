@@ -30,6 +30,7 @@ import kinugasa.game.GraphicsContext;
 import kinugasa.game.annotation.NoLoopCall;
 import kinugasa.graphics.ARGBColor;
 import kinugasa.graphics.ImageUtil;
+import kinugasa.graphics.PackedRaster;
 import kinugasa.graphics.RenderingQuality;
 import kinugasa.object.Sprite;
 
@@ -73,19 +74,19 @@ public class TextLabelSprite extends Sprite {
 		g.drawString(text, 0, labelModel.getFontSize());
 		g.dispose();
 
-		//テキストサイズの探索
-		int[][] pix = ImageUtil.getPixel2D(image);
-		for (int y = 0; y < pix.length; y++) {
-			for (int x = pix[y].length - 1; x >= 0; x--) {
-				for (int yy = 0; yy < pix.length; yy++) {
-					if (ARGBColor.getRed(pix[yy][x]) == 255) {
-						setWidth(x);
-						return this;
-					}
+		//テキストサイズの探索：行ごとに、見つかっている右端より右だけを調べる
+		PackedRaster pr = PackedRaster.of(image);
+		int[] pix = pr.getData();
+		int right = -1;
+		for (int y = 0; y < pr.getHeight(); y++) {
+			for (int x = pr.getWidth() - 1, i = pr.index(x, y); x > right; x--, i--) {
+				if (ARGBColor.getRed(pix[i]) == 255) {
+					right = x;
+					break;
 				}
 			}
 		}
-		setWidth(0);
+		setWidth(Math.max(right, 0));
 		return this;
 	}
 
@@ -101,10 +102,11 @@ public class TextLabelSprite extends Sprite {
 		g.dispose();
 
 		//テキストサイズの探索
-		int[][] pix = ImageUtil.getPixel2D(image);
-		for (int y = pix.length - 1; y >= 0; y--) {
-			for (int x = 0; x < pix[y].length; x++) {
-				if (ARGBColor.getRed(pix[y][x]) == 255) {
+		PackedRaster pr = PackedRaster.of(image);
+		int[] pix = pr.getData();
+		for (int y = pr.getHeight() - 1; y >= 0; y--) {
+			for (int i = pr.index(0, y), end = i + pr.getWidth(); i < end; i++) {
+				if (ARGBColor.getRed(pix[i]) == 255) {
 					setHeight(y);
 					return this;
 				}
@@ -120,6 +122,7 @@ public class TextLabelSprite extends Sprite {
 
 	public void setText(String text) {
 		this.text = text;
+		markDirty();
 	}
 
 	public TextLabelModel getLabelModel() {
@@ -128,6 +131,7 @@ public class TextLabelSprite extends Sprite {
 
 	public void setLabelModel(TextLabelModel labelModel) {
 		this.labelModel = labelModel;
+		markDirty();
 	}
 
 	@Override